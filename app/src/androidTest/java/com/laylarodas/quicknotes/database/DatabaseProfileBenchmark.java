@@ -0,0 +1,152 @@
+package com.laylarodas.quicknotes.database;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.laylarodas.quicknotes.model.Note;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.*;
+
+/**
+ * Benchmark de los perfiles de DatabaseProfile: mismo trabajo con cada perfil,
+ * sobre una base de datos en disco para que fsync y cache cuenten de verdad.
+ *
+ * Mide por perfil:
+ * - escrituras sueltas (una transacción por escritura: aquí se nota synchronous)
+ * - escrituras agrupadas por NoteWriteExecutor
+ * - lecturas de la lista completa y por ID
+ *
+ * Los resultados se imprimen en logcat con el tag "ProfileBenchmark";
+ * ejecutarlo en un dispositivo de cada clase para elegir el perfil en forDevice().
+ */
+@RunWith(AndroidJUnit4.class)
+public class DatabaseProfileBenchmark {
+
+    private static final String TAG = "ProfileBenchmark";
+    private static final String DB_NAME = "profile_benchmark.db";
+    private static final int SINGLE_WRITES = 300;
+    private static final int BATCHED_WRITES = 2000;
+    private static final int LIST_READS = 20;
+    private static final int ID_READS = 2000;
+
+    private Context context;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+    }
+
+    @Test
+    public void compareProfiles() throws Exception {
+        StringBuilder report = new StringBuilder("perfil | escrituras sueltas/s | escrituras agrupadas/s | listas/s | lecturas por ID/s");
+        for (DatabaseProfile profile : DatabaseProfile.ALL) {
+            context.deleteDatabase(DB_NAME);
+            NoteDatabase database = NoteDatabase.create(context, DB_NAME, profile, false);
+            try {
+                report.append('\n').append(run(database, profile));
+            } finally {
+                database.close();
+                context.deleteDatabase(DB_NAME);
+            }
+        }
+        Log.i(TAG, report.toString());
+    }
+
+    @Test
+    public void profilePragmasAreApplied() {
+        context.deleteDatabase(DB_NAME);
+        NoteDatabase database = NoteDatabase.create(context, DB_NAME, DatabaseProfile.STANDARD, false);
+        try {
+            // La conexión principal es la que configura onOpen
+            database.runInTransaction(() -> {
+                assertEquals(1, pragmaValue(database, "synchronous"));   // NORMAL
+                assertEquals(-4096, pragmaValue(database, "cache_size"));
+                assertEquals(2, pragmaValue(database, "temp_store"));    // MEMORY
+                assertEquals(1000, pragmaValue(database, "wal_autocheckpoint"));
+            });
+            assertEquals(DatabaseProfile.STANDARD, database.getProfile());
+        } finally {
+            database.close();
+            context.deleteDatabase(DB_NAME);
+        }
+    }
+
+    private String run(NoteDatabase database, DatabaseProfile profile) throws Exception {
+        NoteDao noteDao = database.noteDao();
+
+        // Escrituras sueltas: cada insert es su propia transacción (un commit cada una)
+        long start = System.nanoTime();
+        for (Note note : createNotes(SINGLE_WRITES, "suelta")) {
+            noteDao.insert(note);
+        }
+        long singleMs = elapsedMs(start);
+
+        // Escrituras agrupadas: el camino real de la app
+        NoteWriteExecutor writeExecutor = new NoteWriteExecutor(database, NoteWriteExecutor.DEFAULT_BATCH_WINDOW_MS);
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        start = System.nanoTime();
+        for (Note note : createNotes(BATCHED_WRITES, "agrupada")) {
+            futures.add(writeExecutor.submit(dao -> dao.insert(note)));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get();
+        long batchedMs = elapsedMs(start);
+        writeExecutor.shutdown();
+
+        // Lecturas de la lista completa
+        start = System.nanoTime();
+        List<Note> notes = null;
+        for (int i = 0; i < LIST_READS; i++) {
+            notes = noteDao.getAllNotesSync();
+        }
+        long listMs = elapsedMs(start);
+        assertEquals(SINGLE_WRITES + BATCHED_WRITES, notes.size());
+
+        // Lecturas por ID en orden aleatorio
+        Random random = new Random(42);
+        start = System.nanoTime();
+        for (int i = 0; i < ID_READS; i++) {
+            assertNotNull(noteDao.getNoteById(notes.get(random.nextInt(notes.size())).getId()));
+        }
+        long idMs = elapsedMs(start);
+
+        Log.i(TAG, profile.toString());
+        return profile.getName() + " | " + perSecond(SINGLE_WRITES, singleMs) + " | " + perSecond(BATCHED_WRITES, batchedMs)
+                + " | " + perSecond(LIST_READS, listMs) + " | " + perSecond(ID_READS, idMs);
+    }
+
+    private static long pragmaValue(NoteDatabase database, String pragma) {
+        try (Cursor cursor = database.query("PRAGMA " + pragma, null)) {
+            assertTrue(cursor.moveToFirst());
+            return cursor.getLong(0);
+        }
+    }
+
+    private static List<Note> createNotes(int count, String kind) {
+        List<Note> notes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            notes.add(new Note("Nota " + kind + " " + i, "Contenido de la nota " + kind + " " + i));
+        }
+        return notes;
+    }
+
+    private static long elapsedMs(long startNanos) {
+        return Math.max(1, (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    private static long perSecond(int operations, long elapsedMs) {
+        return operations * 1000L / elapsedMs;
+    }
+}
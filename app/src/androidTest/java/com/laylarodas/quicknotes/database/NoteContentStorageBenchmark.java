@@ -0,0 +1,250 @@
+package com.laylarodas.quicknotes.database;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.util.Log;
+
+import androidx.sqlite.db.SimpleSQLiteQuery;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.laylarodas.quicknotes.model.Note;
+import com.laylarodas.quicknotes.model.NoteCategory;
+import com.laylarodas.quicknotes.model.NoteSummary;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Benchmark del contenido en tabla aparte (note_content, comprimido) frente al esquema anterior
+ * (versión 6: contenido dentro de note_table e índice FTS4 external content sobre ella),
+ * con un corpus de notas largas.
+ *
+ * Mide para cada esquema:
+ * - tamaño del archivo de la base de datos, y por separado lo que ocupan los cuerpos de las notas,
+ *   la copia del texto que guarda note_fts (solo el esquema nuevo) y los segmentos del índice FTS.
+ *   El archivo nuevo es más grande: note_fts guarda el texto sin comprimir (el que antes estaba en
+ *   note_table) y además están los cuerpos comprimidos. Lo que baja es lo que se lee al recorrer la lista.
+ * - bytes leídos del disco (rchar de /proc/self/io) y tiempo al recorrer la lista completa
+ *   con una conexión recién abierta (cache de páginas de SQLite vacía)
+ * - tiempo de abrir notas por ID (en el esquema nuevo incluye descomprimir)
+ *
+ * Los resultados se imprimen en logcat con el tag "ContentBenchmark".
+ */
+@RunWith(AndroidJUnit4.class)
+public class NoteContentStorageBenchmark {
+
+    private static final String TAG = "ContentBenchmark";
+    private static final String LEGACY_DB = "content_benchmark_legacy.db";
+    private static final String SPLIT_DB = "content_benchmark_split.db";
+    private static final int NOTE_COUNT = 300;
+    private static final int WORDS_PER_NOTE = 3000; // ~20 KB por nota
+    private static final int ID_READS = 100;
+
+    // Mismo orden y columnas que la lista principal (NoteDao.getAllNotesByModified)
+    private static final String LEGACY_LIST_QUERY = "SELECT id, title, substr(content, 1, "
+            + NoteSummary.PREVIEW_LENGTH + ") AS preview, createdAt, modifiedAt, category, isPinned "
+            + "FROM note_table ORDER BY isPinned DESC, modifiedAt DESC";
+    private static final String SPLIT_LIST_QUERY = "SELECT " + NoteDao.SUMMARY_COLUMNS
+            + " FROM note_table ORDER BY isPinned DESC, modifiedAt DESC";
+
+    // Bytes de cada parte (sin contar páginas ni índices de SQLite)
+    private static final String LEGACY_BODY_BYTES = "SELECT SUM(LENGTH(CAST(content AS BLOB))) FROM note_table";
+    private static final String SPLIT_BODY_BYTES = "SELECT SUM(LENGTH(body)) FROM note_content";
+    private static final String FTS_COPY_BYTES = "SELECT SUM(LENGTH(CAST(c1content AS BLOB))) FROM note_fts_content";
+    private static final String FTS_INDEX_BYTES = "SELECT (SELECT IFNULL(SUM(LENGTH(block)), 0) FROM note_fts_segments)"
+            + " + (SELECT IFNULL(SUM(LENGTH(root)), 0) FROM note_fts_segdir)";
+
+    private static final String[] WORDS = {
+            "reunión", "proyecto", "informe", "presupuesto", "cliente", "entrega", "revisar", "equipo",
+            "semana", "lunes", "viernes", "mañana", "importante", "pendiente", "llamar", "correo",
+            "diseño", "código", "prueba", "error", "versión", "servidor", "datos", "usuario",
+            "compras", "leche", "pan", "receta", "cena", "viaje", "hotel", "vuelo"
+    };
+
+    private Context context;
+    private List<Note> notes;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(LEGACY_DB);
+        context.deleteDatabase(SPLIT_DB);
+        notes = createNotes();
+    }
+
+    @After
+    public void tearDown() {
+        context.deleteDatabase(LEGACY_DB);
+        context.deleteDatabase(SPLIT_DB);
+    }
+
+    @Test
+    public void splitContentReducesListScanIo() throws Exception {
+        // ---------- Esquema anterior: contenido dentro de note_table ----------
+        File legacyFile = context.getDatabasePath(LEGACY_DB);
+        SQLiteDatabase legacy = SQLiteDatabase.openOrCreateDatabase(legacyFile, null);
+        legacy.execSQL("CREATE TABLE note_table (id TEXT NOT NULL PRIMARY KEY, title TEXT COLLATE NOCASE, "
+                + "content TEXT, createdAt INTEGER NOT NULL, modifiedAt INTEGER NOT NULL, "
+                + "category INTEGER NOT NULL DEFAULT 0, isPinned INTEGER NOT NULL DEFAULT 0)");
+        legacy.execSQL("CREATE INDEX index_note_pinned_modified ON note_table (isPinned, modifiedAt)");
+        legacy.execSQL("CREATE INDEX index_note_pinned_created ON note_table (isPinned, createdAt)");
+        legacy.execSQL("CREATE INDEX index_note_pinned_title_asc ON note_table (isPinned DESC, title COLLATE NOCASE ASC)");
+        legacy.execSQL("CREATE INDEX index_note_pinned_title_desc ON note_table (isPinned, title COLLATE NOCASE)");
+        legacy.execSQL("CREATE INDEX index_note_category_pinned_modified ON note_table (category, isPinned, modifiedAt)");
+        legacy.execSQL("CREATE VIRTUAL TABLE note_fts USING FTS4("
+                + "`title` TEXT, `content` TEXT, tokenize=unicode61, content=`note_table`)");
+        legacy.beginTransaction();
+        try {
+            for (Note note : notes) {
+                legacy.execSQL("INSERT INTO note_table VALUES (?, ?, ?, ?, ?, ?, ?)", new Object[]{
+                        note.getId(), note.getTitle(), note.getContent(), note.getCreatedAt(),
+                        note.getModifiedAt(), note.getCategory().getCode(), note.isPinned() ? 1 : 0});
+            }
+            // En la versión 6 los triggers de Room indexaban cada fila: el índice final es el mismo
+            legacy.execSQL("INSERT INTO note_fts(note_fts) VALUES('rebuild')");
+            legacy.setTransactionSuccessful();
+        } finally {
+            legacy.endTransaction();
+        }
+        legacy.close();
+
+        legacy = SQLiteDatabase.openDatabase(legacyFile.getPath(), null, SQLiteDatabase.OPEN_READONLY);
+        long legacyRead = readBytes();
+        long start = System.nanoTime();
+        int legacyRows = countRows(legacy.rawQuery(LEGACY_LIST_QUERY, null));
+        long legacyListMs = elapsedMs(start);
+        legacyRead = readBytes() - legacyRead;
+
+        Random random = new Random(42);
+        start = System.nanoTime();
+        for (int i = 0; i < ID_READS; i++) {
+            String id = notes.get(random.nextInt(NOTE_COUNT)).getId();
+            try (Cursor cursor = legacy.rawQuery("SELECT * FROM note_table WHERE id = ?", new String[]{id})) {
+                assertTrue(cursor.moveToFirst());
+                cursor.getString(cursor.getColumnIndexOrThrow("content"));
+            }
+        }
+        long legacyIdMs = elapsedMs(start);
+        long legacyBodies = queryLong(legacy.rawQuery(LEGACY_BODY_BYTES, null));
+        long legacyIndex = queryLong(legacy.rawQuery(FTS_INDEX_BYTES, null));
+        legacy.close();
+
+        // ---------- Esquema nuevo: note_content comprimido ----------
+        NoteDatabase split = NoteDatabase.create(context, SPLIT_DB, DatabaseProfile.ROOM_DEFAULT, false);
+        split.noteDao().insertAll(notes);
+        split.close();
+
+        split = NoteDatabase.create(context, SPLIT_DB, DatabaseProfile.ROOM_DEFAULT, false);
+        split.getOpenHelper().getReadableDatabase(); // Abrir antes de medir
+        long splitRead = readBytes();
+        start = System.nanoTime();
+        int splitRows = countRows(split.query(new SimpleSQLiteQuery(SPLIT_LIST_QUERY)));
+        long splitListMs = elapsedMs(start);
+        splitRead = readBytes() - splitRead;
+
+        random = new Random(42);
+        start = System.nanoTime();
+        for (int i = 0; i < ID_READS; i++) {
+            Note expected = notes.get(random.nextInt(NOTE_COUNT));
+            assertEquals(expected.getContent(), split.noteDao().getNoteById(expected.getId()).getContent());
+        }
+        long splitIdMs = elapsedMs(start);
+        long splitBodies = queryLong(split.query(new SimpleSQLiteQuery(SPLIT_BODY_BYTES)));
+        long splitFtsCopy = queryLong(split.query(new SimpleSQLiteQuery(FTS_COPY_BYTES)));
+        long splitIndex = queryLong(split.query(new SimpleSQLiteQuery(FTS_INDEX_BYTES)));
+        split.close();
+
+        long legacySize = legacyFile.length();
+        long splitSize = context.getDatabasePath(SPLIT_DB).length();
+        Log.i(TAG, NOTE_COUNT + " notas de ~" + notes.get(0).getContent().length() / 1024 + " KB"
+                + "\n  archivo: antes " + legacySize / 1024 + " KB, ahora " + splitSize / 1024 + " KB"
+                + "\n  cuerpos: antes " + legacyBodies / 1024 + " KB, ahora " + splitBodies / 1024 + " KB"
+                + " + copia en note_fts " + splitFtsCopy / 1024 + " KB"
+                + "\n  índice FTS: antes " + legacyIndex / 1024 + " KB, ahora " + splitIndex / 1024 + " KB"
+                + "\n  lista: antes " + legacyRead / 1024 + " KB leídos / " + legacyListMs + " ms"
+                + ", ahora " + splitRead / 1024 + " KB leídos / " + splitListMs + " ms"
+                + "\n  " + ID_READS + " notas por ID: antes " + legacyIdMs + " ms, ahora " + splitIdMs + " ms");
+
+        assertEquals(NOTE_COUNT, legacyRows);
+        assertEquals(NOTE_COUNT, splitRows);
+        assertTrue("La lista debería leer menos datos sin los cuerpos", splitRead < legacyRead);
+        assertTrue("Los cuerpos comprimidos deberían ocupar menos", splitBodies < legacyBodies);
+    }
+
+    private static long queryLong(Cursor cursor) {
+        try {
+            assertTrue(cursor.moveToFirst());
+            return cursor.getLong(0);
+        } finally {
+            cursor.close();
+        }
+    }
+
+    /**
+     * Recorre el cursor leyendo todas las columnas, como hace Room al llenar NoteSummary.
+     */
+    private static int countRows(Cursor cursor) {
+        int rows = 0;
+        try {
+            while (cursor.moveToNext()) {
+                for (int column = 0; column < cursor.getColumnCount(); column++) {
+                    cursor.getString(column);
+                }
+                rows++;
+            }
+        } finally {
+            cursor.close();
+        }
+        return rows;
+    }
+
+    /**
+     * Bytes leídos por el proceso con read()/pread() (incluye los que vienen de la cache del sistema).
+     */
+    private static long readBytes() throws IOException {
+        try (BufferedReader reader = new BufferedReader(new FileReader("/proc/self/io"))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("rchar:")) {
+                    return Long.parseLong(line.substring("rchar:".length()).trim());
+                }
+            }
+        }
+        throw new IOException("rchar no disponible");
+    }
+
+    private static List<Note> createNotes() {
+        Random random = new Random(7);
+        NoteCategory[] categories = NoteCategory.values();
+        List<Note> result = new ArrayList<>(NOTE_COUNT);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < NOTE_COUNT; i++) {
+            StringBuilder content = new StringBuilder();
+            for (int w = 0; w < WORDS_PER_NOTE; w++) {
+                content.append(w > 0 ? (random.nextInt(15) == 0 ? ".\n" : " ") : "")
+                        .append(WORDS[random.nextInt(WORDS.length)]);
+            }
+            result.add(new Note("note-" + i, "Nota larga " + i, content.toString(), now - i * 60_000L,
+                    now - i * 60_000L, categories[i % categories.length], i % 10 == 0));
+        }
+        return result;
+    }
+
+    private static long elapsedMs(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
@@ -0,0 +1,180 @@
+package com.laylarodas.quicknotes.database;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.laylarodas.quicknotes.model.Note;
+import com.laylarodas.quicknotes.model.NoteCategory;
+import com.laylarodas.quicknotes.model.NoteSummary;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Benchmark de la búsqueda aproximada (NoteWordIndex) con 50.000 notas.
+ *
+ * El vocabulario es sintético pero con la forma de uno real: miles de palabras distintas
+ * con frecuencias de Zipf (unas pocas muy comunes, la mayoría raras).
+ * Cada búsqueda son dos palabras de una misma nota con un error de tipeo cada una.
+ *
+ * Los resultados se imprimen en logcat con el tag "FuzzyBenchmark".
+ */
+@RunWith(AndroidJUnit4.class)
+public class NoteFuzzySearchBenchmark {
+
+    private static final String TAG = "FuzzyBenchmark";
+    private static final String DB_NAME = "fuzzy_benchmark.db";
+    private static final int NOTE_COUNT = 50_000;
+    private static final int VOCABULARY_SIZE = 20_000;
+    private static final int QUERIES = 50;
+    private static final long MAX_MEDIAN_MS = 50;
+
+    private static final String[] SYLLABLES = {
+            "ca", "sa", "me", "lo", "ri", "ta", "pe", "no", "du", "vi", "gra", "mon", "tel", "pol",
+            "ser", "fin", "cor", "bu", "les", "tra", "an", "es", "in", "mar", "ve", "ro", "cio", "ga"
+    };
+
+    private Context context;
+    private NoteDatabase database;
+    private final Random random = new Random(42);
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(DB_NAME);
+        database = NoteDatabase.create(context, DB_NAME, DatabaseProfile.ROOM_DEFAULT, false);
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+        context.deleteDatabase(DB_NAME);
+    }
+
+    @Test
+    public void fuzzySearchStaysUnderBudget() {
+        String[] vocabulary = createVocabulary();
+        double[] cumulative = zipf(vocabulary.length);
+        List<Note> notes = createNotes(vocabulary, cumulative);
+        NoteDao dao = database.noteDao();
+
+        long start = System.nanoTime();
+        database.runInTransaction(() -> dao.insertAll(notes));
+        long insertMs = (System.nanoTime() - start) / 1_000_000;
+
+        List<String> queries = new ArrayList<>(QUERIES);
+        while (queries.size() < QUERIES) {
+            List<String> words = new ArrayList<>(new LinkedHashSet<>(
+                    Arrays.asList(notes.get(random.nextInt(NOTE_COUNT)).getContent().split(" "))));
+            String first = words.get(random.nextInt(words.size()));
+            String second = words.get(random.nextInt(words.size()));
+            if (first.length() >= 5 && second.length() >= 5 && !first.equals(second)) {
+                queries.add(typo(first) + " " + typo(second));
+            }
+        }
+
+        // Calentamiento: cache de páginas de SQLite y JIT
+        for (int i = 0; i < 5; i++) {
+            NoteWordIndex.search(dao, queries.get(i));
+        }
+        long[] timings = new long[QUERIES];
+        int withResults = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            start = System.nanoTime();
+            List<NoteSummary> results = NoteWordIndex.search(dao, queries.get(i));
+            timings[i] = System.nanoTime() - start;
+            if (!results.isEmpty()) {
+                withResults++;
+            }
+        }
+        Arrays.sort(timings);
+        double medianMs = timings[QUERIES / 2] / 1e6;
+        double worstMs = timings[QUERIES - 1] / 1e6;
+
+        Log.i(TAG, String.format(Locale.ROOT, "%d notas, insertadas en %d ms"
+                        + "%n  búsqueda aproximada: mediana %.1f ms, peor %.1f ms, %d/%d con resultados (ej: \"%s\")",
+                NOTE_COUNT, insertMs, medianMs, worstMs, withResults, QUERIES, queries.get(0)));
+
+        assertTrue("Pocas búsquedas con resultados: " + withResults, withResults >= QUERIES * 9 / 10);
+        assertTrue("Mediana de " + medianMs + " ms (máximo " + MAX_MEDIAN_MS + ")", medianMs < MAX_MEDIAN_MS);
+    }
+
+    // ==================== DATOS ====================
+
+    private String[] createVocabulary() {
+        Set<String> words = new LinkedHashSet<>();
+        while (words.size() < VOCABULARY_SIZE) {
+            StringBuilder word = new StringBuilder();
+            int syllables = 2 + random.nextInt(3);
+            for (int s = 0; s < syllables; s++) {
+                word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+            words.add(word.toString());
+        }
+        return words.toArray(new String[0]);
+    }
+
+    /**
+     * Probabilidad acumulada de cada palabra: la palabra en la posición k aparece con peso 1/k.
+     */
+    private static double[] zipf(int size) {
+        double[] cumulative = new double[size];
+        double total = 0;
+        for (int k = 0; k < size; k++) {
+            total += 1.0 / (k + 1);
+            cumulative[k] = total;
+        }
+        for (int k = 0; k < size; k++) {
+            cumulative[k] /= total;
+        }
+        return cumulative;
+    }
+
+    private List<Note> createNotes(String[] vocabulary, double[] cumulative) {
+        NoteCategory[] categories = NoteCategory.values();
+        long now = System.currentTimeMillis();
+        List<Note> notes = new ArrayList<>(NOTE_COUNT);
+        for (int i = 0; i < NOTE_COUNT; i++) {
+            StringBuilder content = new StringBuilder();
+            int length = 20 + random.nextInt(60);
+            for (int w = 0; w < length; w++) {
+                int index = Arrays.binarySearch(cumulative, random.nextDouble());
+                content.append(w > 0 ? " " : "").append(vocabulary[index >= 0 ? index : -index - 1]);
+            }
+            notes.add(new Note("note-" + i, "Nota " + i, content.toString(), now - i * 60_000L,
+                    now - i * 60_000L, categories[i % categories.length], i % 20 == 0));
+        }
+        return notes;
+    }
+
+    /**
+     * Un error de tipeo: dos letras seguidas intercambiadas o una letra cambiada.
+     */
+    private String typo(String word) {
+        char[] chars = word.toCharArray();
+        int position = 1 + random.nextInt(chars.length - 2);
+        if (random.nextBoolean()) {
+            char swapped = chars[position];
+            chars[position] = chars[position + 1];
+            chars[position + 1] = swapped;
+        } else {
+            chars[position] = chars[position] == 'x' ? 'z' : 'x';
+        }
+        return new String(chars);
+    }
+}
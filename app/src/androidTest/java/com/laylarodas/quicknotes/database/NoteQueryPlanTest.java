@@ -0,0 +1,106 @@
+package com.laylarodas.quicknotes.database;
+
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.room.Room;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * Verifica con EXPLAIN QUERY PLAN que las consultas ordenadas de NoteDao
+ * usan los índices de note_table y no ordenan en un B-tree temporal,
+ * y que la búsqueda aproximada encuentra los trigramas por índice.
+ */
+@RunWith(AndroidJUnit4.class)
+public class NoteQueryPlanTest {
+
+    private NoteDatabase database;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        database = Room.inMemoryDatabaseBuilder(context, NoteDatabase.class).build();
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+    }
+
+    @Test
+    public void sortByModifiedUsesIndex() {
+        assertNoTempSort("SELECT * FROM note_table ORDER BY isPinned DESC, modifiedAt DESC",
+                "index_note_pinned_modified");
+    }
+
+    @Test
+    public void sortByCreatedUsesIndex() {
+        assertNoTempSort("SELECT * FROM note_table ORDER BY isPinned DESC, createdAt DESC",
+                "index_note_pinned_created");
+    }
+
+    @Test
+    public void sortByTitleAscUsesIndex() {
+        assertNoTempSort("SELECT * FROM note_table ORDER BY isPinned DESC, title COLLATE NOCASE ASC",
+                "index_note_pinned_title_asc");
+    }
+
+    @Test
+    public void sortByTitleDescUsesIndex() {
+        assertNoTempSort("SELECT * FROM note_table ORDER BY isPinned DESC, title COLLATE NOCASE DESC",
+                "index_note_pinned_title_desc");
+    }
+
+    @Test
+    public void categoryFilterUsesIndexRange() {
+        String plan = explain("SELECT * FROM note_table WHERE category = 1 ORDER BY isPinned DESC, modifiedAt DESC");
+        assertFalse("Orden con B-tree temporal: " + plan, plan.contains("TEMP B-TREE"));
+        assertTrue("No recorre solo la categoría: " + plan,
+                plan.contains("index_note_category_pinned_modified (category=?)"));
+    }
+
+    @Test
+    public void categoryCountsOnlyReadTheIndex() {
+        String plan = explain("SELECT category, isPinned, COUNT(*) AS count FROM note_table GROUP BY category, isPinned");
+        assertFalse("GROUP BY con B-tree temporal: " + plan, plan.contains("TEMP B-TREE"));
+        assertTrue("No usa el índice como covering index: " + plan,
+                plan.contains("COVERING INDEX index_note_category_pinned_modified"));
+    }
+
+    @Test
+    public void trigramLookupUsesPrimaryKey() {
+        String plan = explain("SELECT note_word.* FROM note_trigram JOIN note_word ON note_word.id = note_trigram.wordId " +
+                "WHERE note_trigram.trigram IN (' ca', 'cas', 'asa', 'sa ') AND LENGTH(note_word.word) BETWEEN 3 AND 5 " +
+                "GROUP BY note_trigram.wordId");
+        assertTrue("No busca los trigramas por la clave primaria: " + plan,
+                plan.contains("sqlite_autoindex_note_trigram_1 (trigram=?)"));
+        assertFalse("Recorre todo el vocabulario: " + plan, plan.contains("SCAN note_word"));
+    }
+
+    private void assertNoTempSort(String sql, String expectedIndex) {
+        String plan = explain(sql);
+        assertFalse("Orden con B-tree temporal: " + plan, plan.contains("TEMP B-TREE"));
+        assertTrue("No usa " + expectedIndex + ": " + plan, plan.contains(expectedIndex));
+    }
+
+    private String explain(String sql) {
+        SupportSQLiteDatabase db = database.getOpenHelper().getReadableDatabase();
+        StringBuilder plan = new StringBuilder();
+        try (Cursor cursor = db.query("EXPLAIN QUERY PLAN " + sql)) {
+            int detailIndex = cursor.getColumnIndexOrThrow("detail");
+            while (cursor.moveToNext()) {
+                plan.append(cursor.getString(detailIndex)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+}
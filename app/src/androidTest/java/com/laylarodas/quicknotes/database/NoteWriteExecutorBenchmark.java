@@ -0,0 +1,105 @@
+package com.laylarodas.quicknotes.database;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.room.Room;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.laylarodas.quicknotes.model.Note;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+/**
+ * Benchmark de escrituras en ráfaga: compara el camino anterior
+ * (una escritura = una transacción, como hacían los AsyncTask)
+ * con NoteWriteExecutor (escrituras agrupadas en una transacción).
+ *
+ * Usa una base de datos en disco para que el coste de cada commit (fsync) sea real.
+ * Los resultados se imprimen en logcat con el tag "WriteBenchmark".
+ */
+@RunWith(AndroidJUnit4.class)
+public class NoteWriteExecutorBenchmark {
+
+    private static final String DB_NAME = "write_benchmark.db";
+    private static final int NOTE_COUNT = 1000;
+
+    private Context context;
+    private NoteDatabase database;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(DB_NAME);
+        database = Room.databaseBuilder(context, NoteDatabase.class, DB_NAME).build();
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+        context.deleteDatabase(DB_NAME);
+    }
+
+    @Test
+    public void batchedWritesAreFasterThanOneTransactionPerWrite() throws Exception {
+        NoteDao noteDao = database.noteDao();
+
+        // Camino anterior: cada insert en su propia transacción implícita, en serie
+        ExecutorService serialExecutor = Executors.newSingleThreadExecutor();
+        List<Future<?>> perCall = new ArrayList<>();
+        long start = System.nanoTime();
+        for (Note note : createNotes(NOTE_COUNT)) {
+            perCall.add(serialExecutor.submit(() -> noteDao.insert(note)));
+        }
+        for (Future<?> future : perCall) {
+            future.get();
+        }
+        long perCallMs = (System.nanoTime() - start) / 1_000_000;
+        serialExecutor.shutdown();
+
+        noteDao.deleteAllNotes();
+
+        // Camino nuevo: NoteWriteExecutor agrupa las escrituras por lotes
+        NoteWriteExecutor writeExecutor = new NoteWriteExecutor(database, NoteWriteExecutor.DEFAULT_BATCH_WINDOW_MS);
+        List<CompletableFuture<Void>> batched = new ArrayList<>();
+        start = System.nanoTime();
+        for (Note note : createNotes(NOTE_COUNT)) {
+            batched.add(writeExecutor.submit(dao -> dao.insert(note)));
+        }
+        CompletableFuture.allOf(batched.toArray(new CompletableFuture[0])).get();
+        long batchedMs = (System.nanoTime() - start) / 1_000_000;
+        writeExecutor.shutdown();
+
+        Log.i("WriteBenchmark", NOTE_COUNT + " inserts -> una transacción por escritura: " + perCallMs
+                + " ms (" + throughput(perCallMs) + " escrituras/s), NoteWriteExecutor: " + batchedMs
+                + " ms (" + throughput(batchedMs) + " escrituras/s)");
+
+        assertEquals(NOTE_COUNT, noteDao.getAllNotesSync().size());
+        assertTrue("El camino agrupado debería ser más rápido", batchedMs < perCallMs);
+    }
+
+    private static List<Note> createNotes(int count) {
+        List<Note> notes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            notes.add(new Note("Nota " + i, "Contenido de la nota " + i));
+        }
+        return notes;
+    }
+
+    private static long throughput(long elapsedMs) {
+        return elapsedMs == 0 ? NOTE_COUNT * 1000L : NOTE_COUNT * 1000L / elapsedMs;
+    }
+}
@@ -4,6 +4,7 @@ import android.content.Intent;
 import android.content.SharedPreferences;
 import android.net.Uri;
 import android.os.Bundle;
+import android.os.Trace;
 import android.view.LayoutInflater;
 import android.view.Menu;
 import android.view.MenuItem;
@@ -14,12 +15,17 @@ import android.widget.TextView;
 import android.widget.Toast;
 
 import androidx.activity.EdgeToEdge;
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.app.AppCompatDelegate;
+import androidx.appcompat.view.ActionMode;
 import androidx.appcompat.widget.SearchView;
 import androidx.appcompat.widget.Toolbar;
+import androidx.core.content.ContextCompat;
 import androidx.lifecycle.ViewModelProvider;
+import androidx.paging.LoadState;
 import androidx.recyclerview.widget.RecyclerView;
 import androidx.recyclerview.widget.LinearLayoutManager;
 
@@ -27,13 +33,25 @@ import com.google.android.material.textfield.TextInputEditText;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
 import com.google.android.material.snackbar.Snackbar;
 
+import com.laylarodas.quicknotes.backup.BackupProgress;
+import com.laylarodas.quicknotes.database.QueryMetrics;
 import com.laylarodas.quicknotes.model.Note;
 import com.laylarodas.quicknotes.model.NoteCategory;
+import com.laylarodas.quicknotes.model.NoteStats;
+import com.laylarodas.quicknotes.model.NoteSummary;
 import com.laylarodas.quicknotes.ui.NoteAdapter;
+import com.laylarodas.quicknotes.ui.NotePagingAdapter;
+import com.laylarodas.quicknotes.ui.NoteSelection;
+import com.laylarodas.quicknotes.ui.TimeAgoTicker;
 import com.laylarodas.quicknotes.viewmodel.NoteViewModel;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
+
+import kotlin.Unit;
 
 /**
  * MainActivity - Activity principal que muestra la lista de notas.
@@ -46,28 +64,45 @@ import java.util.List;
  */
 public class MainActivity extends AppCompatActivity {
 
-    private static final String PREFS_NAME = "QuickNotesPrefs";
-    private static final String KEY_DARK_MODE = "dark_mode";
+    // QuickNotesApp también las lee (tema y métricas se aplican antes de crear la Activity)
+    static final String PREFS_NAME = "QuickNotesPrefs";
+    static final String KEY_DARK_MODE = "dark_mode";
+    private static final String KEY_PAGED_LIST = "paged_list";
+    static final String KEY_QUERY_METRICS = "query_metrics";
+    private static final String QUERY_METRICS_FILE = "query_metrics.txt";
     
     private NoteViewModel viewModel;
     private NoteAdapter adapter;
+    private NotePagingAdapter pagingAdapter; // Solo se usa en modo paginado
     private View layoutEmptyState;
     private TextView tvEmptyIcon;
     private TextView tvEmptyTitle;
     private TextView tvEmptyMessage;
     private SearchView searchView;
-    private List<Note> currentNotes; // Lista actual para el estado vacío
     private SharedPreferences preferences;
     private View rootView; // Para mostrar Snackbar
+    private Snackbar backupSnackbar; // Progreso de la exportación/importación en curso
+    private NoteStats noteStats = NoteStats.EMPTY; // Conteos para el estado vacío y el filtro
+    private boolean listEmpty; // Último estado de la lista mostrada
+    private boolean fullyDrawnReported; // reportFullyDrawn() ya se llamó
+    private ActionMode selectionMode; // Barra de acciones de la selección múltiple (null si no hay selección)
+    
+    // Selector de archivos para importar (se registra antes de onCreate)
+    private final ActivityResultLauncher<String[]> importFileLauncher =
+            registerForActivityResult(new ActivityResultContracts.OpenDocument(), uri -> {
+                if (uri != null) {
+                    viewModel.importNotes(uri);
+                }
+            });
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
-        // Cargar preferencia de tema ANTES de setContentView
-        loadThemePreference();
-        
+        // El tema guardado ya lo aplicó QuickNotesApp (antes de crear la Activity)
         super.onCreate(savedInstanceState);
         EdgeToEdge.enable(this);
+        Trace.beginSection("MainActivity.setContentView");
         setContentView(R.layout.activity_main);
+        Trace.endSection();
         
         // Inicializar SharedPreferences
         preferences = getSharedPreferences(PREFS_NAME, MODE_PRIVATE);
@@ -82,6 +117,9 @@ public class MainActivity extends AppCompatActivity {
         // Configurar RecyclerView
         RecyclerView rvNotes = findViewById(R.id.rvNotes);
         rvNotes.setLayoutManager(new LinearLayoutManager(this));
+        
+        // Refrescar los "Hace X minutos" de las filas visibles sin recargar la lista
+        TimeAgoTicker.attach(rvNotes, getLifecycle());
 
         // Inicializar el layout de estado vacío
         layoutEmptyState = findViewById(R.id.layoutEmptyState);
@@ -93,35 +131,105 @@ public class MainActivity extends AppCompatActivity {
         searchView = findViewById(R.id.searchView);
         setupSearchView();
 
-        // Configurar adapter
-        adapter = new NoteAdapter();
-        rvNotes.setAdapter(adapter);
-
         // ==================== INICIALIZAR VIEWMODEL ====================
         // ViewModelProvider crea o recupera el ViewModel
         // Si ya existe (ej: después de rotación), reutiliza la instancia existente
         viewModel = new ViewModelProvider(this).get(NoteViewModel.class);
         
+        // Configurar adapter: lista completa o paginada según la preferencia
+        if (isPagedListEnabled()) {
+            setupPagedList(rvNotes);
+        } else {
+            setupFullList(rvNotes);
+        }
+
+        // Conteos calculados en SQLite (no cargan las notas)
+        viewModel.getNoteStats().observe(this, stats -> {
+            noteStats = stats != null ? stats : NoteStats.EMPTY;
+            if (listEmpty) {
+                updateEmptyState(true); // El mensaje depende de si hay notas en otras categorías
+            }
+        });
+
+        // Observar el progreso de la exportación e importación
+        viewModel.getExportProgress().observe(this, progress -> showBackupProgress(progress, false));
+        viewModel.getImportProgress().observe(this, progress -> showBackupProgress(progress, true));
+
+        // Configurar FAB para crear notas
+        FloatingActionButton fab = findViewById(R.id.fabAddNote);
+        fab.setOnClickListener(v -> showNewNoteDialog());
+    }
+
+    /**
+     * Modo normal: el adapter recibe la lista completa de notas.
+     */
+    private void setupFullList(RecyclerView rvNotes) {
+        adapter = new NoteAdapter();
+        rvNotes.setAdapter(adapter);
+        
         // ==================== OBSERVAR LIVEDATA ====================
         // Observar los resultados de búsqueda
         // Cuando los datos cambian, esta función se ejecuta automáticamente
+        // Al arrancar en frío llega primero la copia de la primera pantalla y luego la lista real
         viewModel.getSearchResults().observe(this, notes -> {
             // Actualizar el adapter con las nuevas notas
             adapter.submitList(notes);
-            currentNotes = notes;
             // Actualizar el estado vacío
-            updateEmptyState();
+            updateEmptyState(notes == null || notes.isEmpty());
+            if (!fullyDrawnReported && !viewModel.isShowingStartupSnapshot()) {
+                // Tiempo hasta la lista real (visible en logcat como "Fully drawn")
+                fullyDrawnReported = true;
+                reportFullyDrawn();
+            }
         });
 
         // Configurar listener para editar nota al hacer click
-        adapter.setOnNoteClickListener((note, position) -> showEditNoteDialog(note));
+        adapter.setOnNoteClickListener((note, position) -> withFullNote(note, this::showEditNoteDialog));
+        
+        // Long-press: empieza la selección múltiple (luego cada click marca/desmarca)
+        adapter.setOnNoteLongClickListener((note, position) -> adapter.toggleSelection(position));
+        adapter.setOnSelectionChangedListener(this::onSelectionChanged);
+    }
+    
+    /**
+     * Modo paginado: las notas se cargan por páginas a medida que se hace scroll.
+     * Pensado para colecciones muy grandes (decenas de miles de notas).
+     */
+    private void setupPagedList(RecyclerView rvNotes) {
+        pagingAdapter = new NotePagingAdapter();
+        rvNotes.setAdapter(pagingAdapter);
         
-        // Configurar listener para eliminar nota al hacer long-press
-        adapter.setOnNoteLongClickListener((note, position) -> showDeleteConfirmationDialog(note));
+        viewModel.getPagedNotes().observe(this, pagingData ->
+                pagingAdapter.submitData(getLifecycle(), pagingData));
+        
+        // El estado vacío se decide cuando termina la carga inicial
+        pagingAdapter.addLoadStateListener(loadStates -> {
+            if (loadStates.getRefresh() instanceof LoadState.NotLoading) {
+                updateEmptyState(pagingAdapter.getItemCount() == 0);
+            }
+            return Unit.INSTANCE;
+        });
+        
+        pagingAdapter.setOnNoteClickListener((note, position) -> withFullNote(note, this::showEditNoteDialog));
+        pagingAdapter.setOnNoteLongClickListener((note, position) -> pagingAdapter.toggleSelection(position));
+        pagingAdapter.setOnSelectionChangedListener(this::onSelectionChanged);
+    }
 
-        // Configurar FAB para crear notas
-        FloatingActionButton fab = findViewById(R.id.fabAddNote);
-        fab.setOnClickListener(v -> showNewNoteDialog());
+    /**
+     * Carga la nota completa (la lista solo tiene NoteSummary) y ejecuta la acción
+     * en el hilo principal cuando llega.
+     */
+    private void withFullNote(NoteSummary summary, Consumer<Note> action) {
+        viewModel.getNoteById(summary.getId()).thenAcceptAsync(note -> {
+            if (isFinishing() || isDestroyed()) {
+                return;
+            }
+            if (note == null) {
+                Toast.makeText(this, "La nota ya no existe", Toast.LENGTH_SHORT).show();
+                return;
+            }
+            action.accept(note);
+        }, ContextCompat.getMainExecutor(this));
     }
 
     /**
@@ -152,7 +260,7 @@ public class MainActivity extends AppCompatActivity {
         dialogView.findViewById(R.id.btnSave).setOnClickListener(v -> {
             String title = etTitle.getText().toString().trim();
             String content = etContent.getText().toString().trim();
-            String category = NoteCategory.values()[spinnerCategory.getSelectedItemPosition()].name();
+            NoteCategory category = NoteCategory.values()[spinnerCategory.getSelectedItemPosition()];
             
             // Validar título
             if (title.isEmpty()) {
@@ -203,8 +311,7 @@ public class MainActivity extends AppCompatActivity {
         spinnerCategory.setAdapter(adapter);
         
         // Preseleccionar la categoría actual
-        NoteCategory currentCategory = NoteCategory.fromString(note.getCategory());
-        spinnerCategory.setSelection(currentCategory.ordinal());
+        spinnerCategory.setSelection(note.getCategory().ordinal());
         
         // Diálogo con botones de compartir y pin
         AlertDialog.Builder builder = new AlertDialog.Builder(this);
@@ -214,9 +321,11 @@ public class MainActivity extends AppCompatActivity {
         // Botón de Pin/Unpin
         String pinButtonText = note.isPinned() ? "Desfijar" : "📌 Fijar";
         builder.setPositiveButton(pinButtonText, (dialog, which) -> {
-            note.setPinned(!note.isPinned());
-            viewModel.update(note);
-            Toast.makeText(this, note.isPinned() ? "Nota fijada" : "Nota desfijada", Toast.LENGTH_SHORT).show();
+            // Editamos una copia: la nota original sigue en la lista del adapter
+            Note updated = note.copy();
+            updated.setPinned(!note.isPinned());
+            viewModel.update(updated);
+            Toast.makeText(this, updated.isPinned() ? "Nota fijada" : "Nota desfijada", Toast.LENGTH_SHORT).show();
         });
         
         AlertDialog dialog = builder.create();
@@ -225,7 +334,7 @@ public class MainActivity extends AppCompatActivity {
         dialogView.findViewById(R.id.btnSave).setOnClickListener(v -> {
             String title = etTitle.getText().toString().trim();
             String content = etContent.getText().toString().trim();
-            String category = NoteCategory.values()[spinnerCategory.getSelectedItemPosition()].name();
+            NoteCategory category = NoteCategory.values()[spinnerCategory.getSelectedItemPosition()];
             
             if (title.isEmpty()) {
                 etTitle.setError("El título es obligatorio");
@@ -233,13 +342,15 @@ public class MainActivity extends AppCompatActivity {
                 return;
             }
             
-            // Actualizar los campos de la nota
-            note.setTitle(title);
-            note.setContent(content);
-            note.setCategory(category);
+            // Actualizar los campos en una copia de la nota
+            // (la original sigue en la lista del adapter para que DiffUtil detecte el cambio)
+            Note updated = note.copy();
+            updated.setTitle(title);
+            updated.setContent(content);
+            updated.setCategory(category);
             
             // ¡MUCHO MÁS SIMPLE! Solo llamar al ViewModel
-            viewModel.update(note);
+            viewModel.update(updated);
             
             Toast.makeText(this, "Nota actualizada", Toast.LENGTH_SHORT).show();
             dialog.dismiss();
@@ -249,12 +360,12 @@ public class MainActivity extends AppCompatActivity {
         dialogView.findViewById(R.id.btnCancel).setOnClickListener(v -> {
             String currentTitle = etTitle.getText().toString().trim();
             String currentContent = etContent.getText().toString().trim();
-            String currentCategoryName = NoteCategory.values()[spinnerCategory.getSelectedItemPosition()].name();
+            NoteCategory currentCategory = NoteCategory.values()[spinnerCategory.getSelectedItemPosition()];
             
             // Verificar si hay cambios sin guardar
             boolean hasChanges = !currentTitle.equals(note.getTitle()) ||
                                 !currentContent.equals(note.getContent()) ||
-                                !currentCategoryName.equals(note.getCategory());
+                                currentCategory != note.getCategory();
             
             if (hasChanges) {
                 // Mostrar diálogo de confirmación
@@ -273,37 +384,140 @@ public class MainActivity extends AppCompatActivity {
         dialog.show();
     }
 
+    // ==================== SELECCIÓN MÚLTIPLE ====================
+    // Las acciones se aplican con una sola operación en lote (una transacción),
+    // así la lista se vuelve a consultar una vez aunque haya cientos de notas seleccionadas.
+    
+    private final ActionMode.Callback selectionCallback = new ActionMode.Callback() {
+        @Override
+        public boolean onCreateActionMode(ActionMode mode, Menu menu) {
+            mode.getMenuInflater().inflate(R.menu.menu_selection, menu);
+            return true;
+        }
+
+        @Override
+        public boolean onPrepareActionMode(ActionMode mode, Menu menu) {
+            return false;
+        }
+
+        @Override
+        public boolean onActionItemClicked(ActionMode mode, MenuItem item) {
+            List<String> ids = getSelection().getSelectedIds();
+            int id = item.getItemId();
+            if (id == R.id.action_selection_delete) {
+                showDeleteSelectedDialog(ids);
+            } else if (id == R.id.action_selection_pin || id == R.id.action_selection_unpin) {
+                viewModel.setPinned(ids, id == R.id.action_selection_pin);
+                mode.finish();
+            } else if (id == R.id.action_selection_category) {
+                showSelectedCategoryDialog(ids);
+            } else {
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public void onDestroyActionMode(ActionMode mode) {
+            // Atrás o "listo": se descarta la selección
+            selectionMode = null;
+            clearSelection();
+        }
+    };
+    
     /**
-     * Muestra el diálogo de confirmación para eliminar una nota.
-     * Incluye Snackbar con opción de deshacer.
+     * Muestra u oculta la barra de acciones según cuántas notas hay seleccionadas.
      */
-    private void showDeleteConfirmationDialog(Note note) {
+    private void onSelectionChanged(int count) {
+        if (count == 0) {
+            if (selectionMode != null) {
+                selectionMode.finish();
+            }
+            return;
+        }
+        if (selectionMode == null) {
+            selectionMode = startSupportActionMode(selectionCallback);
+        }
+        if (selectionMode != null) {
+            selectionMode.setTitle(count == 1 ? "1 seleccionada" : count + " seleccionadas");
+        }
+    }
+    
+    private NoteSelection getSelection() {
+        return adapter != null ? adapter.getSelection() : pagingAdapter.getSelection();
+    }
+    
+    private void clearSelection() {
+        if (adapter != null) {
+            adapter.clearSelection();
+        } else {
+            pagingAdapter.clearSelection();
+        }
+    }
+    
+    /**
+     * Confirma y elimina las notas seleccionadas.
+     */
+    private void showDeleteSelectedDialog(List<String> ids) {
+        String message = ids.size() == 1
+                ? "¿Estás seguro de que deseas eliminar la nota seleccionada?"
+                : "¿Estás seguro de que deseas eliminar las " + ids.size() + " notas seleccionadas?";
         new AlertDialog.Builder(this)
-                .setTitle("Eliminar nota")
-                .setMessage("¿Estás seguro de que deseas eliminar esta nota?\n\n\"" + note.getTitle() + "\"")
+                .setTitle("Eliminar notas")
+                .setMessage(message)
                 .setPositiveButton("Eliminar", (dialog, which) -> {
-                    // Eliminar la nota
-                    viewModel.delete(note);
-                    
-                    // Mostrar Snackbar con opción de deshacer
-                    Snackbar.make(rootView, "Nota eliminada", Snackbar.LENGTH_LONG)
-                            .setAction("DESHACER", v -> {
-                                // Restaurar la nota eliminada
-                                viewModel.insert(note);
-                                Toast.makeText(this, "Nota restaurada", Toast.LENGTH_SHORT).show();
-                            })
-                            .show();
+                    if (selectionMode != null) {
+                        selectionMode.finish();
+                    }
+                    // Guardamos las notas completas para poder deshacer
+                    viewModel.getNotesByIds(ids).thenAcceptAsync(notes -> {
+                        if (isFinishing() || isDestroyed()) {
+                            return;
+                        }
+                        viewModel.deleteByIds(ids);
+                        Snackbar.make(rootView, notes.size() == 1 ? "Nota eliminada" : notes.size() + " notas eliminadas",
+                                        Snackbar.LENGTH_LONG)
+                                .setAction("DESHACER", v -> {
+                                    // Restaurar las notas eliminadas (también en una sola transacción)
+                                    viewModel.insertAll(notes);
+                                    Toast.makeText(this, "Notas restauradas", Toast.LENGTH_SHORT).show();
+                                })
+                                .show();
+                    }, ContextCompat.getMainExecutor(this));
                 })
                 .setNegativeButton("Cancelar", (dialog, which) -> dialog.dismiss())
                 .show();
     }
+    
+    /**
+     * Elige la categoría para las notas seleccionadas.
+     */
+    private void showSelectedCategoryDialog(List<String> ids) {
+        NoteCategory[] categories = NoteCategory.values();
+        String[] options = new String[categories.length];
+        for (int i = 0; i < categories.length; i++) {
+            options[i] = categories[i].getDisplayName();
+        }
+        new AlertDialog.Builder(this)
+                .setTitle("Cambiar categoría")
+                .setItems(options, (dialog, which) -> {
+                    viewModel.setCategory(ids, categories[which]);
+                    if (selectionMode != null) {
+                        selectionMode.finish();
+                    }
+                })
+                .setNegativeButton("Cancelar", null)
+                .show();
+    }
 
     /**
      * Actualiza la visibilidad del estado vacío según si hay notas o no.
-     * Mucho más simple que antes: solo verificamos currentNotes.
+     * @param isEmpty true si la lista que se muestra no tiene notas
      */
-    private void updateEmptyState() {
-        if (currentNotes == null || currentNotes.isEmpty()) {
+    private void updateEmptyState(boolean isEmpty) {
+        listEmpty = isEmpty;
+        NoteCategory categoryFilter = viewModel.getCategoryFilter();
+        if (isEmpty) {
             layoutEmptyState.setVisibility(View.VISIBLE);
             
             String query = searchView.getQuery().toString().trim();
@@ -312,6 +526,11 @@ public class MainActivity extends AppCompatActivity {
                 tvEmptyIcon.setText("🔍");
                 tvEmptyTitle.setText("No se encontraron notas");
                 tvEmptyMessage.setText("No hay notas que coincidan con \"" + query + "\"");
+            } else if (categoryFilter != null && !noteStats.isEmpty()) {
+                // Hay notas, pero ninguna en la categoría filtrada
+                tvEmptyIcon.setText("📂");
+                tvEmptyTitle.setText("No hay notas en " + categoryFilter.getDisplayName());
+                tvEmptyMessage.setText("Elige otra categoría o crea una nota nueva");
             } else {
                 // No hay notas en absoluto
                 tvEmptyIcon.setText("📝");
@@ -336,6 +555,19 @@ public class MainActivity extends AppCompatActivity {
         if (darkModeItem != null) {
             darkModeItem.setChecked(isDarkModeEnabled());
         }
+        MenuItem pagedListItem = menu.findItem(R.id.action_paged_list);
+        if (pagedListItem != null) {
+            pagedListItem.setChecked(isPagedListEnabled());
+        }
+        MenuItem queryMetricsItem = menu.findItem(R.id.action_query_metrics);
+        if (queryMetricsItem != null) {
+            queryMetricsItem.setChecked(isQueryMetricsEnabled());
+        }
+        MenuItem dumpMetricsItem = menu.findItem(R.id.action_dump_query_metrics);
+        if (dumpMetricsItem != null) {
+            // Solo tiene sentido si las métricas están midiendo en este proceso
+            dumpMetricsItem.setVisible(QueryMetrics.isEnabled());
+        }
         return super.onPrepareOptionsMenu(menu);
     }
 
@@ -354,10 +586,23 @@ public class MainActivity extends AppCompatActivity {
                 searchView.requestFocus();
             }
             return true;
+        } else if (id == R.id.action_filter_category) {
+            showCategoryFilterDialog();
+            return true;
         } else if (id == R.id.action_dark_mode) {
             // Toggle Dark Mode
             toggleDarkMode();
             return true;
+        } else if (id == R.id.action_paged_list) {
+            // Toggle lista paginada
+            togglePagedList();
+            return true;
+        } else if (id == R.id.action_query_metrics) {
+            toggleQueryMetrics();
+            return true;
+        } else if (id == R.id.action_dump_query_metrics) {
+            dumpQueryMetrics();
+            return true;
         } else if (id == R.id.action_export) {
             // Export notes
             exportNotes();
@@ -391,6 +636,31 @@ public class MainActivity extends AppCompatActivity {
         return super.onOptionsItemSelected(item);
     }
 
+    /**
+     * Muestra el selector de categoría: "Todas" o una categoría concreta.
+     * El filtro lo aplica la base de datos (índice por categoría), no el adapter.
+     */
+    private void showCategoryFilterDialog() {
+        NoteCategory[] categories = NoteCategory.values();
+        String[] options = new String[categories.length + 1];
+        // Con el número de notas de cada una (conteos de SQLite, sin cargar notas)
+        options[0] = "Todas (" + noteStats.getTotal() + ")";
+        for (int i = 0; i < categories.length; i++) {
+            options[i + 1] = categories[i].getDisplayName() + " (" + noteStats.getCount(categories[i]) + ")";
+        }
+        NoteCategory current = viewModel.getCategoryFilter();
+        int checked = current == null ? 0 : current.ordinal() + 1;
+        
+        new AlertDialog.Builder(this)
+                .setTitle("Filtrar por categoría")
+                .setSingleChoiceItems(options, checked, (dialog, which) -> {
+                    viewModel.setCategoryFilter(which == 0 ? null : categories[which - 1]);
+                    dialog.dismiss();
+                })
+                .setNegativeButton("Cancelar", null)
+                .show();
+    }
+
     /**
      * Configura el SearchView para búsqueda en tiempo real.
      * Mucho más simple: solo actualiza el ViewModel.
@@ -434,21 +704,6 @@ public class MainActivity extends AppCompatActivity {
     
     // ==================== DARK MODE ====================
     
-    /**
-     * Carga la preferencia de tema guardada y la aplica.
-     * Se llama ANTES de setContentView() para evitar parpadeos.
-     */
-    private void loadThemePreference() {
-        SharedPreferences prefs = getSharedPreferences(PREFS_NAME, MODE_PRIVATE);
-        boolean isDarkMode = prefs.getBoolean(KEY_DARK_MODE, false);
-        
-        if (isDarkMode) {
-            AppCompatDelegate.setDefaultNightMode(AppCompatDelegate.MODE_NIGHT_YES);
-        } else {
-            AppCompatDelegate.setDefaultNightMode(AppCompatDelegate.MODE_NIGHT_NO);
-        }
-    }
-    
     /**
      * Cambia entre modo claro y oscuro.
      */
@@ -477,58 +732,135 @@ public class MainActivity extends AppCompatActivity {
         return preferences.getBoolean(KEY_DARK_MODE, false);
     }
     
+    // ==================== LISTA PAGINADA ====================
+    
+    /**
+     * Verifica si la carga paginada está activa.
+     */
+    private boolean isPagedListEnabled() {
+        return preferences.getBoolean(KEY_PAGED_LIST, false);
+    }
+    
+    /**
+     * Cambia entre lista completa y lista paginada.
+     * Recrea la Activity para montar el adapter correspondiente.
+     */
+    private void togglePagedList() {
+        preferences.edit().putBoolean(KEY_PAGED_LIST, !isPagedListEnabled()).apply();
+        recreate();
+    }
+    
+    // ==================== MÉTRICAS DE CONSULTAS (DEPURACIÓN) ====================
+    
+    private boolean isQueryMetricsEnabled() {
+        return preferences.getBoolean(KEY_QUERY_METRICS, false);
+    }
+    
+    /**
+     * Activa/desactiva la medición de consultas.
+     * La base de datos es un singleton del proceso: el cambio se aplica al reiniciar la app.
+     */
+    private void toggleQueryMetrics() {
+        boolean enabled = !isQueryMetricsEnabled();
+        preferences.edit().putBoolean(KEY_QUERY_METRICS, enabled).apply();
+        Toast.makeText(this, enabled
+                ? "Métricas activadas: reinicia la app para empezar a medir"
+                : "Métricas desactivadas al reiniciar la app", Toast.LENGTH_LONG).show();
+    }
+    
+    /**
+     * Guarda las métricas de consultas en files/query_metrics.txt (almacenamiento interno).
+     */
+    private void dumpQueryMetrics() {
+        File file = new File(getFilesDir(), QUERY_METRICS_FILE);
+        try {
+            QueryMetrics.getInstance().dumpTo(file);
+            Toast.makeText(this, "Métricas guardadas en " + file.getAbsolutePath(), Toast.LENGTH_LONG).show();
+        } catch (IOException e) {
+            Toast.makeText(this, "❌ Error al guardar métricas: " + e.getMessage(), Toast.LENGTH_LONG).show();
+        }
+    }
+    
     // ==================== EXPORT/IMPORT ====================
     
     /**
      * Exporta todas las notas a un archivo JSON en la carpeta de Descargas.
+     * La exportación corre en background; el progreso llega por getExportProgress().
      */
     private void exportNotes() {
-        if (currentNotes == null || currentNotes.isEmpty()) {
-            Toast.makeText(this, "No hay notas para exportar", Toast.LENGTH_SHORT).show();
-            return;
-        }
-        
-        try {
-            // Crear archivo en el directorio de Descargas
-            java.io.File downloadsDir = android.os.Environment.getExternalStoragePublicDirectory(
-                    android.os.Environment.DIRECTORY_DOWNLOADS);
-            String fileName = "quicknotes_backup_" + System.currentTimeMillis() + ".json";
-            java.io.File file = new java.io.File(downloadsDir, fileName);
-            
-            // Crear JSON Array con todas las notas
-            org.json.JSONArray jsonArray = new org.json.JSONArray();
-            for (Note note : currentNotes) {
-                org.json.JSONObject noteJson = new org.json.JSONObject();
-                noteJson.put("id", note.getId());
-                noteJson.put("title", note.getTitle());
-                noteJson.put("content", note.getContent());
-                noteJson.put("createdAt", note.getCreatedAt());
-                noteJson.put("modifiedAt", note.getModifiedAt());
-                noteJson.put("category", note.getCategory());
-                noteJson.put("isPinned", note.isPinned());
-                jsonArray.put(noteJson);
-            }
-            
-            // Escribir al archivo
-            java.io.FileWriter fileWriter = new java.io.FileWriter(file);
-            fileWriter.write(jsonArray.toString(2)); // Pretty print con indentación
-            fileWriter.close();
-            
-            Toast.makeText(this, "✅ Exportado: " + fileName, Toast.LENGTH_LONG).show();
-        } catch (Exception e) {
-            Toast.makeText(this, "❌ Error al exportar: " + e.getMessage(), Toast.LENGTH_LONG).show();
-            e.printStackTrace();
-        }
+        // Crear archivo en el directorio de Descargas
+        java.io.File downloadsDir = android.os.Environment.getExternalStoragePublicDirectory(
+                android.os.Environment.DIRECTORY_DOWNLOADS);
+        String fileName = "quicknotes_backup_" + System.currentTimeMillis() + ".json";
+        viewModel.exportNotes(new java.io.File(downloadsDir, fileName));
     }
     
     /**
-     * Muestra un diálogo para confirmar la importación de notas.
+     * Muestra el diálogo de importación y abre el selector de archivos.
      */
     private void importNotes() {
         new AlertDialog.Builder(this)
                 .setTitle("Importar notas")
-                .setMessage("Esta función requiere permisos de almacenamiento y un archivo JSON válido. Por ahora, puedes usar la función de exportar para crear backups.")
-                .setPositiveButton("Entendido", null)
+                .setMessage("Elige un archivo JSON creado con \"Exportar notas\". " +
+                        "Si una nota ya existe, se conserva la versión modificada más recientemente.")
+                .setPositiveButton("Elegir archivo", (dialog, which) ->
+                        importFileLauncher.launch(new String[]{"application/json", "text/plain", "application/octet-stream"}))
+                .setNegativeButton("Cancelar", null)
                 .show();
     }
-}
\ No newline at end of file
+    
+    /**
+     * Muestra el progreso de la exportación/importación en un Snackbar y el resultado en un Toast.
+     * @param isImport true para importación, false para exportación
+     */
+    private void showBackupProgress(BackupProgress progress, boolean isImport) {
+        if (progress == null) {
+            return;
+        }
+        switch (progress.getState()) {
+            case RUNNING:
+                String text = isImport
+                        ? "Importando notas... " + progress.getProcessed()
+                        : "Exportando notas... " + progress.getProcessed() + "/" + progress.getTotal();
+                if (backupSnackbar == null) {
+                    backupSnackbar = Snackbar.make(rootView, text, Snackbar.LENGTH_INDEFINITE);
+                    backupSnackbar.show();
+                } else {
+                    backupSnackbar.setText(text);
+                }
+                break;
+            case DONE:
+                dismissBackupSnackbar();
+                if (isImport) {
+                    Toast.makeText(this, "✅ Importado: " + progress.getMessage(), Toast.LENGTH_LONG).show();
+                } else if (progress.getProcessed() == 0) {
+                    Toast.makeText(this, "No hay notas para exportar", Toast.LENGTH_SHORT).show();
+                } else {
+                    Toast.makeText(this, "✅ Exportado: " + progress.getMessage(), Toast.LENGTH_LONG).show();
+                }
+                clearBackupProgress(isImport);
+                break;
+            case ERROR:
+                dismissBackupSnackbar();
+                String action = isImport ? "importar" : "exportar";
+                Toast.makeText(this, "❌ Error al " + action + ": " + progress.getMessage(), Toast.LENGTH_LONG).show();
+                clearBackupProgress(isImport);
+                break;
+        }
+    }
+    
+    private void clearBackupProgress(boolean isImport) {
+        if (isImport) {
+            viewModel.clearImportProgress();
+        } else {
+            viewModel.clearExportProgress();
+        }
+    }
+    
+    private void dismissBackupSnackbar() {
+        if (backupSnackbar != null) {
+            backupSnackbar.dismiss();
+            backupSnackbar = null;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.laylarodas.quicknotes;
+
+import android.app.Application;
+import android.content.SharedPreferences;
+import android.os.Trace;
+
+import androidx.appcompat.app.AppCompatDelegate;
+
+import com.laylarodas.quicknotes.database.NoteCache;
+import com.laylarodas.quicknotes.database.NoteDatabase;
+import com.laylarodas.quicknotes.database.NoteListSnapshot;
+import com.laylarodas.quicknotes.database.QueryMetrics;
+
+/**
+ * Application de QuickNotes: prepara el arranque antes de que se cree MainActivity.
+ *
+ * Fases del arranque en frío (cada una con su sección de trace, visibles en Perfetto/systrace):
+ * 1. Tema guardado (tiene que aplicarse antes de inflar la primera vista)
+ * 2. Lectura de la copia de la primera pantalla (NoteListSnapshot), en su propio hilo
+ * 3. Apertura de la base de datos (migraciones, PRAGMA del perfil) y consulta de la primera
+ *    pantalla en un hilo de arranque: cuando el ViewModel pide la lista, la BD ya está abierta
+ *    y sus páginas en cache
+ *
+ * Mientras tanto MainActivity dibuja la lista con la copia y la reconcilia al llegar la consulta real.
+ */
+public class QuickNotesApp extends Application {
+
+    @Override
+    public void onCreate() {
+        Trace.beginSection("QuickNotes.appOnCreate");
+        try {
+            super.onCreate();
+            applyPreferences();
+
+            // La copia se lee en paralelo con la apertura de la BD: suele llegar antes que la consulta real
+            NoteListSnapshot.getInstance(this).load();
+
+            Thread warmUp = new Thread(QueryMetrics.wrap(this::warmUpDatabase), "quicknotes-startup");
+            warmUp.setDaemon(true);
+            warmUp.start();
+        } finally {
+            Trace.endSection();
+        }
+    }
+
+    /**
+     * El sistema pide liberar memoria: el cache de notas es lo primero que se puede soltar
+     * (se vuelve a llenar leyendo de SQLite).
+     */
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        NoteCache.getInstance().onTrimMemory(level);
+    }
+
+    /**
+     * Tema y métricas de consultas: las dos preferencias que se necesitan antes de crear
+     * la primera vista y la base de datos.
+     */
+    private void applyPreferences() {
+        Trace.beginSection("QuickNotes.applyPreferences");
+        try {
+            SharedPreferences prefs = getSharedPreferences(MainActivity.PREFS_NAME, MODE_PRIVATE);
+            AppCompatDelegate.setDefaultNightMode(prefs.getBoolean(MainActivity.KEY_DARK_MODE, false)
+                    ? AppCompatDelegate.MODE_NIGHT_YES
+                    : AppCompatDelegate.MODE_NIGHT_NO);
+            // Deben activarse antes de que se cree la base de datos
+            if (prefs.getBoolean(MainActivity.KEY_QUERY_METRICS, false)) {
+                QueryMetrics.enable();
+            }
+        } finally {
+            Trace.endSection();
+        }
+    }
+
+    /**
+     * Abre la base de datos y lee la primera pantalla en background.
+     * También guarda la copia: así existe desde el primer arranque tras instalar o actualizar.
+     */
+    private void warmUpDatabase() {
+        Trace.beginSection("QuickNotes.openDatabase");
+        NoteDatabase database;
+        try {
+            database = NoteDatabase.getInstance(this);
+            database.getOpenHelper().getWritableDatabase();
+        } finally {
+            Trace.endSection();
+        }
+        Trace.beginSection("QuickNotes.firstScreenQuery");
+        try {
+            NoteListSnapshot.getInstance(this).save(
+                    database.noteDao().getFirstNotesByModified(NoteListSnapshot.FIRST_SCREEN_SIZE));
+        } finally {
+            Trace.endSection();
+        }
+    }
+}
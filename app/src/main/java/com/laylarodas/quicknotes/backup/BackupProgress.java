@@ -0,0 +1,64 @@
+package com.laylarodas.quicknotes.backup;
+
+/**
+ * Estado de una exportación o importación en curso.
+ * El ViewModel lo publica en un LiveData y la Activity lo muestra.
+ */
+public class BackupProgress {
+
+    /**
+     * Recibe el avance de una exportación/importación. Se llama desde el hilo de background.
+     */
+    public interface Listener {
+        void onProgress(BackupProgress progress);
+    }
+
+    public enum State {
+        RUNNING,    // En curso: processed de total notas
+        DONE,       // Terminó correctamente
+        ERROR       // Falló: ver message
+    }
+
+    private final State state;
+    private final int processed;
+    private final int total;
+    private final String message;
+
+    private BackupProgress(State state, int processed, int total, String message) {
+        this.state = state;
+        this.processed = processed;
+        this.total = total;
+        this.message = message;
+    }
+
+    public static BackupProgress running(int processed, int total) {
+        return new BackupProgress(State.RUNNING, processed, total, null);
+    }
+
+    /**
+     * @param message Detalle del resultado (ej: nombre del archivo exportado)
+     */
+    public static BackupProgress done(int processed, String message) {
+        return new BackupProgress(State.DONE, processed, processed, message);
+    }
+
+    public static BackupProgress error(String message) {
+        return new BackupProgress(State.ERROR, 0, 0, message);
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public int getProcessed() {
+        return processed;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,105 @@
+package com.laylarodas.quicknotes.backup;
+
+import android.database.Cursor;
+import android.util.JsonWriter;
+
+import com.laylarodas.quicknotes.database.NoteBodyCodec;
+import com.laylarodas.quicknotes.database.NoteDao;
+import com.laylarodas.quicknotes.database.QueryMetrics;
+import com.laylarodas.quicknotes.model.NoteCategory;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Exporta TODAS las notas de la base de datos a un archivo JSON.
+ *
+ * En lugar de construir un JSONArray completo en memoria y convertirlo en un String gigante,
+ * lee las filas con un Cursor y las escribe una por una en un JsonWriter con buffer.
+ * La memoria usada no depende del número de notas y todo ocurre en un hilo de background.
+ *
+ * Formato: el mismo array JSON que generaba la exportación anterior
+ * (id, title, content, createdAt, modifiedAt, category, isPinned).
+ */
+public class NoteExportService {
+
+    // Cada cuántas notas se informa el progreso
+    private static final int PROGRESS_STEP = 200;
+
+    private final NoteDao noteDao;
+    // Envuelto por QueryMetrics para medir la lectura del cursor completo (si está activado)
+    private final Executor executor = QueryMetrics.wrap(Executors.newSingleThreadExecutor());
+
+    public NoteExportService(NoteDao noteDao) {
+        this.noteDao = noteDao;
+    }
+
+    /**
+     * Exporta en background todas las notas al archivo indicado.
+     */
+    public void export(File file, BackupProgress.Listener listener) {
+        executor.execute(() -> {
+            try {
+                int exported = writeNotes(file, listener);
+                if (exported == 0) {
+                    file.delete(); // No creamos backups vacíos
+                }
+                listener.onProgress(BackupProgress.done(exported, file.getName()));
+            } catch (IOException | RuntimeException e) {
+                // Si falla a mitad no dejamos un JSON incompleto
+                file.delete();
+                listener.onProgress(BackupProgress.error(e.getMessage()));
+            }
+        });
+    }
+
+    private int writeNotes(File file, BackupProgress.Listener listener) throws IOException {
+        int total = noteDao.getNoteCount();
+        int exported = 0;
+        listener.onProgress(BackupProgress.running(0, total));
+        
+        try (Cursor cursor = noteDao.getAllNotesCursor();
+             JsonWriter writer = new JsonWriter(new BufferedWriter(new OutputStreamWriter(
+                     new FileOutputStream(file), StandardCharsets.UTF_8)))) {
+            writer.setIndent("  "); // Pretty print, igual que la exportación anterior
+            
+            int idIndex = cursor.getColumnIndexOrThrow("id");
+            int titleIndex = cursor.getColumnIndexOrThrow("title");
+            // El contenido viene de note_content, posiblemente comprimido (ver NoteDao.getAllNotesCursor)
+            int encodingIndex = cursor.getColumnIndexOrThrow("encoding");
+            int lengthIndex = cursor.getColumnIndexOrThrow("length");
+            int bodyIndex = cursor.getColumnIndexOrThrow("body");
+            int createdAtIndex = cursor.getColumnIndexOrThrow("createdAt");
+            int modifiedAtIndex = cursor.getColumnIndexOrThrow("modifiedAt");
+            int categoryIndex = cursor.getColumnIndexOrThrow("category");
+            int isPinnedIndex = cursor.getColumnIndexOrThrow("isPinned");
+            
+            writer.beginArray();
+            while (cursor.moveToNext()) {
+                writer.beginObject();
+                writer.name("id").value(cursor.getString(idIndex));
+                writer.name("title").value(cursor.getString(titleIndex));
+                writer.name("content").value(NoteBodyCodec.decode(
+                        cursor.getInt(encodingIndex), cursor.getInt(lengthIndex), cursor.getBlob(bodyIndex)));
+                writer.name("createdAt").value(cursor.getLong(createdAtIndex));
+                writer.name("modifiedAt").value(cursor.getLong(modifiedAtIndex));
+                writer.name("category").value(NoteCategory.fromCode(cursor.getInt(categoryIndex)).name());
+                writer.name("isPinned").value(cursor.getInt(isPinnedIndex) != 0);
+                writer.endObject();
+                
+                exported++;
+                if (exported % PROGRESS_STEP == 0) {
+                    listener.onProgress(BackupProgress.running(exported, Math.max(total, exported)));
+                }
+            }
+            writer.endArray();
+        }
+        return exported;
+    }
+}
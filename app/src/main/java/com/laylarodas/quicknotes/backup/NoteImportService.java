@@ -0,0 +1,259 @@
+package com.laylarodas.quicknotes.backup;
+
+import android.content.ContentResolver;
+import android.net.Uri;
+import android.util.JsonReader;
+import android.util.JsonToken;
+
+import com.laylarodas.quicknotes.database.NoteDao;
+import com.laylarodas.quicknotes.database.NoteWriteExecutor;
+import com.laylarodas.quicknotes.model.Note;
+import com.laylarodas.quicknotes.model.NoteCategory;
+import com.laylarodas.quicknotes.model.NoteTimestamp;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Importa notas desde un archivo JSON de backup (el formato de NoteExportService).
+ *
+ * - Lee el archivo con un JsonReader: nunca tiene más de un lote de notas en memoria
+ * - Inserta en lotes de BATCH_SIZE notas, cada lote en UNA transacción (NoteWriteExecutor)
+ * - Conflictos de ID: si la nota ya existe, gana la versión con modifiedAt más reciente
+ *
+ * Así un archivo de 100.000 notas se importa con memoria acotada.
+ */
+public class NoteImportService {
+
+    // Notas por transacción (también por debajo del límite de 999 parámetros de SQLite)
+    static final int BATCH_SIZE = 500;
+
+    private final NoteWriteExecutor writeExecutor;
+    private final Executor executor = Executors.newSingleThreadExecutor();
+
+    public NoteImportService(NoteWriteExecutor writeExecutor) {
+        this.writeExecutor = writeExecutor;
+    }
+
+    /**
+     * Importa en background las notas del archivo indicado.
+     */
+    public void importNotes(ContentResolver resolver, Uri uri, BackupProgress.Listener listener) {
+        executor.execute(() -> {
+            try (InputStream input = resolver.openInputStream(uri)) {
+                if (input == null) {
+                    throw new IOException("No se pudo abrir el archivo");
+                }
+                ImportCounts counts = importFrom(input, listener);
+                listener.onProgress(BackupProgress.done(counts.processed(), counts.toString()));
+            } catch (IOException | RuntimeException | ExecutionException e) {
+                listener.onProgress(BackupProgress.error(e.getMessage()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                listener.onProgress(BackupProgress.error("Importación interrumpida"));
+            }
+        });
+    }
+
+    /**
+     * Lee el array JSON y envía las notas por lotes.
+     * Cada lote espera a que el anterior termine: así la memoria queda acotada.
+     * ADVERTENCIA: No usar en el hilo principal (espera a cada transacción).
+     */
+    public ImportCounts importFrom(InputStream input, BackupProgress.Listener listener)
+            throws IOException, ExecutionException, InterruptedException {
+        ImportCounts counts = new ImportCounts();
+        List<Note> batch = new ArrayList<>(BATCH_SIZE);
+        
+        JsonReader reader = new JsonReader(new BufferedReader(
+                new InputStreamReader(input, StandardCharsets.UTF_8)));
+        reader.beginArray();
+        while (reader.hasNext()) {
+            Note note = readNote(reader);
+            if (note == null) {
+                counts.invalid++;
+                continue;
+            }
+            batch.add(note);
+            if (batch.size() == BATCH_SIZE) {
+                writeBatch(batch, counts);
+                listener.onProgress(BackupProgress.running(counts.processed(), 0));
+                batch = new ArrayList<>(BATCH_SIZE);
+            }
+        }
+        reader.endArray();
+        
+        if (!batch.isEmpty()) {
+            writeBatch(batch, counts);
+        }
+        return counts;
+    }
+
+    /**
+     * Escribe un lote en una sola transacción con semántica "upsert por modifiedAt":
+     * - Notas nuevas: se insertan
+     * - Notas que ya existen: se actualizan solo si la importada es más reciente
+     *
+     * Los conteos del lote se suman al total solo después del commit: si la transacción
+     * hace rollback y NoteWriteExecutor reintenta la operación, cuenta solo la última ejecución.
+     */
+    private void writeBatch(List<Note> batch, ImportCounts counts)
+            throws ExecutionException, InterruptedException {
+        AtomicReference<ImportCounts> batchCounts = new AtomicReference<>();
+        writeExecutor.submit(dao -> batchCounts.set(upsertByModifiedAt(dao, batch))).get();
+        counts.add(batchCounts.get());
+    }
+
+    private static ImportCounts upsertByModifiedAt(NoteDao dao, List<Note> batch) {
+        ImportCounts counts = new ImportCounts();
+        long[] rowIds = dao.insertAllIgnoringConflicts(batch);
+        
+        List<Note> conflicts = new ArrayList<>();
+        List<String> conflictIds = new ArrayList<>();
+        for (int i = 0; i < rowIds.length; i++) {
+            if (rowIds[i] == -1) {
+                conflicts.add(batch.get(i));
+                conflictIds.add(batch.get(i).getId());
+            } else {
+                counts.inserted++;
+            }
+        }
+        if (conflicts.isEmpty()) {
+            return counts;
+        }
+        
+        Map<String, Long> existing = new HashMap<>();
+        for (NoteTimestamp timestamp : dao.getTimestamps(conflictIds)) {
+            existing.put(timestamp.getId(), timestamp.getModifiedAt());
+        }
+        // Si el mismo ID aparece dos veces en el lote, el mapa se actualiza para comparar con el ganador
+        List<Note> newer = new ArrayList<>();
+        for (Note note : conflicts) {
+            Long current = existing.get(note.getId());
+            if (current == null || note.getModifiedAt() > current) {
+                newer.add(note);
+                existing.put(note.getId(), note.getModifiedAt());
+            } else {
+                counts.skipped++;
+            }
+        }
+        dao.updateAll(newer);
+        counts.updated += newer.size();
+        return counts;
+    }
+
+    /**
+     * Lee un objeto JSON con los campos de una nota.
+     * @return La nota, o null si no tiene título (entrada inválida)
+     */
+    private static Note readNote(JsonReader reader) throws IOException {
+        String id = null;
+        String title = null;
+        String content = "";
+        long now = System.currentTimeMillis();
+        long createdAt = now;
+        long modifiedAt = now;
+        NoteCategory category = NoteCategory.NONE;
+        boolean isPinned = false;
+        
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.skipValue();
+                continue;
+            }
+            switch (name) {
+                case "id":
+                    id = reader.nextString();
+                    break;
+                case "title":
+                    title = reader.nextString();
+                    break;
+                case "content":
+                    content = reader.nextString();
+                    break;
+                case "createdAt":
+                    createdAt = reader.nextLong();
+                    break;
+                case "modifiedAt":
+                    modifiedAt = reader.nextLong();
+                    break;
+                case "category":
+                    category = NoteCategory.fromString(reader.nextString());
+                    break;
+                case "isPinned":
+                    isPinned = reader.nextBoolean();
+                    break;
+                default:
+                    reader.skipValue(); // Campos desconocidos (versiones futuras)
+            }
+        }
+        reader.endObject();
+        
+        if (title == null) {
+            return null;
+        }
+        if (id == null || id.isEmpty()) {
+            id = UUID.randomUUID().toString();
+        }
+        return new Note(id, title, content, createdAt, modifiedAt, category, isPinned);
+    }
+
+    /**
+     * Contadores del resultado de la importación.
+     * Cada lote cuenta en su propio ImportCounts (en el hilo escritor) y el hilo de importación
+     * lo suma al total con add() cuando el lote hizo commit.
+     */
+    public static class ImportCounts {
+        int inserted;
+        int updated;
+        int skipped;
+        int invalid;
+
+        void add(ImportCounts batch) {
+            inserted += batch.inserted;
+            updated += batch.updated;
+            skipped += batch.skipped;
+            invalid += batch.invalid;
+        }
+
+        public int getInserted() {
+            return inserted;
+        }
+
+        public int getUpdated() {
+            return updated;
+        }
+
+        public int getSkipped() {
+            return skipped;
+        }
+
+        public int getInvalid() {
+            return invalid;
+        }
+
+        int processed() {
+            return inserted + updated + skipped + invalid;
+        }
+
+        @Override
+        public String toString() {
+            return inserted + " nuevas, " + updated + " actualizadas, " + skipped + " sin cambios"
+                    + (invalid > 0 ? ", " + invalid + " inválidas" : "");
+        }
+    }
+}
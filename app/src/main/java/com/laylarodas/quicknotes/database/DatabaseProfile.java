@@ -0,0 +1,174 @@
+package com.laylarodas.quicknotes.database;
+
+import android.app.ActivityManager;
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.annotation.NonNull;
+import androidx.room.RoomDatabase;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+/**
+ * Perfil de rendimiento de SQLite para NoteDatabase.
+ *
+ * Cada perfil define:
+ * - journal: WAL (lectores y escritor no se bloquean) o el modo que elija Room
+ * - synchronous: NORMAL en WAL solo hace fsync en los checkpoints, no en cada commit
+ *   (una caída del sistema puede perder el último commit, pero la BD nunca se corrompe)
+ * - cache_size / mmap_size / temp_store: memoria que SQLite puede usar
+ * - checkpoints: cada cuántas páginas de WAL hace SQLite un checkpoint automático, y cada
+ *   cuántas escrituras NoteWriteExecutor hace uno PASSIVE cuando se queda sin trabajo
+ *   (así el checkpoint cae en un momento tranquilo y no en medio de una ráfaga)
+ *
+ * Los PRAGMA se aplican en onOpen sobre la conexión principal, que es la que usan
+ * el hilo escritor y las transacciones. Las conexiones de solo lectura que abre Android
+ * en modo WAL usan su propia configuración (cache por defecto, synchronous de sistema).
+ *
+ * forDevice() elige el perfil según la clase de dispositivo.
+ * Los resultados de cada perfil se comparan en DatabaseProfileBenchmark (androidTest).
+ */
+public final class DatabaseProfile {
+
+    // Valores de PRAGMA temp_store
+    private static final int TEMP_STORE_DEFAULT = 0;
+    private static final int TEMP_STORE_MEMORY = 2;
+
+    // Memoria (MB) a partir de la cual se usa el perfil HIGH_END
+    private static final int HIGH_END_MEMORY_CLASS_MB = 256;
+
+    /**
+     * Sin cambios: lo que Room y Android configuran por defecto (referencia para el benchmark).
+     */
+    public static final DatabaseProfile ROOM_DEFAULT = new DatabaseProfile("room_default",
+            RoomDatabase.JournalMode.AUTOMATIC, null, 0, 0, TEMP_STORE_DEFAULT, 0, 0);
+
+    /**
+     * Dispositivos con poca RAM: WAL y fsync reducido, pero sin mmap ni cache extra.
+     */
+    public static final DatabaseProfile LOW_RAM = new DatabaseProfile("low_ram",
+            RoomDatabase.JournalMode.WRITE_AHEAD_LOGGING, "NORMAL", 1024, 0, TEMP_STORE_DEFAULT, 500, 200);
+
+    /**
+     * La mayoría de dispositivos.
+     */
+    public static final DatabaseProfile STANDARD = new DatabaseProfile("standard",
+            RoomDatabase.JournalMode.WRITE_AHEAD_LOGGING, "NORMAL", 4096, 32L * 1024 * 1024,
+            TEMP_STORE_MEMORY, 1000, 500);
+
+    /**
+     * Dispositivos con mucha memoria: cache grande, mmap amplio y checkpoints menos frecuentes.
+     */
+    public static final DatabaseProfile HIGH_END = new DatabaseProfile("high_end",
+            RoomDatabase.JournalMode.WRITE_AHEAD_LOGGING, "NORMAL", 16384, 128L * 1024 * 1024,
+            TEMP_STORE_MEMORY, 4000, 2000);
+
+    public static final DatabaseProfile[] ALL = {ROOM_DEFAULT, LOW_RAM, STANDARD, HIGH_END};
+
+    private final String name;
+    private final RoomDatabase.JournalMode journalMode;
+    private final String synchronous;       // null = no se cambia
+    private final int cacheSizeKb;          // 0 = no se cambia
+    private final long mmapSizeBytes;       // 0 = no se cambia (sin mmap)
+    private final int tempStore;
+    private final int walAutoCheckpointPages;   // 0 = no se cambia (SQLite usa 1000)
+    private final int idleCheckpointWrites;     // 0 = sin checkpoints explícitos
+
+    private DatabaseProfile(String name, RoomDatabase.JournalMode journalMode, String synchronous,
+                            int cacheSizeKb, long mmapSizeBytes, int tempStore,
+                            int walAutoCheckpointPages, int idleCheckpointWrites) {
+        this.name = name;
+        this.journalMode = journalMode;
+        this.synchronous = synchronous;
+        this.cacheSizeKb = cacheSizeKb;
+        this.mmapSizeBytes = mmapSizeBytes;
+        this.tempStore = tempStore;
+        this.walAutoCheckpointPages = walAutoCheckpointPages;
+        this.idleCheckpointWrites = idleCheckpointWrites;
+    }
+
+    /**
+     * Elige el perfil según la memoria del dispositivo.
+     */
+    public static DatabaseProfile forDevice(Context context) {
+        ActivityManager activityManager = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+        if (activityManager == null) {
+            return STANDARD;
+        }
+        if (activityManager.isLowRamDevice()) {
+            return LOW_RAM;
+        }
+        return activityManager.getMemoryClass() >= HIGH_END_MEMORY_CLASS_MB ? HIGH_END : STANDARD;
+    }
+
+    // ==================== APLICAR EL PERFIL ====================
+
+    /**
+     * Configura el builder (el modo de journal se elige al abrir, no con PRAGMA:
+     * Android gestiona el WAL y su pool de conexiones).
+     */
+    void applyTo(RoomDatabase.Builder<NoteDatabase> builder) {
+        builder.setJournalMode(journalMode);
+    }
+
+    /**
+     * Aplica los PRAGMA sobre la conexión recién abierta (RoomDatabase.Callback.onOpen).
+     */
+    void onOpen(@NonNull SupportSQLiteDatabase db) {
+        if (synchronous != null) {
+            pragma(db, "synchronous = " + synchronous);
+        }
+        if (cacheSizeKb > 0) {
+            // Negativo = tamaño en KiB en lugar de número de páginas
+            pragma(db, "cache_size = -" + cacheSizeKb);
+        }
+        if (mmapSizeBytes > 0) {
+            pragma(db, "mmap_size = " + mmapSizeBytes);
+        }
+        if (tempStore != TEMP_STORE_DEFAULT) {
+            pragma(db, "temp_store = " + tempStore);
+        }
+        if (walAutoCheckpointPages > 0) {
+            pragma(db, "wal_autocheckpoint = " + walAutoCheckpointPages);
+        }
+    }
+
+    /**
+     * Checkpoint PASSIVE: copia al archivo principal lo que pueda del WAL sin esperar a los lectores.
+     * Debe llamarse fuera de una transacción.
+     */
+    static void checkpoint(@NonNull SupportSQLiteDatabase db) {
+        pragma(db, "wal_checkpoint(PASSIVE)");
+    }
+
+    /**
+     * Algunos PRAGMA devuelven una fila (mmap_size, wal_checkpoint...) y Android no deja
+     * ejecutarlos con execSQL: se usan como consulta y se recorre el cursor para ejecutarlos.
+     */
+    private static void pragma(SupportSQLiteDatabase db, String pragma) {
+        try (Cursor cursor = db.query("PRAGMA " + pragma)) {
+            cursor.moveToFirst();
+        }
+    }
+
+    // ==================== GETTERS ====================
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Escrituras tras las que NoteWriteExecutor hace un checkpoint al quedarse sin trabajo (0 = nunca).
+     */
+    public int getIdleCheckpointWrites() {
+        return idleCheckpointWrites;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return name + " {journal=" + journalMode + ", synchronous=" + synchronous
+                + ", cache=" + cacheSizeKb + " KiB, mmap=" + mmapSizeBytes / (1024 * 1024) + " MiB"
+                + ", temp_store=" + tempStore + ", wal_autocheckpoint=" + walAutoCheckpointPages
+                + ", idleCheckpoint=" + idleCheckpointWrites + "}";
+    }
+}
@@ -0,0 +1,104 @@
+package com.laylarodas.quicknotes.database;
+
+import com.laylarodas.quicknotes.model.NoteContent;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Codifica el contenido de las notas para guardarlo en note_content.
+ *
+ * - Contenido corto (menos de COMPRESSION_THRESHOLD_BYTES en UTF-8): se guarda tal cual
+ * - Contenido largo: se comprime con Deflate (java.util.zip, sin dependencias)
+ *   y solo se usa si ahorra al menos un 10%; el texto aleatorio o ya comprimido queda sin comprimir
+ *
+ * No depende de Android: lo usan también el benchmark de JMH y los tests.
+ */
+public final class NoteBodyCodec {
+
+    // Por debajo de este tamaño la compresión ahorra poco y cuesta CPU al abrir la nota
+    static final int COMPRESSION_THRESHOLD_BYTES = 1024;
+    // Solo se guarda comprimido si ocupa como mucho este porcentaje del original
+    private static final int MAX_COMPRESSED_PERCENT = 90;
+
+    private NoteBodyCodec() {
+    }
+
+    /**
+     * Prepara la fila de note_content para el contenido de una nota.
+     */
+    public static NoteContent encode(String noteId, String content) {
+        if (content == null) {
+            return new NoteContent(noteId, NoteContent.ENCODING_PLAIN, 0, null);
+        }
+        byte[] raw = content.getBytes(StandardCharsets.UTF_8);
+        if (raw.length >= COMPRESSION_THRESHOLD_BYTES) {
+            byte[] compressed = deflate(raw);
+            if (compressed.length * 100L <= raw.length * (long) MAX_COMPRESSED_PERCENT) {
+                return new NoteContent(noteId, NoteContent.ENCODING_DEFLATE, raw.length, compressed);
+            }
+        }
+        return new NoteContent(noteId, NoteContent.ENCODING_PLAIN, raw.length, raw);
+    }
+
+    /**
+     * Recupera el texto de una fila de note_content (null si la nota no tiene contenido).
+     */
+    public static String decode(int encoding, int length, byte[] body) {
+        if (body == null) {
+            return null;
+        }
+        byte[] raw = encoding == NoteContent.ENCODING_DEFLATE ? inflate(body, length) : body;
+        return new String(raw, StandardCharsets.UTF_8);
+    }
+
+    public static String decode(NoteContent content) {
+        return content == null ? null : decode(content.getEncoding(), content.getLength(), content.getBody());
+    }
+
+    // ==================== DEFLATE ====================
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2);
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] compressed, int length) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            // length es el tamaño original: se descomprime de una vez, sin copias intermedias
+            byte[] raw = new byte[length];
+            int read = 0;
+            while (read < length && !inflater.finished()) {
+                int n = inflater.inflate(raw, read, length - read);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                read += n;
+            }
+            if (read != length) {
+                throw new IllegalStateException("Contenido comprimido incompleto: " + read + " de " + length + " bytes");
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Contenido comprimido dañado", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
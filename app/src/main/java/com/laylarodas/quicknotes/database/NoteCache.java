@@ -0,0 +1,231 @@
+package com.laylarodas.quicknotes.database;
+
+import android.content.ComponentCallbacks2;
+
+import com.laylarodas.quicknotes.model.Note;
+import com.laylarodas.quicknotes.model.NoteChange;
+import com.laylarodas.quicknotes.model.NoteChangeSet;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache LRU de notas completas (con contenido) para NoteRepository.getNoteById().
+ *
+ * Volver a abrir, compartir o borrar una nota reciente no lee SQLite ni descomprime el contenido.
+ * El límite es en bytes estimados (título + contenido), no en número de notas:
+ * 100 notas cortas ocupan poco, pero 100 notas de 1 MB no caben en el heap.
+ * Una nota más grande que MAX_ENTRY_FRACTION del límite no se guarda.
+ *
+ * Se mantiene al día con los cambios de cada transacción (NoteWriteExecutor.ChangeListener):
+ * las notas editadas se guardan con su texto nuevo y las eliminadas se quitan.
+ * Devuelve y guarda copias (Note es mutable: quien la recibe puede editarla).
+ * Es thread-safe (métodos synchronized); una instancia para toda la app.
+ */
+public final class NoteCache {
+
+    // Bytes por entrada además del texto (objetos Note/String, entrada del mapa, fechas...)
+    private static final int ENTRY_OVERHEAD_BYTES = 200;
+    // Una sola nota no puede ocupar más de 1/4 del cache
+    private static final int MAX_ENTRY_FRACTION = 4;
+    // Límite: 1/32 del heap de la app, como mucho 4 MB
+    private static final long MAX_BYTES_LIMIT = 4L * 1024 * 1024;
+
+    private static NoteCache instance;
+
+    private final long maxBytes;
+    // accessOrder = true: cada get() mueve la nota al final (la primera es la menos usada)
+    private final LinkedHashMap<String, Note> notes = new LinkedHashMap<>(32, 0.75f, true);
+    private long sizeBytes;
+    // Crece con cada transacción: una lectura de SQLite que empezó antes no se guarda (estaría vieja)
+    private long generation;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    private final NoteWriteExecutor.ChangeListener changeListener = this::onNotesChanged;
+
+    public static synchronized NoteCache getInstance() {
+        if (instance == null) {
+            instance = new NoteCache(Math.min(MAX_BYTES_LIMIT, Runtime.getRuntime().maxMemory() / 32));
+        }
+        return instance;
+    }
+
+    NoteCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Listener para NoteWriteExecutor (siempre el mismo objeto: registrarlo dos veces no lo duplica).
+     */
+    NoteWriteExecutor.ChangeListener getChangeListener() {
+        return changeListener;
+    }
+
+    // ==================== LECTURA Y ESCRITURA ====================
+
+    /**
+     * Copia de la nota guardada, o null si no está (cuenta como hit o miss).
+     */
+    public synchronized Note get(String id) {
+        Note note = notes.get(id);
+        if (note == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return note.copy();
+    }
+
+    /**
+     * Generación actual: anotarla ANTES de leer la nota de SQLite y pasarla a putIfUnchanged().
+     */
+    synchronized long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Guarda una nota leída de SQLite, salvo que alguna transacción haya hecho commit
+     * desde que se anotó la generación (la lectura pudo ver la versión anterior).
+     */
+    synchronized void putIfUnchanged(Note note, long readGeneration) {
+        if (readGeneration == generation) {
+            put(note.copy());
+        }
+    }
+
+    /**
+     * Guarda la nota tal cual (quien llama ya pasa una copia propia).
+     */
+    private void put(Note note) {
+        remove(note.getId());
+        long bytes = estimateBytes(note);
+        if (bytes > maxBytes / MAX_ENTRY_FRACTION) {
+            return; // Nota enorme: siempre se lee de SQLite
+        }
+        notes.put(note.getId(), note);
+        sizeBytes += bytes;
+        trimToSize(maxBytes);
+    }
+
+    private void remove(String id) {
+        Note removed = notes.remove(id);
+        if (removed != null) {
+            sizeBytes -= estimateBytes(removed);
+        }
+    }
+
+    /**
+     * Tamaño aproximado en memoria: 2 bytes por carácter (UTF-16) más los objetos.
+     */
+    static long estimateBytes(Note note) {
+        long chars = (note.getTitle() != null ? note.getTitle().length() : 0)
+                + (note.getContent() != null ? note.getContent().length() : 0)
+                + (note.getPreview() != null ? note.getPreview().length() : 0);
+        return chars * 2 + ENTRY_OVERHEAD_BYTES;
+    }
+
+    // ==================== CAMBIOS (WRITE-THROUGH) ====================
+
+    /**
+     * Hilo escritor, después del commit. Las notas nuevas o con texto nuevo se guardan
+     * (es probable que se vuelvan a abrir); las de solo pin/categoría se actualizan si ya estaban,
+     * sin cambiar su lugar en el orden LRU (no es un uso de la nota).
+     */
+    private synchronized void onNotesChanged(NoteChangeSet changes) {
+        generation++;
+        if (changes.isCleared()) {
+            notes.clear();
+            sizeBytes = 0;
+        }
+        // Solo pin/categoría de notas guardadas: se aplican al final en una sola pasada
+        Map<String, NoteChange> metadataChanges = new HashMap<>();
+        for (NoteChange change : changes.getChanges()) {
+            metadataChanges.remove(change.getId());
+            if (change.getAfter() == null) {
+                remove(change.getId());
+            } else if (change.getNote() != null) {
+                Note note = change.getNote().copy();
+                applyMetadata(note, change);
+                put(note);
+            } else if (notes.containsKey(change.getId())) { // containsKey no cambia el orden LRU
+                metadataChanges.put(change.getId(), change);
+            }
+        }
+        if (!metadataChanges.isEmpty()) {
+            // get() movería cada nota al final: se recorre el mapa y se edita la copia guardada
+            for (Map.Entry<String, Note> entry : notes.entrySet()) {
+                NoteChange change = metadataChanges.get(entry.getKey());
+                if (change != null) {
+                    applyMetadata(entry.getValue(), change);
+                }
+            }
+        }
+    }
+
+    private static void applyMetadata(Note note, NoteChange change) {
+        note.setPinned(change.getAfter().isPinned());
+        note.setCategory(change.getAfter().getCategory());
+        note.setModifiedAt(change.getAfter().getModifiedAt());
+    }
+
+    // ==================== MEMORIA ====================
+
+    /**
+     * Quita las notas menos usadas hasta ocupar como mucho targetBytes.
+     */
+    synchronized void trimToSize(long targetBytes) {
+        Iterator<Map.Entry<String, Note>> iterator = notes.entrySet().iterator();
+        while (sizeBytes > targetBytes && iterator.hasNext()) {
+            sizeBytes -= estimateBytes(iterator.next().getValue());
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Aviso de memoria del sistema (Application.onTrimMemory).
+     * - App en background o memoria crítica: se vacía el cache
+     * - Memoria baja o la UI dejó de verse: se queda con la mitad
+     */
+    public void onTrimMemory(int level) {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_BACKGROUND
+                || level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL) {
+            trimToSize(0);
+        } else if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+            trimToSize(maxBytes / 2);
+        }
+    }
+
+    // ==================== MÉTRICAS ====================
+
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictions;
+    }
+
+    public synchronized long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public synchronized int size() {
+        return notes.size();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "cache de notas: " + notes.size() + " notas, " + sizeBytes / 1024 + "/" + maxBytes / 1024
+                + " KB | aciertos=" + hits + " fallos=" + misses + " expulsadas=" + evictions;
+    }
+}
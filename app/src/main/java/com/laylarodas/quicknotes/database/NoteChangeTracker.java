@@ -0,0 +1,117 @@
+package com.laylarodas.quicknotes.database;
+
+import com.laylarodas.quicknotes.model.Note;
+import com.laylarodas.quicknotes.model.NoteChange;
+import com.laylarodas.quicknotes.model.NoteChangeSet;
+import com.laylarodas.quicknotes.model.NoteSummary;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Registra qué notas cambia la transacción en curso.
+ *
+ * NoteWriteExecutor llama a begin() antes de cada lote y a end() después del commit;
+ * los métodos de escritura de NoteDao informan aquí de cada nota que tocan.
+ * El registro es por hilo (ThreadLocal): fuera de NoteWriteExecutor (tests, benchmarks)
+ * no hay registro abierto y los métodos record* no hacen nada.
+ *
+ * Si la misma nota cambia varias veces en la transacción, se guarda un solo cambio
+ * con el estado anterior del primero y el estado final del último.
+ */
+final class NoteChangeTracker {
+
+    private static final ThreadLocal<Recording> current = new ThreadLocal<>();
+
+    private static final class Recording {
+        final Map<String, NoteChange> changes = new LinkedHashMap<>();
+        boolean cleared;
+    }
+
+    private NoteChangeTracker() {
+    }
+
+    static void begin() {
+        current.set(new Recording());
+    }
+
+    /**
+     * Cierra el registro del hilo y devuelve los cambios (llamar después del commit).
+     * @param sequence Número de la transacción (ver NoteChangeSet.getSequence())
+     */
+    static NoteChangeSet end(long sequence) {
+        Recording recording = current.get();
+        current.remove();
+        if (recording == null || (recording.changes.isEmpty() && !recording.cleared)) {
+            return NoteChangeSet.EMPTY;
+        }
+        return new NoteChangeSet(sequence, new ArrayList<>(recording.changes.values()), recording.cleared);
+    }
+
+    /**
+     * La transacción hizo rollback: los cambios registrados no ocurrieron.
+     */
+    static void discard() {
+        current.remove();
+    }
+
+    /**
+     * true si hay un registro abierto en este hilo.
+     * Las operaciones en lote lo usan para no leer el estado anterior cuando nadie lo necesita.
+     */
+    static boolean isRecording() {
+        return current.get() != null;
+    }
+
+    // ==================== REGISTRO ====================
+
+    static void recordInsert(Note note) {
+        record(note.getId(), null, NoteSummary.from(note), note);
+    }
+
+    /**
+     * @param textChanged true si cambió el título o el contenido (se adjunta la nota completa)
+     */
+    static void recordUpdate(Note old, Note note, boolean textChanged) {
+        record(note.getId(), NoteSummary.from(old), NoteSummary.from(note), textChanged ? note : null);
+    }
+
+    /**
+     * Cambio sin texto (pin o categoría en lote).
+     */
+    static void recordUpdate(NoteSummary before, NoteSummary after) {
+        record(after.getId(), before, after, null);
+    }
+
+    static void recordDelete(NoteSummary before) {
+        record(before.getId(), before, null, null);
+    }
+
+    static void recordClear() {
+        Recording recording = current.get();
+        if (recording != null) {
+            recording.changes.clear();
+            recording.cleared = true;
+        }
+    }
+
+    private static void record(String id, NoteSummary before, NoteSummary after, Note note) {
+        Recording recording = current.get();
+        if (recording == null) {
+            return;
+        }
+        NoteChange previous = recording.changes.get(id);
+        if (previous != null) {
+            before = previous.getBefore();
+            if (note == null && after != null) {
+                note = previous.getNote(); // El texto sigue siendo el del cambio anterior
+            }
+        }
+        if (before == null && after == null) {
+            recording.changes.remove(id); // Insertada y eliminada en la misma transacción
+            return;
+        }
+        recording.changes.put(id, new NoteChange(id, before, after, note));
+    }
+}
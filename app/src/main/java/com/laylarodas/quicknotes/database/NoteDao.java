@@ -1,110 +1,658 @@
 package com.laylarodas.quicknotes.database;
 
+import android.database.Cursor;
+
 import androidx.lifecycle.LiveData;
+import androidx.paging.PagingSource;
 import androidx.room.Dao;
-import androidx.room.Delete;
 import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import androidx.room.Transaction;
 import androidx.room.Update;
 
+import com.laylarodas.quicknotes.model.CategoryCount;
 import com.laylarodas.quicknotes.model.Note;
+import com.laylarodas.quicknotes.model.NoteCategory;
+import com.laylarodas.quicknotes.model.NoteContent;
+import com.laylarodas.quicknotes.model.NoteFtsEntry;
+import com.laylarodas.quicknotes.model.NoteSearchMatch;
+import com.laylarodas.quicknotes.model.NoteSummary;
+import com.laylarodas.quicknotes.model.NoteTimestamp;
+import com.laylarodas.quicknotes.model.NoteTrigram;
+import com.laylarodas.quicknotes.model.NoteWithContent;
+import com.laylarodas.quicknotes.model.NoteWord;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 /**
  * DAO (Data Access Object) para la entidad Note.
  * Define todas las operaciones de base de datos disponibles para las notas.
  * Room generará automáticamente la implementación de esta interface.
+ *
+ * El contenido de cada nota vive en note_content (comprimido si es largo, ver NoteBodyCodec)
+ * y el índice FTS (note_fts) se mantiene desde aquí, no con triggers: por eso las escrituras
+ * son métodos default con @Transaction que tocan las tres tablas juntas.
+ * Las notas que devuelve este DAO ya traen el contenido descomprimido.
+ *
+ * Las escrituras también informan a NoteChangeTracker de cada nota que cambian
+ * (así NoteWriteExecutor sabe qué filas tocó cada transacción, ver NoteChangeSet).
+ *
+ * El vocabulario de la búsqueda aproximada (note_word y note_trigram, ver NoteWordIndex)
+ * se mantiene igual que note_fts. Las palabras de todas las notas de una operación
+ * se suman primero en un mapa y se aplican al final con updateWords(): importar mil notas
+ * toca cada palabra distinta una vez, no mil.
  */
 @Dao
 public interface NoteDao {
     
+    /**
+     * Columnas de NoteSummary para las consultas de lista.
+     * note_table solo guarda el preview (NoteSummary.PREVIEW_LENGTH caracteres):
+     * dibujar la lista nunca lee los cuerpos completos de las notas.
+     * Las columnas van con el nombre de la tabla para poder usarlas en el JOIN con note_fts.
+     */
+    String SUMMARY_COLUMNS = "note_table.id, note_table.title, note_table.preview, " +
+            "note_table.createdAt, note_table.modifiedAt, note_table.category, note_table.isPinned";
+    
+    /**
+     * Nota completa: fila de note_table + su contenido (ver NoteWithContent).
+     */
+    String NOTE_WITH_CONTENT = "SELECT note_table.*, note_content.noteId, note_content.encoding, " +
+            "note_content.length, note_content.body FROM note_table " +
+            "LEFT JOIN note_content ON note_content.noteId = note_table.id";
+    
+    /**
+     * Condición de las búsquedas LIKE (consultas sin palabras, solo símbolos).
+     * El contenido comprimido no se puede recorrer con LIKE: se busca en la copia sin comprimir
+     * que guarda note_fts (ver NoteFts), así encuentra igual las notas largas y las cortas.
+     */
+    String LIKE_CONDITION = "(note_table.title LIKE :searchQuery " +
+            "OR note_table.rowid IN (SELECT docid FROM note_fts WHERE content LIKE :searchQuery))";
+    
     // ==================== OPERACIONES BÁSICAS (CRUD) ====================
+    // Cada escritura actualiza note_table, note_content, note_fts y el vocabulario en la misma transacción.
     
     /**
      * Inserta una nota en la base de datos.
      * Si ya existe una nota con el mismo ID, falla.
      */
-    @Insert
-    void insert(Note note);
+    @Transaction
+    default void insert(Note note) {
+        insertAll(Collections.singletonList(note));
+    }
     
     /**
      * Actualiza una nota existente.
      * Busca por el ID de la nota y actualiza todos sus campos.
+     * Si el título y el contenido no cambiaron (ej: fijar la nota), no se toca note_content ni los índices.
      */
-    @Update
-    void update(Note note);
+    @Transaction
+    default void update(Note note) {
+        updateAll(Collections.singletonList(note));
+    }
     
     /**
-     * Elimina una nota de la base de datos.
+     * Elimina una nota de la base de datos (su contenido se borra en cascada).
      */
-    @Delete
-    void delete(Note note);
+    @Transaction
+    default void delete(Note note) {
+        deleteByIds(Collections.singletonList(note.getId()));
+    }
     
     /**
      * Elimina TODAS las notas de la base de datos.
      * Útil para limpiar datos en pruebas.
      */
+    @Transaction
+    default void deleteAllNotes() {
+        clearFts();
+        clearTrigrams();
+        clearWords();
+        deleteAllRows();
+        NoteChangeTracker.recordClear();
+    }
+    
+    // ==================== OPERACIONES EN LOTE ====================
+    // Selección múltiple: una sentencia por bloque de IDs (WHERE id IN) y una sola transacción,
+    // así Room invalida las consultas observadas una vez aunque se toquen mil notas.
+    
+    /**
+     * IDs por sentencia en las operaciones en lote (por debajo del límite de 999 parámetros de SQLite).
+     */
+    int MAX_IDS_PER_STATEMENT = 900;
+    
+    /**
+     * Elimina las notas indicadas (su contenido se borra en cascada).
+     * Los IDs que ya no existen se ignoran.
+     * @return Número de notas eliminadas
+     */
+    @Transaction
+    default int deleteByIds(List<String> ids) {
+        int deleted = 0;
+        Map<String, Integer> words = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += MAX_IDS_PER_STATEMENT) {
+            List<String> chunk = ids.subList(from, Math.min(ids.size(), from + MAX_IDS_PER_STATEMENT));
+            if (NoteChangeTracker.isRecording()) {
+                for (NoteSummary before : getSummariesByIds(chunk)) {
+                    NoteChangeTracker.recordDelete(before);
+                }
+            }
+            // El vocabulario necesita el texto indexado: se lee de note_fts, sin descomprimir note_content
+            for (NoteFtsEntry entry : getFtsEntries(chunk)) {
+                NoteWordIndex.countWords(words, entry.getTitle(), entry.getContent(), -1);
+            }
+            unindexFtsByIds(chunk);
+            deleted += deleteRowsByIds(chunk);
+        }
+        updateWords(words);
+        return deleted;
+    }
+    
+    /**
+     * Fija o desfija las notas indicadas. No cambia modifiedAt (igual que fijar una sola nota).
+     * @return Número de notas actualizadas
+     */
+    @Transaction
+    default int setPinned(List<String> ids, boolean pinned) {
+        int updated = 0;
+        for (int from = 0; from < ids.size(); from += MAX_IDS_PER_STATEMENT) {
+            List<String> chunk = ids.subList(from, Math.min(ids.size(), from + MAX_IDS_PER_STATEMENT));
+            if (NoteChangeTracker.isRecording()) {
+                for (NoteSummary before : getSummariesByIds(chunk)) {
+                    if (before.isPinned() != pinned) {
+                        NoteChangeTracker.recordUpdate(before, before.withPinned(pinned));
+                    }
+                }
+            }
+            updated += setPinnedRows(chunk, pinned);
+        }
+        return updated;
+    }
+    
+    /**
+     * Cambia la categoría de las notas indicadas. No toca note_content ni el índice FTS.
+     * @return Número de notas actualizadas
+     */
+    @Transaction
+    default int setCategory(List<String> ids, NoteCategory category) {
+        int updated = 0;
+        for (int from = 0; from < ids.size(); from += MAX_IDS_PER_STATEMENT) {
+            List<String> chunk = ids.subList(from, Math.min(ids.size(), from + MAX_IDS_PER_STATEMENT));
+            if (NoteChangeTracker.isRecording()) {
+                for (NoteSummary before : getSummariesByIds(chunk)) {
+                    if (before.getCategory() != category) {
+                        NoteChangeTracker.recordUpdate(before, before.withCategory(category));
+                    }
+                }
+            }
+            updated += setCategoryRows(chunk, category);
+        }
+        return updated;
+    }
+    
+    // ==================== FILAS E ÍNDICE (USO INTERNO) ====================
+    // Los usan los métodos default de arriba; desde fuera usar insert/update/delete.
+    
+    @Insert
+    long insertRow(Note note);
+    
+    @Update
+    void updateRow(Note note);
+    
     @Query("DELETE FROM note_table")
-    void deleteAllNotes();
+    void deleteAllRows();
+    
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertContent(NoteContent content);
+    
+    @Query("SELECT rowid FROM note_table WHERE id = :id")
+    long getRowId(String id);
+    
+    /**
+     * Añade la nota al índice FTS (docid = rowid de note_table).
+     */
+    @Query("INSERT INTO note_fts(docid, title, content) VALUES (:rowId, :title, :content)")
+    void indexFts(long rowId, String title, String content);
+    
+    /**
+     * Quita la nota del índice FTS.
+     */
+    @Query("DELETE FROM note_fts WHERE docid = :rowId")
+    void unindexFts(long rowId);
+    
+    @Query("DELETE FROM note_fts")
+    void clearFts();
+    
+    /**
+     * Aplica al vocabulario las palabras sumadas con NoteWordIndex.countWords():
+     * cambia el número de notas de cada palabra, crea las nuevas con sus trigramas
+     * y borra las que ya no aparecen en ninguna nota.
+     */
+    default void updateWords(Map<String, Integer> noteCountDeltas) {
+        for (Map.Entry<String, Integer> entry : noteCountDeltas.entrySet()) {
+            int delta = entry.getValue();
+            if (delta == 0) {
+                continue; // Se quitó y se volvió a poner (ej: editar otra parte de la nota)
+            }
+            String word = entry.getKey();
+            NoteWord existing = getWord(word);
+            int noteCount = (existing != null ? existing.getNoteCount() : 0) + delta;
+            if (existing == null) {
+                if (noteCount > 0) {
+                    long wordId = insertWord(new NoteWord(0, word, noteCount));
+                    insertTrigrams(NoteWordIndex.trigramRows(word, wordId));
+                }
+            } else if (noteCount > 0) {
+                setWordNoteCount(existing.getId(), noteCount);
+            } else {
+                deleteTrigrams(existing.getId(), NoteWordIndex.trigrams(word));
+                deleteWord(existing.getId());
+            }
+        }
+    }
+    
+    @Query("SELECT * FROM note_word WHERE word = :word")
+    NoteWord getWord(String word);
+    
+    @Insert
+    long insertWord(NoteWord word);
+    
+    @Query("UPDATE note_word SET noteCount = :noteCount WHERE id = :id")
+    void setWordNoteCount(long id, int noteCount);
+    
+    @Query("DELETE FROM note_word WHERE id = :id")
+    void deleteWord(long id);
+    
+    @Query("DELETE FROM note_word")
+    void clearWords();
+    
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    void insertTrigrams(List<NoteTrigram> trigrams);
+    
+    @Query("DELETE FROM note_trigram WHERE wordId = :wordId AND trigram IN (:trigrams)")
+    void deleteTrigrams(long wordId, List<String> trigrams);
+    
+    @Query("DELETE FROM note_trigram")
+    void clearTrigrams();
+    
+    // Versiones de un solo bloque de las operaciones en lote (máximo MAX_IDS_PER_STATEMENT IDs)
+    
+    @Query("SELECT docid, title, content FROM note_fts " +
+           "WHERE docid IN (SELECT rowid FROM note_table WHERE id IN (:ids))")
+    List<NoteFtsEntry> getFtsEntries(List<String> ids);
+    
+    @Query("DELETE FROM note_fts WHERE docid IN (SELECT rowid FROM note_table WHERE id IN (:ids))")
+    void unindexFtsByIds(List<String> ids);
+    
+    /**
+     * Estado anterior de las notas, para registrar los cambios de la operación en lote.
+     */
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM note_table WHERE id IN (:ids)")
+    List<NoteSummary> getSummariesByIds(List<String> ids);
+    
+    @Query("DELETE FROM note_table WHERE id IN (:ids)")
+    int deleteRowsByIds(List<String> ids);
+    
+    @Query("UPDATE note_table SET isPinned = :pinned WHERE id IN (:ids)")
+    int setPinnedRows(List<String> ids, boolean pinned);
+    
+    @Query("UPDATE note_table SET category = :category WHERE id IN (:ids)")
+    int setCategoryRows(List<String> ids, NoteCategory category);
+    
+    /**
+     * Convierte las filas del JOIN en notas completas (descomprime el contenido).
+     */
+    static Note toNote(NoteWithContent row) {
+        if (row == null) {
+            return null;
+        }
+        Note note = row.getNote();
+        note.restoreContent(NoteBodyCodec.decode(row.getContent()));
+        return note;
+    }
+    
+    static List<Note> toNotes(List<NoteWithContent> rows) {
+        List<Note> notes = new ArrayList<>(rows.size());
+        for (NoteWithContent row : rows) {
+            notes.add(toNote(row));
+        }
+        return notes;
+    }
     
     // ==================== CONSULTAS CON LIVEDATA ====================
     // LiveData permite observar cambios automáticamente en la UI
+    // Las listas devuelven NoteSummary (sin el contenido completo)
     
     /**
      * Obtiene TODAS las notas ordenadas por fecha de modificación (más reciente primero).
      * Las notas pinned aparecen primero.
      * LiveData: La UI se actualiza automáticamente cuando cambian los datos.
      */
-    @Query("SELECT * FROM note_table ORDER BY isPinned DESC, modifiedAt DESC")
-    LiveData<List<Note>> getAllNotesByModified();
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM note_table ORDER BY isPinned DESC, modifiedAt DESC")
+    LiveData<List<NoteSummary>> getAllNotesByModified();
+    
+    /**
+     * Todas las notas (sin orden definido), sin LiveData.
+     * NoteRepository la carga UNA vez y después aplica los cambios de cada transacción
+     * (ver NoteChangeSet) en lugar de repetir la consulta con cada escritura.
+     * ADVERTENCIA: No usar en el hilo principal.
+     */
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM note_table")
+    List<NoteSummary> getAllSummariesSync();
+    
+    /**
+     * Primeras notas en el orden por defecto, sin LiveData.
+     * La usa el arranque para abrir la base de datos y guardar la primera pantalla (ver NoteListSnapshot).
+     * ADVERTENCIA: No usar en el hilo principal.
+     */
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM note_table ORDER BY isPinned DESC, modifiedAt DESC LIMIT :limit")
+    List<NoteSummary> getFirstNotesByModified(int limit);
     
     /**
      * Obtiene todas las notas ordenadas por fecha de creación (más reciente primero).
      * Las notas pinned aparecen primero.
      */
-    @Query("SELECT * FROM note_table ORDER BY isPinned DESC, createdAt DESC")
-    LiveData<List<Note>> getAllNotesByCreated();
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM note_table ORDER BY isPinned DESC, createdAt DESC")
+    LiveData<List<NoteSummary>> getAllNotesByCreated();
     
     /**
      * Obtiene todas las notas ordenadas alfabéticamente por título (A-Z).
      * Las notas pinned aparecen primero.
      */
-    @Query("SELECT * FROM note_table ORDER BY isPinned DESC, title COLLATE NOCASE ASC")
-    LiveData<List<Note>> getAllNotesByTitleAsc();
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM note_table ORDER BY isPinned DESC, title COLLATE NOCASE ASC")
+    LiveData<List<NoteSummary>> getAllNotesByTitleAsc();
     
     /**
      * Obtiene todas las notas ordenadas alfabéticamente por título (Z-A).
      * Las notas pinned aparecen primero.
      */
-    @Query("SELECT * FROM note_table ORDER BY isPinned DESC, title COLLATE NOCASE DESC")
-    LiveData<List<Note>> getAllNotesByTitleDesc();
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM note_table ORDER BY isPinned DESC, title COLLATE NOCASE DESC")
+    LiveData<List<NoteSummary>> getAllNotesByTitleDesc();
+    
+    // ==================== FILTRO POR CATEGORÍA ====================
+    // Usan el índice (category, isPinned, modifiedAt): SQLite solo recorre el rango de esa categoría.
+    // Con el orden por fecha de modificación el índice ya entrega las filas ordenadas;
+    // con los otros órdenes SQLite ordena solo las notas de esa categoría.
     
     /**
-     * Busca notas que contengan el texto especificado en el título o contenido.
-     * El parámetro searchQuery debe incluir los wildcard % (ej: "%texto%")
-     * COLLATE NOCASE hace la búsqueda case-insensitive (no distingue mayúsculas).
+     * Notas de una categoría, ordenadas por fecha de modificación (más reciente primero).
+     */
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM note_table WHERE category = :category ORDER BY isPinned DESC, modifiedAt DESC")
+    LiveData<List<NoteSummary>> getNotesByCategoryByModified(NoteCategory category);
+    
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM note_table WHERE category = :category ORDER BY isPinned DESC, createdAt DESC")
+    LiveData<List<NoteSummary>> getNotesByCategoryByCreated(NoteCategory category);
+    
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM note_table WHERE category = :category ORDER BY isPinned DESC, title COLLATE NOCASE ASC")
+    LiveData<List<NoteSummary>> getNotesByCategoryByTitleAsc(NoteCategory category);
+    
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM note_table WHERE category = :category ORDER BY isPinned DESC, title COLLATE NOCASE DESC")
+    LiveData<List<NoteSummary>> getNotesByCategoryByTitleDesc(NoteCategory category);
+    
+    /**
+     * Búsqueda de texto completo usando el índice FTS4 (tabla note_fts).
+     * El parámetro matchQuery es una expresión MATCH (ej: "cas*" "verde*"),
+     * ver SearchUtils.buildMatchQuery().
+     * El coste depende del número de coincidencias, no del total de notas.
      * Las notas pinned aparecen primero.
+     * ADVERTENCIA: No usar en el hilo principal.
+     */
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM note_table " +
+           "JOIN note_fts ON note_table.rowid = note_fts.rowid " +
+           "WHERE note_fts MATCH :matchQuery " +
+           "ORDER BY note_table.isPinned DESC, note_table.modifiedAt DESC")
+    List<NoteSummary> searchNotesFtsSync(String matchQuery);
+    
+    /**
+     * Como searchNotesFtsSync(), pero con el contenido indexado de cada nota (de note_fts,
+     * sin descomprimir) y como mucho limit resultados: el LIMIT se aplica antes de leer el texto.
+     * La usa NoteSearchPipeline para filtrar en memoria cuando el usuario sigue escribiendo.
      */
-    @Query("SELECT * FROM note_table WHERE title LIKE :searchQuery OR content LIKE :searchQuery ORDER BY isPinned DESC, modifiedAt DESC")
-    LiveData<List<Note>> searchNotes(String searchQuery);
+    @Query("SELECT " + SUMMARY_COLUMNS + ", note_fts.content AS searchContent FROM note_table " +
+           "JOIN note_fts ON note_table.rowid = note_fts.rowid " +
+           "WHERE note_fts MATCH :matchQuery " +
+           "ORDER BY note_table.isPinned DESC, note_table.modifiedAt DESC LIMIT :limit")
+    List<NoteSearchMatch> searchNotesFtsWithContent(String matchQuery, int limit);
+    
+    /**
+     * Versión LIKE de searchNotesFtsSync() (búsquedas sin palabras, solo símbolos).
+     * Busca el texto en el título o en el contenido indexado (note_fts.content).
+     * El parámetro searchQuery debe incluir los wildcard % (ej: "%texto%").
+     */
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM note_table WHERE " + LIKE_CONDITION +
+           " ORDER BY isPinned DESC, modifiedAt DESC")
+    List<NoteSummary> searchNotesSync(String searchQuery);
+    
+    // ==================== BÚSQUEDA APROXIMADA ====================
+    // Ver NoteWordIndex.search(): desde fuera usar NoteRepository.searchNotesFuzzy().
+    
+    /**
+     * Palabras del vocabulario de minLength a maxLength letras que comparten al menos minShared
+     * de los trigramas indicados. El LIMIT se aplica después de ordenar: primero las que más
+     * trigramas comparten; a igual cantidad, las de longitud más cercana a length y luego
+     * las que aparecen en más notas (con palabras cortas muchas comparten un solo trigrama).
+     * Solo recorre el índice (trigram, wordId) para esos trigramas; el coste no depende del número de notas.
+     */
+    @Query("SELECT note_word.* FROM note_trigram JOIN note_word ON note_word.id = note_trigram.wordId " +
+           "WHERE note_trigram.trigram IN (:trigrams) " +
+           "AND LENGTH(note_word.word) BETWEEN :minLength AND :maxLength " +
+           "GROUP BY note_trigram.wordId HAVING COUNT(*) >= :minShared " +
+           "ORDER BY COUNT(*) DESC, ABS(LENGTH(note_word.word) - :length), note_word.noteCount DESC " +
+           "LIMIT :limit")
+    List<NoteWord> findWordsByTrigrams(List<String> trigrams, int minShared, int length,
+                                       int minLength, int maxLength, int limit);
+    
+    /**
+     * IDs de las notas que coinciden con una expresión MATCH (sin cargar las notas).
+     */
+    @Query("SELECT note_table.id FROM note_table " +
+           "JOIN note_fts ON note_table.rowid = note_fts.rowid " +
+           "WHERE note_fts MATCH :matchQuery")
+    List<String> getNoteIdsMatching(String matchQuery);
+    
+    // ==================== CONSULTAS PAGINADAS ====================
+    // PagingSource carga la lista por páginas (LIMIT/OFFSET) a medida que se hace scroll,
+    // en lugar de cargar toda la tabla en memoria. Mismo orden que las consultas de arriba.
+    
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM note_table ORDER BY isPinned DESC, modifiedAt DESC")
+    PagingSource<Integer, NoteSummary> getNotesPagedByModified();
+    
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM note_table ORDER BY isPinned DESC, createdAt DESC")
+    PagingSource<Integer, NoteSummary> getNotesPagedByCreated();
+    
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM note_table ORDER BY isPinned DESC, title COLLATE NOCASE ASC")
+    PagingSource<Integer, NoteSummary> getNotesPagedByTitleAsc();
+    
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM note_table ORDER BY isPinned DESC, title COLLATE NOCASE DESC")
+    PagingSource<Integer, NoteSummary> getNotesPagedByTitleDesc();
+    
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM note_table WHERE category = :category ORDER BY isPinned DESC, modifiedAt DESC")
+    PagingSource<Integer, NoteSummary> getNotesPagedByCategoryByModified(NoteCategory category);
+    
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM note_table WHERE category = :category ORDER BY isPinned DESC, createdAt DESC")
+    PagingSource<Integer, NoteSummary> getNotesPagedByCategoryByCreated(NoteCategory category);
+    
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM note_table WHERE category = :category ORDER BY isPinned DESC, title COLLATE NOCASE ASC")
+    PagingSource<Integer, NoteSummary> getNotesPagedByCategoryByTitleAsc(NoteCategory category);
+    
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM note_table WHERE category = :category ORDER BY isPinned DESC, title COLLATE NOCASE DESC")
+    PagingSource<Integer, NoteSummary> getNotesPagedByCategoryByTitleDesc(NoteCategory category);
+    
+    /**
+     * Versión paginada de searchNotesFtsSync().
+     */
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM note_table " +
+           "JOIN note_fts ON note_table.rowid = note_fts.rowid " +
+           "WHERE note_fts MATCH :matchQuery " +
+           "ORDER BY note_table.isPinned DESC, note_table.modifiedAt DESC")
+    PagingSource<Integer, NoteSummary> searchNotesPagedFts(String matchQuery);
+    
+    /**
+     * Versión paginada de searchNotesSync() (LIKE).
+     */
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM note_table WHERE " + LIKE_CONDITION + " ORDER BY isPinned DESC, modifiedAt DESC")
+    PagingSource<Integer, NoteSummary> searchNotesPaged(String searchQuery);
     
     // ==================== CONSULTAS SÍNCRONAS ====================
     // Para operaciones que no necesitan observar cambios (ej: migración)
     
+    /**
+     * Obtiene la nota completa (con todo su contenido) por su ID.
+     * Se usa al abrir una nota desde la lista, que solo tiene NoteSummary.
+     * ADVERTENCIA: No usar en el hilo principal.
+     */
+    default Note getNoteById(String id) {
+        return toNote(getNoteWithContentById(id));
+    }
+    
+    @Query(NOTE_WITH_CONTENT + " WHERE note_table.id = :id")
+    NoteWithContent getNoteWithContentById(String id);
+    
+    /**
+     * Notas completas con los IDs indicados, sin orden definido (los IDs que no existen se ignoran).
+     * Se usa para poder deshacer un borrado en lote.
+     * ADVERTENCIA: No usar en el hilo principal.
+     */
+    default List<Note> getNotesByIds(List<String> ids) {
+        List<Note> notes = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += MAX_IDS_PER_STATEMENT) {
+            notes.addAll(toNotes(getNotesWithContentByIds(ids.subList(from, Math.min(ids.size(), from + MAX_IDS_PER_STATEMENT)))));
+        }
+        return notes;
+    }
+    
+    @Query(NOTE_WITH_CONTENT + " WHERE note_table.id IN (:ids)")
+    List<NoteWithContent> getNotesWithContentByIds(List<String> ids);
+    
     /**
      * Obtiene todas las notas de forma síncrona (sin LiveData).
      * Útil para migraciones o exportaciones.
      * ADVERTENCIA: No usar en el hilo principal.
      */
-    @Query("SELECT * FROM note_table")
-    List<Note> getAllNotesSync();
+    default List<Note> getAllNotesSync() {
+        return toNotes(getAllNotesWithContent());
+    }
+    
+    @Query(NOTE_WITH_CONTENT)
+    List<NoteWithContent> getAllNotesWithContent();
+    
+    /**
+     * Cursor sobre todas las notas, para recorrerlas una por una sin cargarlas todas en memoria.
+     * Usado por la exportación. Quien lo abre debe cerrarlo.
+     * Trae las columnas de note_content (encoding, length, body): decodificar con NoteBodyCodec.
+     * ADVERTENCIA: No usar en el hilo principal.
+     */
+    @Query(NOTE_WITH_CONTENT)
+    Cursor getAllNotesCursor();
+    
+    /**
+     * Número total de notas.
+     */
+    @Query("SELECT COUNT(*) FROM note_table")
+    int getNoteCount();
+    
+    // ==================== CONTEOS ====================
+    
+    /**
+     * Cuántas notas hay por categoría y estado de pin (como mucho 2 filas por categoría).
+     * SQLite lo resuelve recorriendo solo el índice (category, isPinned, modifiedAt), sin leer las notas.
+     * LiveData: se actualiza con cada cambio, como las listas.
+     */
+    @Query("SELECT category, isPinned, COUNT(*) AS count FROM note_table GROUP BY category, isPinned")
+    LiveData<List<CategoryCount>> getCategoryCounts();
+    
+    /**
+     * Versión síncrona de getCategoryCounts(): NoteRepository la carga una vez
+     * y después suma y resta con los cambios de cada transacción.
+     * ADVERTENCIA: No usar en el hilo principal.
+     */
+    @Query("SELECT category, isPinned, COUNT(*) AS count FROM note_table GROUP BY category, isPinned")
+    List<CategoryCount> getCategoryCountsSync();
     
     /**
      * Inserta múltiples notas de una vez.
      * Útil para migración desde SharedPreferences.
      */
-    @Insert
-    void insertAll(List<Note> notes);
+    @Transaction
+    default void insertAll(List<Note> notes) {
+        Map<String, Integer> words = new HashMap<>();
+        for (Note note : notes) {
+            long rowId = insertRow(note);
+            insertContent(NoteBodyCodec.encode(note.getId(), note.getContent()));
+            indexFts(rowId, note.getTitle(), note.getContent());
+            NoteWordIndex.countWords(words, note.getTitle(), note.getContent(), 1);
+            NoteChangeTracker.recordInsert(note);
+        }
+        updateWords(words);
+    }
+    
+    // ==================== IMPORTACIÓN ====================
+    
+    /**
+     * Inserta múltiples notas ignorando las que ya existen (mismo ID).
+     * @return rowId de cada nota insertada, o -1 si ya existía
+     */
+    @Transaction
+    default long[] insertAllIgnoringConflicts(List<Note> notes) {
+        long[] rowIds = insertRowsIgnoringConflicts(notes);
+        Map<String, Integer> words = new HashMap<>();
+        for (int i = 0; i < rowIds.length; i++) {
+            if (rowIds[i] != -1) {
+                Note note = notes.get(i);
+                insertContent(NoteBodyCodec.encode(note.getId(), note.getContent()));
+                indexFts(rowIds[i], note.getTitle(), note.getContent());
+                NoteWordIndex.countWords(words, note.getTitle(), note.getContent(), 1);
+                NoteChangeTracker.recordInsert(note);
+            }
+        }
+        updateWords(words);
+        return rowIds;
+    }
+    
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    long[] insertRowsIgnoringConflicts(List<Note> notes);
+    
+    /**
+     * Actualiza múltiples notas existentes (buscadas por ID).
+     */
+    @Transaction
+    default void updateAll(List<Note> notes) {
+        Map<String, Integer> words = new HashMap<>();
+        for (Note note : notes) {
+            Note old = getNoteById(note.getId());
+            if (old == null) {
+                continue; // Igual que @Update: no hace nada si la nota no existe
+            }
+            updateRow(note);
+            boolean contentChanged = !Objects.equals(old.getContent(), note.getContent());
+            if (contentChanged) {
+                insertContent(NoteBodyCodec.encode(note.getId(), note.getContent()));
+            }
+            boolean textChanged = contentChanged || !Objects.equals(old.getTitle(), note.getTitle());
+            if (textChanged) {
+                long rowId = getRowId(note.getId());
+                unindexFts(rowId);
+                indexFts(rowId, note.getTitle(), note.getContent());
+                NoteWordIndex.countWords(words, old.getTitle(), old.getContent(), -1);
+                NoteWordIndex.countWords(words, note.getTitle(), note.getContent(), 1);
+            }
+            NoteChangeTracker.recordUpdate(old, note, textChanged);
+        }
+        updateWords(words);
+    }
+    
+    /**
+     * Obtiene la fecha de modificación de las notas indicadas (sin cargar título ni contenido).
+     * Usado para resolver conflictos de ID al importar.
+     * ADVERTENCIA: máximo 999 IDs por llamada (límite de parámetros de SQLite).
+     */
+    @Query("SELECT id, modifiedAt FROM note_table WHERE id IN (:ids)")
+    List<NoteTimestamp> getTimestamps(List<String> ids);
 }
 
@@ -1,14 +1,27 @@
 package com.laylarodas.quicknotes.database;
 
 import android.content.Context;
+import android.database.Cursor;
 
 import androidx.annotation.NonNull;
 import androidx.room.Database;
 import androidx.room.Room;
 import androidx.room.RoomDatabase;
+import androidx.room.TypeConverters;
+import androidx.room.migration.Migration;
 import androidx.sqlite.db.SupportSQLiteDatabase;
 
 import com.laylarodas.quicknotes.model.Note;
+import com.laylarodas.quicknotes.model.NoteCategory;
+import com.laylarodas.quicknotes.model.NoteContent;
+import com.laylarodas.quicknotes.model.NoteFts;
+import com.laylarodas.quicknotes.model.NoteSummary;
+import com.laylarodas.quicknotes.model.NoteTrigram;
+import com.laylarodas.quicknotes.model.NoteWord;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
 
 /**
  * Clase de base de datos de Room para QuickNotes.
@@ -22,13 +35,31 @@ import com.laylarodas.quicknotes.model.Note;
  * 
  * Version 2: Agregado campo "category" a Note
  * Version 3: Agregado campo "isPinned" a Note
+ * Version 4: Agregada tabla FTS4 "note_fts" para búsqueda de texto completo
+ * Version 5: Agregados índices para los ordenamientos de la lista
+ * Version 6: Categoría guardada como entero + índice para filtrar por categoría
+ * Version 7: Contenido en tabla aparte (note_content, comprimido) + preview en note_table
+ * Version 8: Vocabulario y trigramas para la búsqueda aproximada (note_word, note_trigram)
+ *
+ * Desde la versión 3 cada cambio de esquema tiene su Migration:
+ * actualizar la app NUNCA borra las notas del usuario.
  */
-@Database(entities = {Note.class}, version = 3, exportSchema = false)
+@Database(entities = {Note.class, NoteContent.class, NoteFts.class, NoteWord.class, NoteTrigram.class},
+        version = 8, exportSchema = false)
+@TypeConverters(NoteTypeConverters.class)
 public abstract class NoteDatabase extends RoomDatabase {
     
     // Instancia única (Singleton)
     private static NoteDatabase instance;
     
+    private static final String DATABASE_NAME = "note_database";
+    
+    // Las bases creadas directamente con Room.databaseBuilder (tests) no tienen perfil propio
+    private DatabaseProfile profile = DatabaseProfile.ROOM_DEFAULT;
+    
+    // Hilos del pool de consultas cuando se miden (ver installQueryMetrics)
+    private static final int QUERY_THREADS = 4;
+    
     /**
      * Room implementará automáticamente este método.
      * Retorna una instancia de NoteDao.
@@ -43,20 +74,226 @@ public abstract class NoteDatabase extends RoomDatabase {
      */
     public static synchronized NoteDatabase getInstance(Context context) {
         if (instance == null) {
-            instance = Room.databaseBuilder(
-                    context.getApplicationContext(),
-                    NoteDatabase.class,
-                    "note_database"  // Nombre del archivo de BD
-            )
-            // Callback para ejecutar código cuando se crea la BD
-            .addCallback(roomCallback)
-            // En producción usarías migraciones, pero en desarrollo:
-            .fallbackToDestructiveMigration()  // Borra y recrea si hay conflicto
-            .build();
+            instance = create(context, DATABASE_NAME, DatabaseProfile.forDevice(context), QueryMetrics.isEnabled());
         }
         return instance;
     }
     
+    /**
+     * Crea una base de datos con el perfil de rendimiento indicado.
+     * getInstance() la usa para la BD de la app; los benchmarks, para comparar perfiles.
+     */
+    static NoteDatabase create(Context context, String name, DatabaseProfile profile, boolean measureQueries) {
+        RoomDatabase.Builder<NoteDatabase> builder = Room.databaseBuilder(
+                context.getApplicationContext(),
+                NoteDatabase.class,
+                name  // Nombre del archivo de BD
+        )
+        // Callback para ejecutar código cuando se crea la BD
+        .addCallback(roomCallback)
+        // PRAGMA del perfil en cada apertura
+        .addCallback(new RoomDatabase.Callback() {
+            @Override
+            public void onOpen(@NonNull SupportSQLiteDatabase db) {
+                profile.onOpen(db);
+            }
+        })
+        // Migraciones explícitas: conservan los datos al actualizar el esquema
+        .addMigrations(MIGRATION_3_4, MIGRATION_4_5, MIGRATION_5_6, MIGRATION_6_7, MIGRATION_7_8)
+        // Las versiones de desarrollo 1 y 2 no tienen migración: se recrean
+        .fallbackToDestructiveMigrationFrom(1, 2);
+        profile.applyTo(builder);
+        if (measureQueries) {
+            installQueryMetrics(builder);
+        }
+        NoteDatabase database = builder.build();
+        database.profile = profile;
+        return database;
+    }
+    
+    /**
+     * Perfil con el que se abrió la base de datos.
+     */
+    public DatabaseProfile getProfile() {
+        return profile;
+    }
+    
+    /**
+     * Checkpoint PASSIVE del WAL (ver DatabaseProfile). Llamar fuera de una transacción.
+     */
+    void checkpoint() {
+        DatabaseProfile.checkpoint(getOpenHelper().getWritableDatabase());
+    }
+    
+    /**
+     * Mide el tiempo de cada consulta (solo si QueryMetrics está activado).
+     * Las consultas de LiveData y Paging corren en un pool propio envuelto por QueryMetrics,
+     * que cierra la medición de la última sentencia al terminar cada tarea.
+     */
+    private static void installQueryMetrics(RoomDatabase.Builder<NoteDatabase> builder) {
+        QueryMetrics metrics = QueryMetrics.getInstance();
+        builder.setQueryCallback(metrics.queryCallback(), QueryMetrics.callbackExecutor())
+                .setQueryExecutor(QueryMetrics.wrap(Executors.newFixedThreadPool(QUERY_THREADS, runnable -> {
+                    Thread thread = new Thread(runnable, "quicknotes-query");
+                    thread.setDaemon(true);
+                    return thread;
+                })));
+    }
+    
+    /**
+     * Migración 3 -> 4: crea el índice FTS4 y lo llena con las notas existentes.
+     * Los triggers de sincronización los recrea Room automáticamente al terminar la migración.
+     */
+    static final Migration MIGRATION_3_4 = new Migration(3, 4) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS `note_fts` USING FTS4(" +
+                    "`title` TEXT, `content` TEXT, tokenize=unicode61, content=`note_table`)");
+            // 'rebuild' indexa todas las filas que ya existen en note_table
+            db.execSQL("INSERT INTO note_fts(note_fts) VALUES('rebuild')");
+        }
+    };
+    
+    /**
+     * Migración 4 -> 5: crea los índices de ordenamiento.
+     * En instalaciones nuevas la columna title ya es COLLATE NOCASE;
+     * en las migradas lo indicamos en el índice para que sirva a "ORDER BY title COLLATE NOCASE".
+     */
+    static final Migration MIGRATION_4_5 = new Migration(4, 5) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_note_pinned_modified` " +
+                    "ON `note_table` (`isPinned`, `modifiedAt`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_note_pinned_created` " +
+                    "ON `note_table` (`isPinned`, `createdAt`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_note_pinned_title_asc` " +
+                    "ON `note_table` (`isPinned` DESC, `title` COLLATE NOCASE ASC)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_note_pinned_title_desc` " +
+                    "ON `note_table` (`isPinned`, `title` COLLATE NOCASE)");
+        }
+    };
+    
+    /**
+     * Migración 5 -> 6: la columna category pasa de TEXT ("WORK") a INTEGER (código de NoteCategory).
+     * SQLite no permite cambiar el tipo de una columna, así que se reconstruye la tabla:
+     * crear la nueva, copiar convirtiendo los nombres a códigos, borrar la vieja y renombrar.
+     * Se copia también el rowid para que el índice FTS (note_fts) siga apuntando a las mismas filas.
+     * Los nombres que no existen (o null) quedan como NONE (0).
+     */
+    static final Migration MIGRATION_5_6 = new Migration(5, 6) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `note_table_new` (" +
+                    "`id` TEXT NOT NULL, `title` TEXT COLLATE NOCASE, `content` TEXT, " +
+                    "`createdAt` INTEGER NOT NULL, `modifiedAt` INTEGER NOT NULL, " +
+                    "`category` INTEGER NOT NULL DEFAULT 0, `isPinned` INTEGER NOT NULL DEFAULT 0, " +
+                    "PRIMARY KEY(`id`))");
+            
+            StringBuilder categoryCode = new StringBuilder("CASE category");
+            for (NoteCategory category : NoteCategory.values()) {
+                categoryCode.append(" WHEN '").append(category.name()).append("' THEN ").append(category.getCode());
+            }
+            categoryCode.append(" ELSE ").append(NoteCategory.NONE.getCode()).append(" END");
+            
+            db.execSQL("INSERT INTO `note_table_new` " +
+                    "(rowid, id, title, content, createdAt, modifiedAt, category, isPinned) " +
+                    "SELECT rowid, id, title, content, createdAt, modifiedAt, " + categoryCode + ", isPinned " +
+                    "FROM `note_table`");
+            db.execSQL("DROP TABLE `note_table`");
+            db.execSQL("ALTER TABLE `note_table_new` RENAME TO `note_table`");
+            
+            // DROP TABLE borró también los índices: se recrean igual que en MIGRATION_4_5 + el nuevo
+            MIGRATION_4_5.migrate(db);
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_note_category_pinned_modified` " +
+                    "ON `note_table` (`category`, `isPinned`, `modifiedAt`)");
+        }
+    };
+    
+    /**
+     * Migración 6 -> 7: el contenido sale de note_table.
+     * - note_content: contenido de cada nota, comprimido con NoteBodyCodec si es largo
+     *   (la compresión se hace en Java, fila por fila)
+     * - note_fts pasa a mantenerse desde NoteDao (ver NoteFts): se recrea como tabla FTS4 normal
+     *   y se llena con el texto sin comprimir mientras todavía está en note_table
+     * - note_table se reconstruye con preview en lugar de content, conservando el rowid (docid del FTS)
+     */
+    static final Migration MIGRATION_6_7 = new Migration(6, 7) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            // 1. Contenido
+            db.execSQL("CREATE TABLE IF NOT EXISTS `note_content` (" +
+                    "`noteId` TEXT NOT NULL, `encoding` INTEGER NOT NULL, `length` INTEGER NOT NULL, `body` BLOB, " +
+                    "PRIMARY KEY(`noteId`), FOREIGN KEY(`noteId`) REFERENCES `note_table`(`id`) " +
+                    "ON UPDATE NO ACTION ON DELETE CASCADE )");
+            try (Cursor cursor = db.query("SELECT id, content FROM note_table")) {
+                while (cursor.moveToNext()) {
+                    NoteContent content = NoteBodyCodec.encode(cursor.getString(0), cursor.getString(1));
+                    db.execSQL("INSERT INTO note_content (noteId, encoding, length, body) VALUES (?, ?, ?, ?)",
+                            new Object[]{content.getNoteId(), content.getEncoding(), content.getLength(), content.getBody()});
+                }
+            }
+            
+            // 2. Índice FTS con su propia copia del texto (igual que lo crea Room, ver NoteFts)
+            db.execSQL("DROP TABLE IF EXISTS `note_fts`");
+            db.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS `note_fts` USING FTS4(" +
+                    "`title` TEXT, `content` TEXT, tokenize=unicode61)");
+            db.execSQL("INSERT INTO note_fts(docid, title, content) SELECT rowid, title, content FROM note_table");
+            
+            // 3. note_table sin el contenido
+            db.execSQL("CREATE TABLE IF NOT EXISTS `note_table_new` (" +
+                    "`id` TEXT NOT NULL, `title` TEXT COLLATE NOCASE, `preview` TEXT, " +
+                    "`createdAt` INTEGER NOT NULL, `modifiedAt` INTEGER NOT NULL, " +
+                    "`category` INTEGER NOT NULL DEFAULT 0, `isPinned` INTEGER NOT NULL DEFAULT 0, " +
+                    "PRIMARY KEY(`id`))");
+            db.execSQL("INSERT INTO `note_table_new` " +
+                    "(rowid, id, title, preview, createdAt, modifiedAt, category, isPinned) " +
+                    "SELECT rowid, id, title, substr(content, 1, " + NoteSummary.PREVIEW_LENGTH + "), " +
+                    "createdAt, modifiedAt, category, isPinned FROM `note_table`");
+            // foreign_keys sigue desactivado durante la migración: borrar la tabla no borra note_content
+            db.execSQL("DROP TABLE `note_table`");
+            db.execSQL("ALTER TABLE `note_table_new` RENAME TO `note_table`");
+            
+            MIGRATION_4_5.migrate(db);
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_note_category_pinned_modified` " +
+                    "ON `note_table` (`category`, `isPinned`, `modifiedAt`)");
+        }
+    };
+    
+    /**
+     * Migración 7 -> 8: crea el vocabulario de la búsqueda aproximada y lo llena
+     * con las palabras de las notas existentes (ver NoteWordIndex).
+     * Las palabras se cuentan en memoria y cada una se inserta una sola vez.
+     */
+    static final Migration MIGRATION_7_8 = new Migration(7, 8) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `note_word` (`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, " +
+                    "`word` TEXT NOT NULL, `noteCount` INTEGER NOT NULL)");
+            db.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS `index_note_word_word` ON `note_word` (`word`)");
+            db.execSQL("CREATE TABLE IF NOT EXISTS `note_trigram` (`trigram` TEXT NOT NULL, " +
+                    "`wordId` INTEGER NOT NULL, PRIMARY KEY(`trigram`, `wordId`))");
+            
+            Map<String, Integer> words = new HashMap<>();
+            try (Cursor cursor = db.query("SELECT note_table.title, note_content.encoding, note_content.length, " +
+                    "note_content.body FROM note_table LEFT JOIN note_content ON note_content.noteId = note_table.id")) {
+                while (cursor.moveToNext()) {
+                    String content = NoteBodyCodec.decode(cursor.getInt(1), cursor.getInt(2), cursor.getBlob(3));
+                    NoteWordIndex.countWords(words, cursor.getString(0), content, 1);
+                }
+            }
+            long wordId = 0;
+            for (Map.Entry<String, Integer> entry : words.entrySet()) {
+                wordId++;
+                db.execSQL("INSERT INTO note_word (id, word, noteCount) VALUES (?, ?, ?)",
+                        new Object[]{wordId, entry.getKey(), entry.getValue()});
+                for (String trigram : NoteWordIndex.trigrams(entry.getKey())) {
+                    db.execSQL("INSERT INTO note_trigram (trigram, wordId) VALUES (?, ?)",
+                            new Object[]{trigram, wordId});
+                }
+            }
+        }
+    };
+    
     /**
      * Callback que se ejecuta cuando Room crea la base de datos por primera vez.
      * Aquí puedes insertar datos iniciales si lo deseas.
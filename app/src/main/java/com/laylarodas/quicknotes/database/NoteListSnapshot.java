@@ -0,0 +1,236 @@
+package com.laylarodas.quicknotes.database;
+
+import android.content.Context;
+import android.os.Trace;
+import android.util.Log;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.laylarodas.quicknotes.model.NoteCategory;
+import com.laylarodas.quicknotes.model.NoteSummary;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Copia en disco de la primera pantalla de la lista (orden por defecto, sin filtro ni búsqueda).
+ *
+ * En un arranque en frío la lista se dibuja con esta copia mientras la base de datos
+ * se abre en background (ver QuickNotesApp). Cuando llega la consulta real, NoteAdapter
+ * (AsyncListDiffer) solo actualiza las filas que hayan cambiado desde que se guardó.
+ *
+ * El archivo es pequeño (FIRST_SCREEN_SIZE notas con su preview, unos pocos KB).
+ * Se lee y se escribe en un hilo propio; solo se reescribe si la primera pantalla cambió.
+ */
+public final class NoteListSnapshot {
+
+    private static final String TAG = "NoteListSnapshot";
+
+    // Notas guardadas: más de las que caben en una pantalla de teléfono
+    public static final int FIRST_SCREEN_SIZE = 30;
+
+    private static final String FILE_NAME = "first_screen.snapshot";
+    private static final int FORMAT_VERSION = 1;
+
+    private static NoteListSnapshot instance;
+
+    private final File file;
+    private final ExecutorService ioExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "quicknotes-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final MutableLiveData<List<NoteSummary>> snapshot = new MutableLiveData<>();
+    private boolean loadStarted;
+    private volatile boolean released;
+
+    // Último contenido leído o escrito (solo se usa desde ioExecutor)
+    private byte[] lastWritten;
+
+    public static synchronized NoteListSnapshot getInstance(Context context) {
+        if (instance == null) {
+            instance = new NoteListSnapshot(new File(context.getApplicationContext().getFilesDir(), FILE_NAME));
+        }
+        return instance;
+    }
+
+    NoteListSnapshot(File file) {
+        this.file = file;
+    }
+
+    // ==================== LECTURA ====================
+
+    /**
+     * Lee el archivo en background y publica la lista en getSnapshot().
+     * Si no hay copia (primera vez) o está dañada, no se publica nada.
+     */
+    public synchronized void load() {
+        if (loadStarted) {
+            return;
+        }
+        loadStarted = true;
+        ioExecutor.execute(() -> {
+            Trace.beginSection("QuickNotes.readSnapshot");
+            try {
+                List<NoteSummary> notes = read();
+                if (notes != null && !released) {
+                    snapshot.postValue(notes);
+                }
+            } finally {
+                Trace.endSection();
+            }
+        });
+    }
+
+    /**
+     * Primera pantalla guardada en la sesión anterior (null hasta que se lee, o si no hay).
+     */
+    public LiveData<List<NoteSummary>> getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * La lista real ya llegó: la copia no se vuelve a mostrar en este proceso
+     * (quedaría desactualizada si se crea otra Activity más tarde).
+     * Llamar desde el hilo principal.
+     */
+    public void release() {
+        released = true;
+        snapshot.setValue(null);
+    }
+
+    private List<NoteSummary> read() {
+        if (!file.isFile()) {
+            return null;
+        }
+        try {
+            byte[] data = new byte[(int) file.length()];
+            try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+                in.readFully(data);
+            }
+            List<NoteSummary> notes = decode(data);
+            lastWritten = data;
+            return notes;
+        } catch (IOException | RuntimeException e) {
+            // Copia de otra versión o a medio escribir: se ignora y se reescribe con la lista real
+            Log.w(TAG, "Copia de la primera pantalla no válida", e);
+            file.delete();
+            return null;
+        }
+    }
+
+    // ==================== ESCRITURA ====================
+
+    /**
+     * Guarda la primera pantalla de la lista (copia los primeros FIRST_SCREEN_SIZE elementos
+     * en el hilo que llama y escribe el archivo en background).
+     */
+    public void save(List<NoteSummary> notes) {
+        List<NoteSummary> firstScreen = new ArrayList<>(notes.subList(0, Math.min(notes.size(), FIRST_SCREEN_SIZE)));
+        ioExecutor.execute(() -> write(firstScreen));
+    }
+
+    private void write(List<NoteSummary> notes) {
+        byte[] data = encode(notes);
+        if (Arrays.equals(data, lastWritten)) {
+            return; // La primera pantalla no cambió (ej: se editó una nota que no está arriba)
+        }
+        Trace.beginSection("QuickNotes.writeSnapshot");
+        try {
+            // Se escribe en un archivo temporal y se renombra: nunca queda una copia a medias
+            File temp = new File(file.getPath() + ".tmp");
+            try (FileOutputStream out = new FileOutputStream(temp)) {
+                out.write(data);
+            }
+            if (!temp.renameTo(file)) {
+                throw new IOException("No se pudo renombrar " + temp);
+            }
+            lastWritten = data;
+        } catch (IOException e) {
+            Log.w(TAG, "No se pudo guardar la primera pantalla", e);
+        } finally {
+            Trace.endSection();
+        }
+    }
+
+    // ==================== FORMATO ====================
+    // versión, número de notas y, por nota: id, título, preview, fechas, código de categoría y pin
+
+    static byte[] encode(List<NoteSummary> notes) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256 + notes.size() * 256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(notes.size());
+            for (NoteSummary note : notes) {
+                writeString(out, note.getId());
+                writeString(out, note.getTitle());
+                writeString(out, note.getPreview());
+                out.writeLong(note.getCreatedAt());
+                out.writeLong(note.getModifiedAt());
+                out.writeInt(note.getCategory().getCode());
+                out.writeBoolean(note.isPinned());
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // ByteArrayOutputStream no lanza IOException
+        }
+        return bytes.toByteArray();
+    }
+
+    static List<NoteSummary> decode(byte[] data) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        if (in.readInt() != FORMAT_VERSION) {
+            throw new IOException("Versión de copia desconocida");
+        }
+        int count = in.readInt();
+        if (count < 0 || count > FIRST_SCREEN_SIZE) {
+            throw new IOException("Número de notas no válido: " + count);
+        }
+        List<NoteSummary> notes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String id = readString(in);
+            if (id == null) {
+                throw new IOException("Nota sin ID");
+            }
+            notes.add(new NoteSummary(id, readString(in), readString(in), in.readLong(), in.readLong(),
+                    NoteCategory.fromCode(in.readInt()), in.readBoolean()));
+        }
+        return notes;
+    }
+
+    // writeUTF no admite null ni textos de más de 64 KB: longitud en bytes (-1 = null) + UTF-8
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > in.available()) {
+            throw new IOException("Texto más largo que la copia");
+        }
+        byte[] utf8 = new byte[length];
+        in.readFully(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+}
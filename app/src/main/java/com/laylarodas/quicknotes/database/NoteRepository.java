@@ -1,13 +1,37 @@
 package com.laylarodas.quicknotes.database;
 
 import android.app.Application;
-import android.os.AsyncTask;
+import android.content.ContentResolver;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
 
 import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Transformations;
+import androidx.paging.PagingSource;
 
+import com.laylarodas.quicknotes.backup.BackupProgress;
+import com.laylarodas.quicknotes.backup.NoteExportService;
+import com.laylarodas.quicknotes.backup.NoteImportService;
+import com.laylarodas.quicknotes.model.CategoryCount;
 import com.laylarodas.quicknotes.model.Note;
+import com.laylarodas.quicknotes.model.NoteCategory;
+import com.laylarodas.quicknotes.model.NoteChange;
+import com.laylarodas.quicknotes.model.NoteChangeSet;
+import com.laylarodas.quicknotes.model.NoteSearchMatch;
+import com.laylarodas.quicknotes.model.NoteStats;
+import com.laylarodas.quicknotes.model.NoteSummary;
+import com.laylarodas.quicknotes.utils.SearchUtils;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
 /**
  * Repository - Patrón de repositorio para abstraer el acceso a datos.
@@ -19,194 +43,481 @@ import java.util.List;
  * - Punto único de acceso a datos
  * - Fácil de testear (puedes hacer mock del Repository)
  * - Puedes cambiar la fuente de datos sin afectar el ViewModel
- * - Maneja operaciones en background automáticamente
+ * - Maneja operaciones en background automáticamente (NoteWriteExecutor)
+ *
+ * La lista completa y los conteos se cargan de SQLite UNA vez; después se corrigen con
+ * las notas que cambió cada transacción (NoteChangeSet), sin repetir la consulta entera.
  */
 public class NoteRepository {
     
+    private NoteDatabase database;
     private NoteDao noteDao;
-    private LiveData<List<Note>> allNotes;
-    private String currentSortMode = "modified"; // Por defecto: más reciente primero
+    private Executor queryExecutor;
+    private NoteWriteExecutor writeExecutor;
+    private NoteExportService exportService;
+    private NoteImportService importService;
+    // La primera vez que alguien observa la lista se carga de SQLite (en LIST_EXECUTOR)
+    private final MutableLiveData<List<NoteSummary>> allNotes = new MutableLiveData<List<NoteSummary>>() {
+        @Override
+        protected void onActive() {
+            LIST_EXECUTOR.execute(() -> loadAllNotes(false));
+        }
+    };
+    private final NoteSortIndex sortIndex = new NoteSortIndex(); // Solo se usa desde LIST_EXECUTOR
+    private long listSequence; // Última transacción incluida en sortIndex (LIST_EXECUTOR)
+    // volatile: se cambian en el hilo principal y se leen en LIST_EXECUTOR
+    private volatile String currentSortMode = NoteSortIndex.SORT_MODIFIED; // Por defecto: más reciente primero
+    private volatile NoteCategory categoryFilter; // null = todas las categorías
+    private final MutableLiveData<List<CategoryCount>> categoryCounts = new MutableLiveData<List<CategoryCount>>() {
+        @Override
+        protected void onActive() {
+            LIST_EXECUTOR.execute(() -> loadCounts(false));
+        }
+    };
+    // Notas por [categoría][pin], solo se usan desde LIST_EXECUTOR
+    private final int[][] counts = new int[NoteCategory.values().length][2];
+    private boolean countsLoaded;
+    private long countsSequence;
+    private LiveData<NoteStats> noteStats;
+    private NoteListSnapshot startupSnapshot;
+    private NoteCache noteCache;
+    
+    // Cambios por fila: el hilo escritor avisa aquí y se reenvía a los listeners en el hilo principal
+    private final NoteWriteExecutor.ChangeListener writerListener = this::onNotesCommitted;
+    private final List<NoteWriteExecutor.ChangeListener> changeListeners = new ArrayList<>(); // Hilo principal
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    
+    // Ordena y filtra la lista en memoria, en orden de llegada (un solo hilo para todos los repositorios).
+    // Envuelto por QueryMetrics para medir las cargas de la lista y los conteos (si está activado)
+    private static final Executor LIST_EXECUTOR = QueryMetrics.wrap(Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "quicknotes-list");
+        thread.setDaemon(true);
+        return thread;
+    }));
     
     /**
      * Constructor: Inicializa el DAO y obtiene las notas
      */
     public NoteRepository(Application application) {
-        NoteDatabase database = NoteDatabase.getInstance(application);
+        database = NoteDatabase.getInstance(application);
         noteDao = database.noteDao();
-        // Por defecto cargamos notas ordenadas por modificación
-        allNotes = noteDao.getAllNotesByModified();
+        queryExecutor = database.getQueryExecutor();
+        writeExecutor = NoteWriteExecutor.getInstance(database);
+        exportService = new NoteExportService(noteDao);
+        importService = new NoteImportService(writeExecutor);
+        // Los ordenamientos y el filtro se aplican en memoria (NoteSortIndex)
+        noteStats = Transformations.map(categoryCounts, NoteStats::from);
+        startupSnapshot = NoteListSnapshot.getInstance(application);
+        writeExecutor.addChangeListener(writerListener);
+        noteCache = NoteCache.getInstance();
+        // Uno solo para toda la app: si otro repositorio ya lo registró, no se duplica
+        writeExecutor.addChangeListener(noteCache.getChangeListener());
+    }
+    
+    /**
+     * Deja de recibir los cambios del hilo escritor (el ejecutor vive más que el repositorio).
+     * Llamar cuando el ViewModel se destruye.
+     */
+    public void close() {
+        writeExecutor.removeChangeListener(writerListener);
     }
     
     // ==================== OPERACIONES CRUD ====================
-    // Todas las operaciones de escritura se ejecutan en background (AsyncTask)
+    // Todas las operaciones de escritura se encolan en el hilo escritor (NoteWriteExecutor),
+    // que agrupa las escrituras cercanas en una sola transacción.
+    // Cada método devuelve un CompletableFuture que se completa al hacer commit.
     
     /**
      * Inserta una nota nueva en la base de datos.
      * Se ejecuta en un hilo de background automáticamente.
      */
-    public void insert(Note note) {
-        new InsertNoteAsyncTask(noteDao).execute(note);
+    public CompletableFuture<Void> insert(Note note) {
+        return writeExecutor.submit(dao -> dao.insert(note));
     }
     
     /**
      * Actualiza una nota existente.
      */
-    public void update(Note note) {
-        new UpdateNoteAsyncTask(noteDao).execute(note);
+    public CompletableFuture<Void> update(Note note) {
+        return writeExecutor.submit(dao -> dao.update(note));
     }
     
     /**
      * Elimina una nota.
      */
-    public void delete(Note note) {
-        new DeleteNoteAsyncTask(noteDao).execute(note);
+    public CompletableFuture<Void> delete(Note note) {
+        return writeExecutor.submit(dao -> dao.delete(note));
     }
     
     /**
      * Elimina todas las notas (útil para testing).
      */
-    public void deleteAllNotes() {
-        new DeleteAllNotesAsyncTask(noteDao).execute();
+    public CompletableFuture<Void> deleteAllNotes() {
+        return writeExecutor.submit(NoteDao::deleteAllNotes);
+    }
+    
+    // ==================== OPERACIONES EN LOTE ====================
+    // Selección múltiple: cada operación es una sola transacción con sentencias WHERE id IN,
+    // así la lista recibe un solo NoteChangeSet y no uno por nota.
+    
+    /**
+     * Elimina las notas con los IDs indicados.
+     */
+    public CompletableFuture<Void> deleteByIds(List<String> ids) {
+        return writeExecutor.submit(dao -> dao.deleteByIds(ids));
+    }
+    
+    /**
+     * Fija o desfija las notas con los IDs indicados.
+     */
+    public CompletableFuture<Void> setPinned(List<String> ids, boolean pinned) {
+        return writeExecutor.submit(dao -> dao.setPinned(ids, pinned));
+    }
+    
+    /**
+     * Cambia la categoría de las notas con los IDs indicados.
+     */
+    public CompletableFuture<Void> setCategory(List<String> ids, NoteCategory category) {
+        return writeExecutor.submit(dao -> dao.setCategory(ids, category));
     }
     
     // ==================== CONSULTAS CON LIVEDATA ====================
     
     /**
-     * Obtiene todas las notas con el ordenamiento actual.
+     * Carga la nota completa (con todo el contenido) por su ID.
+     * La lista solo tiene NoteSummary; esto se usa al abrir, compartir o borrar una nota.
+     * Si está en NoteCache el future ya viene completo (sin leer SQLite);
+     * si no, se lee en background y se guarda en el cache.
+     * @return Future con la nota (una copia que se puede modificar), o con null si ya no existe
+     */
+    public CompletableFuture<Note> getNoteById(String id) {
+        Note cached = noteCache.get(id);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        long generation = noteCache.getGeneration();
+        return CompletableFuture.supplyAsync(() -> {
+            Note note = noteDao.getNoteById(id);
+            if (note != null) {
+                noteCache.putIfUnchanged(note, generation);
+            }
+            return note;
+        }, queryExecutor);
+    }
+    
+    /**
+     * Carga las notas completas con esos IDs, en background (para deshacer un borrado en lote).
+     */
+    public CompletableFuture<List<Note>> getNotesByIds(List<String> ids) {
+        return CompletableFuture.supplyAsync(() -> noteDao.getNotesByIds(ids), queryExecutor);
+    }
+    
+    /**
+     * Obtiene todas las notas con el ordenamiento y el filtro actuales.
+     * Siempre es el mismo LiveData: cambiar de orden o de categoría emite una lista nueva en él.
      * LiveData: La UI se actualiza automáticamente cuando cambian los datos.
      */
-    public LiveData<List<Note>> getAllNotes() {
+    public LiveData<List<NoteSummary>> getAllNotes() {
         return allNotes;
     }
     
     /**
      * Cambia el ordenamiento de las notas.
+     * No consulta la base de datos: reordena en memoria la lista ya cargada (O(n)).
      * @param sortMode: "modified", "created", "title_asc", "title_desc"
      */
     public void setSortMode(String sortMode) {
         this.currentSortMode = sortMode;
-        switch (sortMode) {
-            case "modified":
-                allNotes = noteDao.getAllNotesByModified();
-                break;
-            case "created":
-                allNotes = noteDao.getAllNotesByCreated();
-                break;
-            case "title_asc":
-                allNotes = noteDao.getAllNotesByTitleAsc();
-                break;
-            case "title_desc":
-                allNotes = noteDao.getAllNotesByTitleDesc();
-                break;
-            default:
-                allNotes = noteDao.getAllNotesByModified();
+        LIST_EXECUTOR.execute(this::publishAllNotes);
+    }
+    
+    /**
+     * Muestra solo las notas de una categoría (null = todas).
+     * Para la lista completa se filtra en memoria; la lista paginada usa el índice por categoría.
+     */
+    public void setCategoryFilter(NoteCategory category) {
+        this.categoryFilter = category;
+        LIST_EXECUTOR.execute(this::publishAllNotes);
+    }
+    
+    public NoteCategory getCategoryFilter() {
+        return categoryFilter;
+    }
+    
+    /**
+     * Carga todas las notas en sortIndex (en LIST_EXECUTOR). Sin reload, solo la primera vez.
+     * La lectura va dentro de una transacción: el escritor no puede hacer commit en medio,
+     * así la secuencia anotada dice exactamente qué cambios ya están incluidos.
+     */
+    private void loadAllNotes(boolean reload) {
+        if (sortIndex.isLoaded() && !reload) {
+            return;
         }
+        List<NoteSummary> notes = database.runInTransaction(() -> {
+            listSequence = writeExecutor.getCommittedSequence();
+            return noteDao.getAllSummariesSync();
+        });
+        sortIndex.update(notes);
+        publishAllNotes();
     }
     
     /**
-     * Busca notas por texto.
-     * @param query: Texto a buscar (sin %, el Repository lo agrega)
+     * Publica la lista con el orden y filtro actuales (en LIST_EXECUTOR).
+     * Si es la vista del arranque (por fecha de modificación, sin filtro), guarda también la primera pantalla.
      */
-    public LiveData<List<Note>> searchNotes(String query) {
-        // Agregamos los wildcards % para búsqueda parcial
-        String searchQuery = "%" + query + "%";
-        return noteDao.searchNotes(searchQuery);
+    private void publishAllNotes() {
+        if (!sortIndex.isLoaded()) {
+            return; // Todavía no se cargó la lista
+        }
+        String sortMode = currentSortMode;
+        NoteCategory category = categoryFilter;
+        List<NoteSummary> notes = sortIndex.view(sortMode, category);
+        allNotes.postValue(notes);
+        if (NoteSortIndex.SORT_MODIFIED.equals(sortMode) && category == null) {
+            startupSnapshot.save(notes);
+        }
     }
     
+    // ==================== CAMBIOS POR FILA ====================
+    // Las escrituras no vuelven a consultar la lista ni los conteos: NoteWriteExecutor entrega
+    // las notas que cambió cada transacción y aquí se corrige solo lo que cambió.
+    // La lista paginada sigue usando la invalidación de Room (PagingSource nuevo por cambio).
+    
     /**
-     * Inserta múltiples notas (para migración desde SharedPreferences).
+     * Recibe en el hilo principal los cambios de cada transacción
+     * (la búsqueda activa los usa para corregir sus resultados sin repetir la consulta).
      */
-    public void insertAll(List<Note> notes) {
-        new InsertAllNotesAsyncTask(noteDao).execute(notes);
+    public void addChangeListener(NoteWriteExecutor.ChangeListener listener) {
+        changeListeners.add(listener);
+    }
+    
+    public void removeChangeListener(NoteWriteExecutor.ChangeListener listener) {
+        changeListeners.remove(listener);
     }
     
-    // ==================== ASYNCTASKS PARA OPERACIONES EN BACKGROUND ====================
-    // Room no permite operaciones de escritura en el hilo principal
-    // AsyncTask mueve estas operaciones a un hilo de background
+    /**
+     * Hilo escritor, justo después del commit.
+     */
+    private void onNotesCommitted(NoteChangeSet changes) {
+        LIST_EXECUTOR.execute(() -> applyChanges(changes));
+        mainHandler.post(() -> {
+            for (NoteWriteExecutor.ChangeListener listener : new ArrayList<>(changeListeners)) {
+                listener.onNotesChanged(changes);
+            }
+        });
+    }
     
     /**
-     * AsyncTask para insertar una nota en background.
+     * Corrige la lista y los conteos con los cambios de una transacción (en LIST_EXECUTOR).
+     * Los cambios que ya vio la carga inicial (secuencia menor o igual) se ignoran.
      */
-    private static class InsertNoteAsyncTask extends AsyncTask<Note, Void, Void> {
-        private NoteDao noteDao;
-        
-        private InsertNoteAsyncTask(NoteDao noteDao) {
-            this.noteDao = noteDao;
+    private void applyChanges(NoteChangeSet changes) {
+        if (sortIndex.isLoaded() && changes.getSequence() > listSequence) {
+            if (changes.isCleared()) {
+                loadAllNotes(true); // Se borró todo: recargar es más simple que quitar nota por nota
+            } else {
+                sortIndex.apply(changes.getChanges());
+                publishAllNotes();
+            }
         }
-        
-        @Override
-        protected Void doInBackground(Note... notes) {
-            noteDao.insert(notes[0]);
-            return null;
+        if (countsLoaded && changes.getSequence() > countsSequence) {
+            if (changes.isCleared()) {
+                loadCounts(true);
+            } else {
+                for (NoteChange change : changes.getChanges()) {
+                    if (change.getBefore() != null) {
+                        counts[change.getBefore().getCategory().ordinal()][change.getBefore().isPinned() ? 1 : 0]--;
+                    }
+                    if (change.getAfter() != null) {
+                        counts[change.getAfter().getCategory().ordinal()][change.getAfter().isPinned() ? 1 : 0]++;
+                    }
+                }
+                publishCounts();
+            }
         }
     }
     
+    // ==================== ARRANQUE ====================
+    // Copia de la primera pantalla para dibujar la lista antes de que responda la BD (ver NoteListSnapshot)
+    
     /**
-     * AsyncTask para actualizar una nota en background.
+     * Primera pantalla guardada en la sesión anterior (null si no hay o si ya llegó la lista real).
      */
-    private static class UpdateNoteAsyncTask extends AsyncTask<Note, Void, Void> {
-        private NoteDao noteDao;
-        
-        private UpdateNoteAsyncTask(NoteDao noteDao) {
-            this.noteDao = noteDao;
-        }
-        
-        @Override
-        protected Void doInBackground(Note... notes) {
-            noteDao.update(notes[0]);
-            return null;
+    public LiveData<List<NoteSummary>> getStartupSnapshot() {
+        return startupSnapshot.getSnapshot();
+    }
+    
+    /**
+     * Llegó la lista real: la copia ya no se muestra en este proceso.
+     */
+    public void releaseStartupSnapshot() {
+        startupSnapshot.release();
+    }
+    
+    /**
+     * Busca notas por texto usando el índice FTS4.
+     * Cada palabra se busca por prefijo: "cas ver" encuentra "casa verde".
+     * Si el texto no tiene palabras buscables (solo símbolos), se usa LIKE.
+     * @param query: Texto a buscar tal como lo escribe el usuario
+     * ADVERTENCIA: No usar en el hilo principal.
+     */
+    public List<NoteSummary> searchNotesSync(String query) {
+        String matchQuery = SearchUtils.buildMatchQuery(query);
+        return matchQuery.isEmpty()
+                ? noteDao.searchNotesSync("%" + query + "%")
+                : noteDao.searchNotesFtsSync(matchQuery);
+    }
+    
+    /**
+     * Búsqueda FTS síncrona que también trae el contenido indexado de cada nota,
+     * como mucho limit resultados (el límite va en el SQL, antes de leer el texto).
+     * Vacía si la búsqueda no tiene palabras (usar searchNotesSync).
+     * ADVERTENCIA: No usar en el hilo principal.
+     */
+    public List<NoteSearchMatch> searchNotesWithContentSync(String query, int limit) {
+        String matchQuery = SearchUtils.buildMatchQuery(query);
+        if (matchQuery.isEmpty()) {
+            return Collections.emptyList();
         }
+        return noteDao.searchNotesFtsWithContent(matchQuery, limit);
+    }
+    
+    /**
+     * Búsqueda aproximada: encuentra notas aunque la búsqueda tenga errores de tipeo
+     * ("reunoin lunse" encuentra "reunión el lunes"). Ver NoteWordIndex.
+     * Devuelve primero las notas más parecidas (como mucho NoteWordIndex.MAX_RESULTS).
+     */
+    public CompletableFuture<List<NoteSummary>> searchNotesFuzzy(String query) {
+        return CompletableFuture.supplyAsync(() -> searchNotesFuzzySync(query), queryExecutor);
+    }
+    
+    /**
+     * Versión síncrona de searchNotesFuzzy().
+     * ADVERTENCIA: No usar en el hilo principal.
+     */
+    public List<NoteSummary> searchNotesFuzzySync(String query) {
+        return NoteWordIndex.search(noteDao, query);
+    }
+    
+    // ==================== CONTEOS ====================
+    // Se cargan una vez con GROUP BY en SQLite (sin cargar ninguna nota en memoria)
+    // y después se suman y restan con los cambios de cada transacción.
+    
+    /**
+     * Conteos por categoría y pin (solo las combinaciones con alguna nota, como el GROUP BY).
+     */
+    public LiveData<List<CategoryCount>> getCategoryCounts() {
+        return categoryCounts;
+    }
+    
+    /**
+     * Total de notas, fijadas y por categoría (se actualiza con cada cambio).
+     */
+    public LiveData<NoteStats> getNoteStats() {
+        return noteStats;
     }
     
     /**
-     * AsyncTask para eliminar una nota en background.
+     * Carga los conteos (en LIST_EXECUTOR). Sin reload, solo la primera vez.
      */
-    private static class DeleteNoteAsyncTask extends AsyncTask<Note, Void, Void> {
-        private NoteDao noteDao;
-        
-        private DeleteNoteAsyncTask(NoteDao noteDao) {
-            this.noteDao = noteDao;
+    private void loadCounts(boolean reload) {
+        if (countsLoaded && !reload) {
+            return;
         }
-        
-        @Override
-        protected Void doInBackground(Note... notes) {
-            noteDao.delete(notes[0]);
-            return null;
+        List<CategoryCount> rows = database.runInTransaction(() -> {
+            countsSequence = writeExecutor.getCommittedSequence();
+            return noteDao.getCategoryCountsSync();
+        });
+        for (int[] pinnedCounts : counts) {
+            Arrays.fill(pinnedCounts, 0);
+        }
+        for (CategoryCount row : rows) {
+            counts[row.getCategory().ordinal()][row.isPinned() ? 1 : 0] = row.getCount();
+        }
+        countsLoaded = true;
+        publishCounts();
+    }
+    
+    private void publishCounts() {
+        List<CategoryCount> rows = new ArrayList<>();
+        NoteCategory[] categories = NoteCategory.values();
+        for (int category = 0; category < categories.length; category++) {
+            for (int pinned = 0; pinned < 2; pinned++) {
+                if (counts[category][pinned] > 0) {
+                    rows.add(new CategoryCount(categories[category], pinned == 1, counts[category][pinned]));
+                }
+            }
         }
+        categoryCounts.postValue(rows);
     }
     
+    // ==================== CONSULTAS PAGINADAS ====================
+    
     /**
-     * AsyncTask para eliminar todas las notas en background.
+     * Crea un PagingSource con el ordenamiento y el filtro de categoría actuales.
+     * Paging necesita una instancia nueva cada vez que los datos se invalidan,
+     * por eso se expone como método y no como campo.
      */
-    private static class DeleteAllNotesAsyncTask extends AsyncTask<Void, Void, Void> {
-        private NoteDao noteDao;
-        
-        private DeleteAllNotesAsyncTask(NoteDao noteDao) {
-            this.noteDao = noteDao;
+    public PagingSource<Integer, NoteSummary> getNotesPagingSource() {
+        if (categoryFilter != null) {
+            switch (currentSortMode) {
+                case "created":
+                    return noteDao.getNotesPagedByCategoryByCreated(categoryFilter);
+                case "title_asc":
+                    return noteDao.getNotesPagedByCategoryByTitleAsc(categoryFilter);
+                case "title_desc":
+                    return noteDao.getNotesPagedByCategoryByTitleDesc(categoryFilter);
+                case "modified":
+                default:
+                    return noteDao.getNotesPagedByCategoryByModified(categoryFilter);
+            }
         }
-        
-        @Override
-        protected Void doInBackground(Void... voids) {
-            noteDao.deleteAllNotes();
-            return null;
+        switch (currentSortMode) {
+            case "created":
+                return noteDao.getNotesPagedByCreated();
+            case "title_asc":
+                return noteDao.getNotesPagedByTitleAsc();
+            case "title_desc":
+                return noteDao.getNotesPagedByTitleDesc();
+            case "modified":
+            default:
+                return noteDao.getNotesPagedByModified();
         }
     }
     
     /**
-     * AsyncTask para insertar múltiples notas en background (para migración).
+     * Crea un PagingSource con los resultados de búsqueda (misma lógica que searchNotesSync).
      */
-    private static class InsertAllNotesAsyncTask extends AsyncTask<List<Note>, Void, Void> {
-        private NoteDao noteDao;
-        
-        private InsertAllNotesAsyncTask(NoteDao noteDao) {
-            this.noteDao = noteDao;
-        }
-        
-        @Override
-        protected Void doInBackground(List<Note>... lists) {
-            noteDao.insertAll(lists[0]);
-            return null;
+    public PagingSource<Integer, NoteSummary> searchNotesPagingSource(String query) {
+        String matchQuery = SearchUtils.buildMatchQuery(query);
+        if (!matchQuery.isEmpty()) {
+            return noteDao.searchNotesPagedFts(matchQuery);
         }
+        return noteDao.searchNotesPaged("%" + query + "%");
+    }
+    
+    // ==================== EXPORTACIÓN / IMPORTACIÓN ====================
+    
+    /**
+     * Exporta todas las notas de la base de datos a un archivo JSON (en background).
+     * El listener recibe el progreso desde el hilo de background.
+     */
+    public void exportNotes(File file, BackupProgress.Listener listener) {
+        exportService.export(file, listener);
+    }
+    
+    /**
+     * Importa notas desde un archivo JSON de backup (en background).
+     * Si una nota ya existe, se queda la versión modificada más recientemente.
+     */
+    public void importNotes(ContentResolver resolver, Uri uri, BackupProgress.Listener listener) {
+        importService.importNotes(resolver, uri, listener);
+    }
+    
+    /**
+     * Inserta múltiples notas (para migración desde SharedPreferences).
+     */
+    public CompletableFuture<Void> insertAll(List<Note> notes) {
+        return writeExecutor.submit(dao -> dao.insertAll(notes));
     }
 }
-
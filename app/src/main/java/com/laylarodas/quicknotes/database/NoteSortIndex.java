@@ -0,0 +1,366 @@
+package com.laylarodas.quicknotes.database;
+
+import com.laylarodas.quicknotes.model.NoteCategory;
+import com.laylarodas.quicknotes.model.NoteChange;
+import com.laylarodas.quicknotes.model.NoteSummary;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lista completa de notas en memoria con los cuatro ordenamientos ya calculados.
+ *
+ * NoteRepository carga UNA vez todas las notas con update() y después le pasa a apply()
+ * los cambios de cada transacción (ver NoteChangeSet). Cada nota ocupa un "slot" fijo del array notes; cada orden es un int[] de slots
+ * (permutación), así que cambiar de orden o de categoría es recorrer un array, sin I/O.
+ *
+ * update() y apply() son incrementales: solo reubican las notas nuevas o cuyo criterio de orden cambió
+ * (pin, fechas, título). Las demás conservan su posición relativa: filtrar el orden anterior
+ * y mezclarlo con las k notas reubicadas cuesta O(n + k log k), no O(n log n).
+ *
+ * Los órdenes son los mismos que los de NoteDao (pinned primero + criterio).
+ * No es thread-safe: NoteRepository lo usa siempre desde su hilo de lista.
+ */
+final class NoteSortIndex {
+
+    static final String SORT_MODIFIED = "modified";
+    static final String SORT_CREATED = "created";
+    static final String SORT_TITLE_ASC = "title_asc";
+    static final String SORT_TITLE_DESC = "title_desc";
+
+    private static final int ORDER_MODIFIED = 0;
+    private static final int ORDER_CREATED = 1;
+    private static final int ORDER_TITLE_ASC = 2;
+    private static final int ORDER_TITLE_DESC = 3;
+    private static final int ORDER_COUNT = 4;
+
+    // Si cambia más de 1/REBUILD_RATIO de las notas, se reordena todo (más rápido que mezclar)
+    private static final int REBUILD_RATIO = 8;
+
+    private NoteSummary[] notes = new NoteSummary[16];
+    private int[] seenIn = new int[16];   // Última generación en que llegó la nota del slot
+    private int[] movedIn = new int[16];  // Última generación en que salió de su posición (reubicada o borrada)
+    private int slotCount;                // Slots usados alguna vez (los libres están en freeSlots)
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private final Map<String, Integer> slotById = new HashMap<>();
+
+    private final int[][] orders = new int[ORDER_COUNT][];
+    private int size;
+    private int generation;
+    private boolean loaded;
+
+    /**
+     * true después del primer update().
+     */
+    boolean isLoaded() {
+        return loaded;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Recibe la lista completa de notas (en cualquier orden) y actualiza los cuatro órdenes.
+     * Las notas que ya no están se quitan.
+     */
+    void update(List<NoteSummary> current) {
+        generation++;
+        int[] moved = new int[Math.min(current.size(), 64)];
+        int movedCount = 0;
+
+        for (int i = 0; i < current.size(); i++) {
+            NoteSummary note = current.get(i);
+            Integer slot = slotById.get(note.getId());
+            boolean reposition;
+            if (slot == null) {
+                slot = allocateSlot();
+                slotById.put(note.getId(), slot);
+                reposition = true;
+            } else {
+                reposition = sortKeyChanged(notes[slot], note);
+            }
+            if (seenIn[slot] == generation) {
+                continue; // ID repetido en la misma lista: se queda la primera
+            }
+            notes[slot] = note;
+            seenIn[slot] = generation;
+            if (reposition) {
+                movedIn[slot] = generation;
+                if (movedCount == moved.length) {
+                    moved = Arrays.copyOf(moved, moved.length * 2);
+                }
+                moved[movedCount++] = slot;
+            }
+        }
+
+        // Notas borradas: liberar su slot (se reutiliza en el próximo update)
+        if (loaded) {
+            int[] previous = orders[ORDER_MODIFIED];
+            for (int i = 0; i < size; i++) {
+                int slot = previous[i];
+                if (seenIn[slot] != generation) {
+                    slotById.remove(notes[slot].getId());
+                    notes[slot] = null;
+                    movedIn[slot] = generation;
+                    releaseSlot(slot); // No se vuelve a asignar en este update: ya no quedan notas nuevas
+                }
+            }
+        }
+
+        reorder(moved, movedCount);
+        loaded = true;
+    }
+
+    /**
+     * Aplica los cambios de una transacción sin recibir la lista completa: O(n + k log k)
+     * con k notas cambiadas, igual que update() pero sin recorrer la lista que llega.
+     *
+     * Es idempotente: una nota "insertada" que ya está se actualiza y una borrada que no está
+     * se ignora (la carga inicial pudo ver ya ese cambio). No hace nada antes del primer update().
+     */
+    void apply(List<NoteChange> changes) {
+        if (!loaded) {
+            return;
+        }
+        generation++;
+        int[] moved = new int[changes.size()];
+        int movedCount = 0;
+        int[] removed = new int[changes.size()];
+        int removedCount = 0;
+
+        for (NoteChange change : changes) {
+            Integer slot = slotById.get(change.getId());
+            NoteSummary note = change.getAfter();
+            if (note == null) {
+                if (slot != null) {
+                    slotById.remove(change.getId());
+                    notes[slot] = null;
+                    movedIn[slot] = generation;
+                    removed[removedCount++] = slot; // Se libera después de reordenar
+                }
+                continue;
+            }
+            boolean reposition;
+            if (slot == null) {
+                slot = allocateSlot();
+                slotById.put(note.getId(), slot);
+                reposition = true;
+            } else {
+                reposition = sortKeyChanged(notes[slot], note);
+            }
+            notes[slot] = note;
+            if (reposition && movedIn[slot] != generation) {
+                movedIn[slot] = generation;
+                moved[movedCount++] = slot;
+            }
+        }
+
+        reorder(moved, movedCount);
+        for (int i = 0; i < removedCount; i++) {
+            releaseSlot(removed[i]);
+        }
+    }
+
+    /**
+     * Notas en el orden pedido, opcionalmente solo las de una categoría. O(n), sin consultas.
+     * Devuelve una lista nueva en cada llamada (AsyncListDiffer compara por referencia).
+     */
+    List<NoteSummary> view(String sortMode, NoteCategory category) {
+        int[] order = orders[orderOf(sortMode)];
+        List<NoteSummary> result = new ArrayList<>(category == null ? size : Math.min(size, 64));
+        for (int i = 0; i < size; i++) {
+            NoteSummary note = notes[order[i]];
+            if (category == null || note.getCategory() == category) {
+                result.add(note);
+            }
+        }
+        return result;
+    }
+
+    // ==================== SLOTS ====================
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (slotCount == notes.length) {
+            int capacity = notes.length * 2;
+            notes = Arrays.copyOf(notes, capacity);
+            seenIn = Arrays.copyOf(seenIn, capacity);
+            movedIn = Arrays.copyOf(movedIn, capacity);
+        }
+        return slotCount++;
+    }
+
+    private void releaseSlot(int slot) {
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeSlots.length * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    private static boolean sortKeyChanged(NoteSummary old, NoteSummary now) {
+        return old.isPinned() != now.isPinned()
+                || old.getModifiedAt() != now.getModifiedAt()
+                || old.getCreatedAt() != now.getCreatedAt()
+                || !equalsNullable(old.getTitle(), now.getTitle());
+    }
+
+    private static boolean equalsNullable(String a, String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    // ==================== ORDEN ====================
+
+    /**
+     * Recalcula los cuatro órdenes: mezcla las notas movidas con el orden anterior
+     * o, si cambiaron muchas (o es la primera carga), ordena todo otra vez.
+     */
+    private void reorder(int[] moved, int movedCount) {
+        int liveCount = slotById.size();
+        boolean rebuild = !loaded || movedCount * REBUILD_RATIO > liveCount;
+        int[] live = null;
+        if (rebuild) {
+            live = new int[liveCount];
+            int i = 0;
+            for (int slot : slotById.values()) {
+                live[i++] = slot;
+            }
+        }
+        int[] sortedMoved = rebuild ? null : Arrays.copyOf(moved, movedCount);
+        for (int order = 0; order < ORDER_COUNT; order++) {
+            if (rebuild) {
+                int[] all = Arrays.copyOf(live, liveCount);
+                sort(all, all.length, order);
+                orders[order] = all;
+            } else {
+                sort(sortedMoved, movedCount, order);
+                orders[order] = merge(orders[order], size, sortedMoved, movedCount, liveCount, order);
+            }
+        }
+        size = liveCount;
+    }
+
+    /**
+     * Quita del orden anterior las notas borradas o reubicadas y mezcla las reubicadas
+     * (ya ordenadas) en su sitio. O(n + k).
+     */
+    private int[] merge(int[] previous, int previousSize, int[] moved, int movedCount, int liveCount, int order) {
+        int[] result = new int[liveCount];
+        int out = 0;
+        int m = 0;
+        for (int i = 0; i < previousSize; i++) {
+            int slot = previous[i];
+            if (movedIn[slot] == generation) {
+                continue; // Borrada o reubicada (si sigue, va con las movidas)
+            }
+            while (m < movedCount && compare(moved[m], slot, order) <= 0) {
+                result[out++] = moved[m++];
+            }
+            result[out++] = slot;
+        }
+        while (m < movedCount) {
+            result[out++] = moved[m++];
+        }
+        return result;
+    }
+
+    /**
+     * Mismo orden que las consultas de NoteDao: pinned primero y luego el criterio.
+     * Los empates se deshacen por ID para que el orden no dependa del orden de llegada.
+     */
+    private int compare(int slotA, int slotB, int order) {
+        NoteSummary a = notes[slotA];
+        NoteSummary b = notes[slotB];
+        if (a.isPinned() != b.isPinned()) {
+            return a.isPinned() ? -1 : 1;
+        }
+        int result;
+        switch (order) {
+            case ORDER_MODIFIED:
+                result = Long.compare(b.getModifiedAt(), a.getModifiedAt());
+                break;
+            case ORDER_CREATED:
+                result = Long.compare(b.getCreatedAt(), a.getCreatedAt());
+                break;
+            case ORDER_TITLE_ASC:
+                result = compareNoCase(a.getTitle(), b.getTitle());
+                break;
+            default:
+                result = compareNoCase(b.getTitle(), a.getTitle());
+                break;
+        }
+        return result != 0 ? result : a.getId().compareTo(b.getId());
+    }
+
+    /**
+     * Como COLLATE NOCASE de SQLite: solo ignora mayúsculas en ASCII; NULL va antes que todo.
+     */
+    static int compareNoCase(String a, String b) {
+        if (a == null || b == null) {
+            return a == null ? (b == null ? 0 : -1) : 1;
+        }
+        int length = Math.min(a.length(), b.length());
+        for (int i = 0; i < length; i++) {
+            char ca = a.charAt(i);
+            char cb = b.charAt(i);
+            if (ca != cb) {
+                if (ca >= 'A' && ca <= 'Z') ca += 'a' - 'A';
+                if (cb >= 'A' && cb <= 'Z') cb += 'a' - 'A';
+                if (ca != cb) {
+                    return ca - cb;
+                }
+            }
+        }
+        return a.length() - b.length();
+    }
+
+    /**
+     * Merge sort estable sobre int[] (sin convertir los slots a Integer).
+     */
+    private void sort(int[] slots, int count, int order) {
+        if (count < 2) {
+            return;
+        }
+        int[] buffer = new int[count];
+        for (int width = 1; width < count; width *= 2) {
+            for (int left = 0; left < count - width; left += 2 * width) {
+                int middle = left + width;
+                int right = Math.min(left + 2 * width, count);
+                if (compare(slots[middle - 1], slots[middle], order) <= 0) {
+                    continue; // Ya están en orden
+                }
+                System.arraycopy(slots, left, buffer, left, right - left);
+                int i = left, j = middle, out = left;
+                while (i < middle && j < right) {
+                    slots[out++] = compare(buffer[j], buffer[i], order) < 0 ? buffer[j++] : buffer[i++];
+                }
+                while (i < middle) {
+                    slots[out++] = buffer[i++];
+                }
+                while (j < right) {
+                    slots[out++] = buffer[j++];
+                }
+            }
+        }
+    }
+
+    private static int orderOf(String sortMode) {
+        switch (sortMode) {
+            case SORT_CREATED:
+                return ORDER_CREATED;
+            case SORT_TITLE_ASC:
+                return ORDER_TITLE_ASC;
+            case SORT_TITLE_DESC:
+                return ORDER_TITLE_DESC;
+            case SORT_MODIFIED:
+            default:
+                return ORDER_MODIFIED;
+        }
+    }
+}
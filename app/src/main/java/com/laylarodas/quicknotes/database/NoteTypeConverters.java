@@ -0,0 +1,25 @@
+package com.laylarodas.quicknotes.database;
+
+import androidx.room.TypeConverter;
+
+import com.laylarodas.quicknotes.model.NoteCategory;
+
+/**
+ * Conversores de tipos para Room.
+ *
+ * NoteCategory se guarda como su código entero (1 byte en SQLite) en lugar del nombre
+ * ("IMPORTANT" ocupa 9 bytes en cada fila y en cada entrada del índice por categoría).
+ * Los códigos desconocidos se leen como NONE.
+ */
+public class NoteTypeConverters {
+
+    @TypeConverter
+    public static int fromCategory(NoteCategory category) {
+        return category != null ? category.getCode() : NoteCategory.NONE.getCode();
+    }
+
+    @TypeConverter
+    public static NoteCategory toCategory(int code) {
+        return NoteCategory.fromCode(code);
+    }
+}
@@ -0,0 +1,280 @@
+package com.laylarodas.quicknotes.database;
+
+import com.laylarodas.quicknotes.model.NoteSummary;
+import com.laylarodas.quicknotes.model.NoteTrigram;
+import com.laylarodas.quicknotes.model.NoteWord;
+import com.laylarodas.quicknotes.utils.SearchUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Búsqueda aproximada (tolera errores de tipeo: "reunoin" encuentra "reunión").
+ *
+ * El índice no es por nota sino por palabra: note_word guarda el vocabulario de todas las notas
+ * y note_trigram los trigramas de cada palabra. Con 50.000 notas el vocabulario son decenas
+ * de miles de palabras, no millones de filas, y editar una nota solo toca las palabras
+ * que aparecen o desaparecen de ella (NoteDao agrupa los cambios con countWords/updateWords).
+ *
+ * Búsqueda, por cada palabra escrita:
+ * 1. Candidatos: palabras del vocabulario con más trigramas en común (una consulta indexada)
+ * 2. Verificación: distancia de edición (con transposiciones) de como mucho maxEdits()
+ * 3. Las palabras aceptadas se buscan en note_fts; cada nota suma la similitud de su mejor palabra
+ * Una nota tiene que coincidir con TODAS las palabras de la búsqueda, igual que la búsqueda exacta.
+ */
+final class NoteWordIndex {
+
+    // Palabras más cortas no se indexan: con 1-2 letras casi todo está a distancia 1
+    static final int MIN_WORD_LENGTH = 3;
+    // Palabras más largas (URLs, hashes...) tampoco: no se buscan a mano
+    static final int MAX_WORD_LENGTH = 32;
+    // Desde esta longitud también vale que la palabra empiece parecido ("reunoi" -> "reuniones")
+    static final int MIN_PREFIX_MATCH_LENGTH = 5;
+    // ...pero por debajo de la palabra completa con los mismos errores
+    private static final float PREFIX_PENALTY = 0.5f;
+
+    // Candidatos que se verifican por palabra escrita (los de más trigramas en común, ver NoteDao.findWordsByTrigrams)
+    static final int MAX_CANDIDATES = 64;
+    // Palabras parecidas que se buscan en note_fts por palabra escrita
+    static final int MAX_MATCHED_WORDS = 8;
+    // Notas que devuelve la búsqueda (las más parecidas)
+    static final int MAX_RESULTS = 200;
+
+    private NoteWordIndex() {
+    }
+
+    // ==================== VOCABULARIO ====================
+
+    /**
+     * Suma delta (+1 al indexar, -1 al quitar) a cada palabra distinta del texto de una nota.
+     * Las palabras que se suman y restan en la misma transacción se anulan (ej: editar
+     * una nota sin cambiar esa palabra), así NoteDao.updateWords() no las toca.
+     */
+    static void countWords(Map<String, Integer> counts, String title, String content, int delta) {
+        Set<String> words = new HashSet<>();
+        collectWords(words, title);
+        collectWords(words, content);
+        for (String word : words) {
+            counts.merge(word, delta, Integer::sum);
+        }
+    }
+
+    private static void collectWords(Set<String> words, String text) {
+        if (text == null) {
+            return;
+        }
+        for (String word : SearchUtils.tokenize(text)) {
+            if (word.length() >= MIN_WORD_LENGTH && word.length() <= MAX_WORD_LENGTH) {
+                words.add(word);
+            }
+        }
+    }
+
+    /**
+     * Trigramas distintos de la palabra, con un espacio a cada lado para que cuenten
+     * el inicio y el final ("casa" -> " ca", "cas", "asa", "sa ").
+     */
+    static List<String> trigrams(String word) {
+        String padded = " " + word + " ";
+        Set<String> trigrams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return new ArrayList<>(trigrams);
+    }
+
+    static List<NoteTrigram> trigramRows(String word, long wordId) {
+        List<String> trigrams = trigrams(word);
+        List<NoteTrigram> rows = new ArrayList<>(trigrams.size());
+        for (String trigram : trigrams) {
+            rows.add(new NoteTrigram(trigram, wordId));
+        }
+        return rows;
+    }
+
+    // ==================== DISTANCIA DE EDICIÓN ====================
+
+    /**
+     * Errores permitidos según la longitud de la palabra escrita: 1 hasta 4 letras, 2 desde 5.
+     */
+    static int maxEdits(int length) {
+        return length <= 4 ? 1 : 2;
+    }
+
+    /**
+     * Distancia de edición entre lo escrito y una palabra del vocabulario (inserción, borrado,
+     * sustitución y transposición de dos letras seguidas cuentan 1).
+     * Si allowPrefix, también se compara con el inicio de la palabra ("reunoi" -> "reuniones" = 1).
+     *
+     * @return La distancia, o max + 1 si es mayor que max (se deja de calcular antes)
+     */
+    static int distance(String typed, String word, int max, boolean allowPrefix) {
+        int n = typed.length();
+        int m = word.length();
+        if (!allowPrefix && Math.abs(n - m) > max) {
+            return max + 1;
+        }
+        // Tres filas: la transposición mira dos filas atrás
+        int[] previous2 = new int[m + 1];
+        int[] previous = new int[m + 1];
+        int[] current = new int[m + 1];
+        for (int j = 0; j <= m; j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= n; i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= m; j++) {
+                int cost = typed.charAt(i - 1) == word.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && typed.charAt(i - 1) == word.charAt(j - 2)
+                        && typed.charAt(i - 2) == word.charAt(j - 1)) {
+                    value = Math.min(value, previous2[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > max) {
+                return max + 1; // Ninguna alineación puede bajar de aquí
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        // previous = última fila: distancia a la palabra completa (m) o a cualquier inicio (j)
+        int result = previous[m];
+        if (allowPrefix) {
+            for (int j = 0; j < m; j++) {
+                result = Math.min(result, previous[j]);
+            }
+        }
+        return Math.min(result, max + 1);
+    }
+
+    // ==================== BÚSQUEDA ====================
+
+    /**
+     * Notas que coinciden con todas las palabras de la búsqueda, exacta o aproximadamente,
+     * ordenadas de la más parecida a la menos (a igual parecido: pinned primero, luego las
+     * modificadas más recientemente). Como mucho MAX_RESULTS notas.
+     * ADVERTENCIA: No usar en el hilo principal.
+     */
+    static List<NoteSummary> search(NoteDao dao, String query) {
+        Set<String> tokens = new LinkedHashSet<>(SearchUtils.tokenize(query));
+        if (tokens.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<String, Float> scores = null;
+        for (String token : tokens) {
+            Map<String, Float> tokenScores = searchToken(dao, token);
+            if (scores == null) {
+                scores = tokenScores;
+            } else {
+                // Solo siguen las notas que también coinciden con esta palabra
+                Map<String, Float> both = new HashMap<>();
+                for (Map.Entry<String, Float> entry : scores.entrySet()) {
+                    Float score = tokenScores.get(entry.getKey());
+                    if (score != null) {
+                        both.put(entry.getKey(), entry.getValue() + score);
+                    }
+                }
+                scores = both;
+            }
+            if (scores.isEmpty()) {
+                return Collections.emptyList();
+            }
+        }
+
+        List<Map.Entry<String, Float>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort((a, b) -> Float.compare(b.getValue(), a.getValue()));
+        List<String> ids = new ArrayList<>(Math.min(ranked.size(), MAX_RESULTS));
+        for (int i = 0; i < ranked.size() && i < MAX_RESULTS; i++) {
+            ids.add(ranked.get(i).getKey());
+        }
+        List<NoteSummary> notes = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += NoteDao.MAX_IDS_PER_STATEMENT) {
+            notes.addAll(dao.getSummariesByIds(ids.subList(from, Math.min(ids.size(), from + NoteDao.MAX_IDS_PER_STATEMENT))));
+        }
+        Map<String, Float> finalScores = scores;
+        notes.sort((a, b) -> {
+            int byScore = Float.compare(finalScores.get(b.getId()), finalScores.get(a.getId()));
+            if (byScore != 0) {
+                return byScore;
+            }
+            if (a.isPinned() != b.isPinned()) {
+                return a.isPinned() ? -1 : 1;
+            }
+            return Long.compare(b.getModifiedAt(), a.getModifiedAt());
+        });
+        return notes;
+    }
+
+    /**
+     * Similitud (0..1] de cada nota con una palabra escrita: 1 si contiene una palabra
+     * que empieza así (igual que la búsqueda exacta), menos cuantos más errores.
+     */
+    private static Map<String, Float> searchToken(NoteDao dao, String token) {
+        Map<String, Float> scores = new HashMap<>();
+        addMatches(dao, SearchUtils.quoteToken(token, true), 1f, scores);
+        if (token.length() < MIN_WORD_LENGTH || token.length() > MAX_WORD_LENGTH) {
+            return scores;
+        }
+
+        int maxEdits = maxEdits(token.length());
+        boolean allowPrefix = token.length() >= MIN_PREFIX_MATCH_LENGTH;
+        List<String> trigrams = trigrams(token);
+        // Cada error cambia como mucho 3 trigramas: con menos en común no puede estar a maxEdits
+        int minShared = Math.max(1, trigrams.size() - 3 * maxEdits);
+        // La distancia es al menos la diferencia de longitud; con prefijo, la palabra puede ser más larga
+        int minLength = token.length() - maxEdits;
+        int maxLength = allowPrefix ? MAX_WORD_LENGTH : token.length() + maxEdits;
+        List<NoteWord> matched = new ArrayList<>();
+        List<Float> wordScores = new ArrayList<>();
+        for (NoteWord candidate : dao.findWordsByTrigrams(trigrams, minShared, token.length(),
+                minLength, maxLength, MAX_CANDIDATES)) {
+            String word = candidate.getWord();
+            if (word.startsWith(token)) {
+                continue; // Ya la encontró la búsqueda por prefijo
+            }
+            float errors = distance(token, word, maxEdits, false);
+            if (errors > maxEdits && allowPrefix) {
+                // Solo se parece el inicio: cuenta medio error más que la palabra completa
+                errors = distance(token, word, maxEdits, true) + PREFIX_PENALTY;
+            }
+            if (errors <= maxEdits + PREFIX_PENALTY) {
+                matched.add(candidate);
+                wordScores.add(1f - errors / (token.length() + 1));
+            }
+        }
+
+        // Las más parecidas primero; a igual parecido, las que aparecen en más notas
+        List<Integer> order = new ArrayList<>(matched.size());
+        for (int i = 0; i < matched.size(); i++) {
+            order.add(i);
+        }
+        order.sort((a, b) -> {
+            int byScore = Float.compare(wordScores.get(b), wordScores.get(a));
+            return byScore != 0 ? byScore
+                    : Integer.compare(matched.get(b).getNoteCount(), matched.get(a).getNoteCount());
+        });
+        for (int i = 0; i < order.size() && i < MAX_MATCHED_WORDS; i++) {
+            int index = order.get(i);
+            addMatches(dao, SearchUtils.quoteToken(matched.get(index).getWord(), false),
+                    wordScores.get(index), scores);
+        }
+        return scores;
+    }
+
+    private static void addMatches(NoteDao dao, String matchQuery, float score, Map<String, Float> scores) {
+        for (String id : dao.getNoteIdsMatching(matchQuery)) {
+            scores.merge(id, score, Math::max);
+        }
+    }
+}
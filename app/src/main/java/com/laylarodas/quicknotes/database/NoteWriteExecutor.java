@@ -0,0 +1,257 @@
+package com.laylarodas.quicknotes.database;
+
+import android.util.Log;
+
+import com.laylarodas.quicknotes.model.NoteChangeSet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ejecutor de escrituras con un único hilo escritor.
+ *
+ * Todas las escrituras (insert, update, delete...) se encolan aquí en lugar de
+ * crear un AsyncTask por operación. El hilo escritor toma la primera operación,
+ * espera una ventana corta (batchWindowMs) para juntar las que lleguen mientras tanto
+ * y ejecuta todo el lote dentro de UNA sola transacción (runInTransaction).
+ *
+ * Beneficios:
+ * - Una ráfaga de 500 escrituras = 1 transacción (1 fsync) en lugar de 500
+ * - Las escrituras se aplican en el mismo orden en que se enviaron
+ * - Cada operación devuelve un CompletableFuture para saber cuándo terminó (o si falló)
+ * - Después de cada commit avisa a los ChangeListener con las notas que cambiaron
+ *   (NoteChangeSet), para actualizar la UI sin volver a consultar la tabla
+ */
+public class NoteWriteExecutor {
+
+    private static final String TAG = "NoteWriteExecutor";
+
+    // Ventana por defecto para agrupar escrituras
+    static final long DEFAULT_BATCH_WINDOW_MS = 10;
+    // Máximo de operaciones por transacción (evita transacciones gigantes)
+    static final int MAX_BATCH_SIZE = 500;
+
+    private static NoteWriteExecutor instance;
+
+    /**
+     * Una operación de escritura sobre el DAO.
+     * Se ejecuta en el hilo escritor, dentro de una transacción.
+     */
+    public interface WriteOperation {
+        void run(NoteDao noteDao);
+    }
+
+    /**
+     * Recibe las notas que cambió cada transacción, después del commit.
+     * Se llama en el hilo escritor: no hacer trabajo pesado aquí, solo pasarlo a otro hilo.
+     */
+    public interface ChangeListener {
+        void onNotesChanged(NoteChangeSet changes);
+    }
+
+    private static class PendingWrite {
+        final WriteOperation operation;
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        PendingWrite(WriteOperation operation) {
+            this.operation = operation;
+        }
+    }
+
+    private final NoteDatabase database;
+    private final NoteDao noteDao;
+    private final long batchWindowNanos;
+    private final int idleCheckpointWrites;
+    private int writesSinceCheckpoint; // Solo lo usa el hilo escritor
+    private final LinkedBlockingQueue<PendingWrite> queue = new LinkedBlockingQueue<>();
+    private final Thread writerThread;
+    // Ejecuta cada lote en el hilo escritor; envuelto por QueryMetrics para medir sus sentencias (si está activado)
+    private final Executor batchRunner = QueryMetrics.wrap(Runnable::run);
+    private volatile boolean running = true;
+    private final CopyOnWriteArrayList<ChangeListener> changeListeners = new CopyOnWriteArrayList<>();
+    // Transacciones de escritura hechas (solo la incrementa el hilo escritor, dentro de la transacción)
+    private volatile long committedSequence;
+
+    NoteWriteExecutor(NoteDatabase database, long batchWindowMs) {
+        this.database = database;
+        this.noteDao = database.noteDao();
+        this.batchWindowNanos = TimeUnit.MILLISECONDS.toNanos(batchWindowMs);
+        this.idleCheckpointWrites = database.getProfile().getIdleCheckpointWrites();
+        this.writerThread = new Thread(this::runLoop, "quicknotes-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * Obtiene el ejecutor único asociado a la base de datos.
+     * Un solo hilo escritor para toda la app (SQLite solo admite un escritor a la vez).
+     */
+    public static synchronized NoteWriteExecutor getInstance(NoteDatabase database) {
+        if (instance == null) {
+            instance = new NoteWriteExecutor(database, DEFAULT_BATCH_WINDOW_MS);
+        }
+        return instance;
+    }
+
+    /**
+     * Encola una operación de escritura.
+     * @return Future que se completa cuando la transacción que la contiene hace commit
+     *         (o se completa con excepción si la operación falló)
+     */
+    public CompletableFuture<Void> submit(WriteOperation operation) {
+        PendingWrite pending = new PendingWrite(operation);
+        if (!running) {
+            pending.future.completeExceptionally(new IllegalStateException("NoteWriteExecutor detenido"));
+            return pending.future;
+        }
+        queue.add(pending);
+        return pending.future;
+    }
+
+    /**
+     * Registra un listener (si ya estaba registrado, no se duplica).
+     */
+    public void addChangeListener(ChangeListener listener) {
+        changeListeners.addIfAbsent(listener);
+    }
+
+    public void removeChangeListener(ChangeListener listener) {
+        changeListeners.remove(listener);
+    }
+
+    /**
+     * Secuencia de la última transacción de escritura.
+     * Leída DENTRO de una transacción (que bloquea al escritor), indica exactamente qué
+     * NoteChangeSet ya están reflejados en lo que se lea en esa transacción.
+     */
+    long getCommittedSequence() {
+        return committedSequence;
+    }
+
+    /**
+     * Detiene el hilo escritor. Las operaciones que sigan en cola no se ejecutan.
+     * Solo se usa en tests/benchmarks; la instancia de la app vive mientras viva el proceso.
+     */
+    void shutdown() {
+        running = false;
+        writerThread.interrupt();
+    }
+
+    // ==================== HILO ESCRITOR ====================
+
+    private void runLoop() {
+        List<PendingWrite> batch = new ArrayList<>();
+        while (running) {
+            try {
+                // Esperar la primera operación
+                batch.add(queue.take());
+                
+                // Juntar las operaciones que lleguen dentro de la ventana
+                long deadline = System.nanoTime() + batchWindowNanos;
+                while (batch.size() < MAX_BATCH_SIZE) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    PendingWrite next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                queue.drainTo(batch, MAX_BATCH_SIZE - batch.size());
+                
+                batchRunner.execute(() -> {
+                    executeBatch(batch);
+                    checkpointIfIdle(batch.size());
+                });
+            } catch (InterruptedException e) {
+                // shutdown()
+                for (PendingWrite pending : batch) {
+                    pending.future.completeExceptionally(e);
+                }
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Política de checkpoint del perfil: tras suficientes escrituras, si no queda nada en cola,
+     * se vuelca el WAL ahora en vez de dejar que SQLite lo haga en medio de una ráfaga.
+     */
+    private void checkpointIfIdle(int batchWrites) {
+        if (idleCheckpointWrites <= 0) {
+            return;
+        }
+        writesSinceCheckpoint += batchWrites;
+        if (writesSinceCheckpoint >= idleCheckpointWrites && queue.isEmpty()) {
+            try {
+                database.checkpoint();
+            } catch (RuntimeException e) {
+                Log.w(TAG, "Checkpoint falló", e);
+            }
+            writesSinceCheckpoint = 0;
+        }
+    }
+
+    private void executeBatch(List<PendingWrite> batch) {
+        try {
+            NoteChangeTracker.begin();
+            database.runInTransaction(() -> {
+                for (PendingWrite pending : batch) {
+                    pending.operation.run(noteDao);
+                }
+                committedSequence++;
+            });
+            // Los listeners se enteran antes que los futures: quien espera el future ya ve el cambio aplicado
+            dispatchChanges(NoteChangeTracker.end(committedSequence));
+            for (PendingWrite pending : batch) {
+                pending.future.complete(null);
+            }
+        } catch (RuntimeException e) {
+            NoteChangeTracker.discard(); // Rollback: no cambió nada
+            if (batch.size() == 1) {
+                batch.get(0).future.completeExceptionally(e);
+                return;
+            }
+            // Una operación hizo rollback de todo el lote:
+            // reintentamos una por una para que solo falle la que tiene el problema
+            Log.w(TAG, "Lote de " + batch.size() + " escrituras falló, reintentando una por una", e);
+            for (PendingWrite pending : batch) {
+                try {
+                    NoteChangeTracker.begin();
+                    database.runInTransaction(() -> {
+                        pending.operation.run(noteDao);
+                        committedSequence++;
+                    });
+                    dispatchChanges(NoteChangeTracker.end(committedSequence));
+                    pending.future.complete(null);
+                } catch (RuntimeException single) {
+                    NoteChangeTracker.discard();
+                    pending.future.completeExceptionally(single);
+                }
+            }
+        }
+    }
+
+    private void dispatchChanges(NoteChangeSet changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        for (ChangeListener listener : changeListeners) {
+            try {
+                listener.onNotesChanged(changes);
+            } catch (RuntimeException e) {
+                // Un listener roto no debe dejar sin completar los futures del lote
+                Log.e(TAG, "ChangeListener falló", e);
+            }
+        }
+    }
+}
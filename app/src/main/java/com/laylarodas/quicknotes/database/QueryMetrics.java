@@ -0,0 +1,271 @@
+package com.laylarodas.quicknotes.database;
+
+import androidx.annotation.NonNull;
+import androidx.room.RoomDatabase;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Métricas de las consultas SQL de Room (herramienta de depuración).
+ *
+ * Cómo se mide:
+ * - Room avisa de cada sentencia con RoomDatabase.QueryCallback, justo antes de ejecutarla
+ *   y en el mismo hilo (el callback usa un executor directo)
+ * - La sentencia se da por terminada cuando el mismo hilo ejecuta la siguiente
+ *   o cuando termina la tarea en la que corría: wrap() envuelve cada executor o tarea que hace
+ *   consultas donde se crea (pool de Room, lista, búsqueda, exportación, arranque y cada lote
+ *   del hilo escritor), así ninguna consulta tiene que avisar al terminar
+ * - Así el tiempo incluye ejecutar la consulta y leer el cursor (y lo que la tarea haga en memoria
+ *   después de su última consulta, ej: ordenar la lista que acaba de leer)
+ *
+ * Por cada SQL se guarda: número de llamadas, tiempo total/máximo e histograma de latencias.
+ * QueryCallback no informa cuántas filas devuelve cada consulta, así que no se registran.
+ *
+ * Se activa con enable() ANTES de crear NoteDatabase. Si no se activa,
+ * NoteDatabase no instala el callback ni envuelve los executors: coste cero.
+ */
+public final class QueryMetrics {
+
+    // Límites superiores (ms) de cada cubeta del histograma; la última es "más de 1024 ms"
+    private static final long[] BUCKET_LIMITS_MS = {1, 2, 4, 8, 16, 32, 64, 128, 256, 512, 1024};
+
+    private static volatile boolean enabled;
+    private static final QueryMetrics INSTANCE = new QueryMetrics();
+
+    private final Map<String, Stats> statsBySql = new ConcurrentHashMap<>();
+    private final ThreadLocal<Pending> pending = new ThreadLocal<>();
+
+    private QueryMetrics() {
+    }
+
+    /**
+     * Activa las métricas. Solo tiene efecto si se llama antes de crear la base de datos.
+     */
+    public static void enable() {
+        enabled = true;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static QueryMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    // ==================== INSTALACIÓN (NoteDatabase) ====================
+
+    /**
+     * Callback para RoomDatabase.Builder.setQueryCallback().
+     */
+    RoomDatabase.QueryCallback queryCallback() {
+        return (sql, bindArgs) -> onStatement(sql);
+    }
+
+    /**
+     * Executor para el callback: directo, así se llama en el hilo que ejecuta la consulta.
+     */
+    static Executor callbackExecutor() {
+        return Runnable::run;
+    }
+
+    /**
+     * Envuelve un executor para cerrar la última sentencia al terminar cada tarea.
+     * Sin métricas activas devuelve el mismo executor.
+     */
+    public static Executor wrap(Executor executor) {
+        if (!enabled) {
+            return executor;
+        }
+        return command -> executor.execute(wrap(command));
+    }
+
+    /**
+     * Envuelve una tarea para cerrar su última sentencia al terminar
+     * (hilos propios o executors que no se pueden reemplazar, ej: un ExecutorService).
+     * Sin métricas activas devuelve la misma tarea.
+     */
+    public static Runnable wrap(Runnable task) {
+        if (!enabled) {
+            return task;
+        }
+        return () -> {
+            try {
+                task.run();
+            } finally {
+                endStatement();
+            }
+        };
+    }
+
+    /**
+     * Marca como terminada la sentencia en curso del hilo actual (si la hay).
+     */
+    private static void endStatement() {
+        if (enabled) {
+            INSTANCE.finishPending(System.nanoTime());
+        }
+    }
+
+    private void onStatement(String sql) {
+        long now = System.nanoTime();
+        finishPending(now);
+        pending.set(new Pending(sql, now));
+    }
+
+    private void finishPending(long now) {
+        Pending current = pending.get();
+        if (current == null) {
+            return;
+        }
+        pending.remove();
+        Stats stats = statsBySql.get(current.sql);
+        if (stats == null) {
+            stats = statsBySql.computeIfAbsent(current.sql, Stats::new);
+        }
+        stats.record(now - current.startNanos);
+    }
+
+    // ==================== CONSULTA DE MÉTRICAS ====================
+
+    /**
+     * Estadísticas de todas las sentencias, de la más costosa (tiempo total) a la menos.
+     */
+    public List<Stats> snapshot() {
+        List<Stats> snapshot = new ArrayList<>(statsBySql.values());
+        Collections.sort(snapshot, (a, b) -> Long.compare(b.getTotalNanos(), a.getTotalNanos()));
+        return snapshot;
+    }
+
+    public void reset() {
+        statsBySql.clear();
+    }
+
+    /**
+     * Guarda un informe de texto con todas las sentencias.
+     */
+    public void dumpTo(File file) throws IOException {
+        try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
+            writer.println("# Métricas de consultas (ms). Histograma: <=1 <=2 <=4 <=8 <=16 <=32 <=64 <=128 <=256 <=512 <=1024 >1024");
+            for (Stats stats : snapshot()) {
+                writer.printf(Locale.ROOT, "%n%s%n  llamadas=%d total=%.1f media=%.2f p95<=%s max=%.1f%n  histograma=%s%n",
+                        stats.getSql(), stats.getCount(), stats.getTotalNanos() / 1e6, stats.getAverageMs(),
+                        stats.getPercentileLimitMs(0.95), stats.getMaxNanos() / 1e6, stats.histogramToString());
+            }
+        }
+    }
+
+    private static final class Pending {
+        final String sql;
+        final long startNanos;
+
+        Pending(String sql, long startNanos) {
+            this.sql = sql;
+            this.startNanos = startNanos;
+        }
+    }
+
+    /**
+     * Estadísticas de una sentencia SQL. Se actualizan desde varios hilos sin bloqueos.
+     */
+    public static final class Stats {
+        private final String sql;
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong totalNanos = new AtomicLong();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final AtomicLongArray histogram = new AtomicLongArray(BUCKET_LIMITS_MS.length + 1);
+
+        Stats(String sql) {
+            this.sql = sql;
+        }
+
+        void record(long nanos) {
+            count.incrementAndGet();
+            totalNanos.addAndGet(nanos);
+            long max;
+            while (nanos > (max = maxNanos.get()) && !maxNanos.compareAndSet(max, nanos)) {
+                // Reintentar: otro hilo actualizó el máximo
+            }
+            histogram.incrementAndGet(bucketOf(nanos / 1_000_000));
+        }
+
+        private static int bucketOf(long ms) {
+            for (int i = 0; i < BUCKET_LIMITS_MS.length; i++) {
+                if (ms < BUCKET_LIMITS_MS[i]) {
+                    return i;
+                }
+            }
+            return BUCKET_LIMITS_MS.length;
+        }
+
+        @NonNull
+        public String getSql() {
+            return sql;
+        }
+
+        public long getCount() {
+            return count.get();
+        }
+
+        public long getTotalNanos() {
+            return totalNanos.get();
+        }
+
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+
+        public double getAverageMs() {
+            long calls = count.get();
+            return calls == 0 ? 0 : totalNanos.get() / 1e6 / calls;
+        }
+
+        /**
+         * Cuántas llamadas cayeron en cada cubeta del histograma (ver BUCKET_LIMITS_MS).
+         */
+        public long[] getHistogram() {
+            long[] copy = new long[histogram.length()];
+            for (int i = 0; i < copy.length; i++) {
+                copy[i] = histogram.get(i);
+            }
+            return copy;
+        }
+
+        /**
+         * Límite superior (ms) de la cubeta donde cae el percentil indicado, ej: 0.95 -> "<=16".
+         */
+        public String getPercentileLimitMs(double percentile) {
+            long[] buckets = getHistogram();
+            long target = (long) Math.ceil(getCount() * percentile);
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= target && target > 0) {
+                    return i < BUCKET_LIMITS_MS.length ? String.valueOf(BUCKET_LIMITS_MS[i]) : ">1024";
+                }
+            }
+            return "-";
+        }
+
+        String histogramToString() {
+            StringBuilder builder = new StringBuilder();
+            long[] buckets = getHistogram();
+            for (int i = 0; i < buckets.length; i++) {
+                builder.append(i == 0 ? "" : " ").append(buckets[i]);
+            }
+            return builder.toString();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.laylarodas.quicknotes.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+
+/**
+ * Número de notas de una categoría con un estado de pin (fijadas o no).
+ * No es una tabla: Room la llena con el GROUP BY de NoteDao.getCategoryCounts().
+ */
+public class CategoryCount {
+
+    @NonNull
+    @ColumnInfo(name = "category")
+    private final NoteCategory category;
+
+    @ColumnInfo(name = "isPinned")
+    private final boolean isPinned;
+
+    @ColumnInfo(name = "count")
+    private final int count;
+
+    public CategoryCount(@NonNull NoteCategory category, boolean isPinned, int count) {
+        this.category = category;
+        this.isPinned = isPinned;
+        this.count = count;
+    }
+
+    @NonNull
+    public NoteCategory getCategory() {
+        return category;
+    }
+
+    public boolean isPinned() {
+        return isPinned;
+    }
+
+    public int getCount() {
+        return count;
+    }
+}
@@ -4,6 +4,7 @@ import androidx.annotation.NonNull;
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
 import androidx.room.Ignore;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
 import org.json.JSONException;
@@ -14,8 +15,28 @@ import java.util.UUID;
 /**
  * Entity de Room que representa una nota en la base de datos.
  * Room creará automáticamente una tabla llamada "note_table" con estas columnas.
+ *
+ * Índices: uno por cada ordenamiento de NoteDao (pinned primero + criterio).
+ * Con ellos SQLite recorre el índice ya ordenado en lugar de ordenar
+ * toda la tabla en un B-tree temporal en cada consulta.
+ * El título usa COLLATE NOCASE para que el índice sirva al orden alfabético.
+ * El índice por categoría sirve al filtro por categoría (WHERE category = ?).
+ *
+ * La categoría se guarda como un entero pequeño (NoteCategory.getCode(), ver NoteTypeConverters).
+ *
+ * El contenido completo NO está en note_table: vive en note_content (comprimido si es largo).
+ * note_table solo guarda el preview (inicio del contenido) que muestra la lista.
+ * NoteDao junta las dos tablas: las notas que devuelve ya traen el contenido.
  */
-@Entity(tableName = "note_table")
+@Entity(tableName = "note_table",
+        indices = {
+                @Index(name = "index_note_pinned_modified", value = {"isPinned", "modifiedAt"}),
+                @Index(name = "index_note_pinned_created", value = {"isPinned", "createdAt"}),
+                @Index(name = "index_note_pinned_title_asc", value = {"isPinned", "title"},
+                        orders = {Index.Order.DESC, Index.Order.ASC}),
+                @Index(name = "index_note_pinned_title_desc", value = {"isPinned", "title"}),
+                @Index(name = "index_note_category_pinned_modified", value = {"category", "isPinned", "modifiedAt"})
+        })
 public class Note {
     
     @PrimaryKey
@@ -23,10 +44,14 @@ public class Note {
     @ColumnInfo(name = "id")
     private String id;
     
-    @ColumnInfo(name = "title")
+    @ColumnInfo(name = "title", collate = ColumnInfo.NOCASE)
     private String title;
     
-    @ColumnInfo(name = "content")
+    @ColumnInfo(name = "preview")
+    private String preview;
+    
+    // Se guarda en note_content (ver NoteDao)
+    @Ignore
     private String content;
     
     @ColumnInfo(name = "createdAt")
@@ -35,23 +60,40 @@ public class Note {
     @ColumnInfo(name = "modifiedAt")
     private long modifiedAt;
     
-    @ColumnInfo(name = "category", defaultValue = "NONE")
-    private String category;
+    @NonNull
+    @ColumnInfo(name = "category", defaultValue = "0")
+    private NoteCategory category;
     
     @ColumnInfo(name = "isPinned", defaultValue = "0")
     private boolean isPinned;
 
     /**
-     * Constructor usado por Room para recrear objetos desde la base de datos.
-     * Room requiere un constructor con todos los campos.
+     * Constructor con todos los datos de la nota (importación, copias, tests).
      */
-    public Note(@NonNull String id, String title, String content, long createdAt, long modifiedAt, String category, boolean isPinned) {
+    @Ignore
+    public Note(@NonNull String id, String title, String content, long createdAt, long modifiedAt, NoteCategory category, boolean isPinned) {
         this.id = id;
         this.title = title;
         this.content = content;
+        this.preview = NoteSummary.previewOf(content);
+        this.createdAt = createdAt;
+        this.modifiedAt = modifiedAt;
+        this.category = category != null ? category : NoteCategory.NONE;
+        this.isPinned = isPinned;
+    }
+    
+    /**
+     * Constructor usado por Room para recrear la fila de note_table.
+     * La nota llega sin contenido: NoteDao lo lee de note_content y lo asigna con restoreContent().
+     * (El preview va al final para no chocar con la firma del constructor anterior.)
+     */
+    public Note(@NonNull String id, String title, long createdAt, long modifiedAt, NoteCategory category, boolean isPinned, String preview) {
+        this.id = id;
+        this.title = title;
+        this.preview = preview;
         this.createdAt = createdAt;
         this.modifiedAt = modifiedAt;
-        this.category = category != null ? category : "NONE";
+        this.category = category != null ? category : NoteCategory.NONE;
         this.isPinned = isPinned;
     }
     
@@ -64,9 +106,10 @@ public class Note {
         this.id = UUID.randomUUID().toString();
         this.title = title;
         this.content = content;
+        this.preview = NoteSummary.previewOf(content);
         this.createdAt = System.currentTimeMillis();
         this.modifiedAt = System.currentTimeMillis();
-        this.category = "NONE";
+        this.category = NoteCategory.NONE;
         this.isPinned = false;
     }
 
@@ -84,6 +127,13 @@ public class Note {
     public String getContent() {
         return content;
     }
+    
+    /**
+     * Inicio del contenido que se guarda en note_table para la lista.
+     */
+    public String getPreview() {
+        return preview;
+    }
 
     public long getCreatedAt() {
         return createdAt;
@@ -93,8 +143,9 @@ public class Note {
         return modifiedAt;
     }
     
-    public String getCategory() {
-        return category != null ? category : "NONE";
+    @NonNull
+    public NoteCategory getCategory() {
+        return category;
     }
     
     public boolean isPinned() {
@@ -115,9 +166,18 @@ public class Note {
     
     public void setContent(String content) {
         this.content = content;
+        this.preview = NoteSummary.previewOf(content);
         this.modifiedAt = System.currentTimeMillis();
     }
     
+    /**
+     * Asigna el contenido leído de note_content (no cambia modifiedAt).
+     * Solo lo usa NoteDao al cargar la nota.
+     */
+    public void restoreContent(String content) {
+        this.content = content;
+    }
+    
     public void setCreatedAt(long createdAt) {
         this.createdAt = createdAt;
     }
@@ -126,14 +186,23 @@ public class Note {
         this.modifiedAt = modifiedAt;
     }
     
-    public void setCategory(String category) {
-        this.category = category != null ? category : "NONE";
+    public void setCategory(NoteCategory category) {
+        this.category = category != null ? category : NoteCategory.NONE;
     }
     
     public void setPinned(boolean pinned) {
         this.isPinned = pinned;
     }
 
+    /**
+     * Crea una copia independiente de la nota (mismo ID y mismos datos).
+     * Se usa al editar: así no se modifica el objeto que está mostrando el adapter
+     * y DiffUtil puede detectar el cambio al comparar la lista vieja con la nueva.
+     */
+    public Note copy() {
+        return new Note(id, title, content, createdAt, modifiedAt, category, isPinned);
+    }
+
     // ==================== MÉTODOS DE MIGRACIÓN ====================
     // Estos métodos se mantendrán temporalmente para migrar datos de SharedPreferences a Room.
     // Se pueden eliminar después de la migración.
@@ -169,7 +238,7 @@ public class Note {
             String content = obj.getString("content");
             long createdAt = obj.optLong("createdAt", System.currentTimeMillis());
             long modifiedAt = obj.optLong("modifiedAt", System.currentTimeMillis());
-            String category = obj.optString("category", "NONE");
+            NoteCategory category = NoteCategory.fromString(obj.optString("category", "NONE"));
             boolean isPinned = obj.optBoolean("isPinned", false);
             return new Note(id, title, content, createdAt, modifiedAt, category, isPinned);
         } catch (JSONException e) {
@@ -1,23 +1,55 @@
 package com.laylarodas.quicknotes.model;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Define las categorías disponibles para las notas con sus colores asociados.
  */
 public enum NoteCategory {
-    NONE("Sin categoría", "#6750A4"),           // Púrpura (default)
-    WORK("Trabajo", "#1976D2"),                 // Azul
-    PERSONAL("Personal", "#388E3C"),            // Verde
-    IDEAS("Ideas", "#FBC02D"),                  // Amarillo
-    IMPORTANT("Importante", "#D32F2F"),         // Rojo
-    SHOPPING("Compras", "#00796B"),             // Verde azulado
-    STUDY("Estudio", "#7B1FA2");                // Púrpura oscuro
+    // El código es el valor guardado en la base de datos (columna "category").
+    // NO cambiar los códigos existentes: las notas guardadas dejarían de coincidir.
+    NONE(0, "Sin categoría", "#6750A4"),           // Púrpura (default)
+    WORK(1, "Trabajo", "#1976D2"),                 // Azul
+    PERSONAL(2, "Personal", "#388E3C"),            // Verde
+    IDEAS(3, "Ideas", "#FBC02D"),                  // Amarillo
+    IMPORTANT(4, "Importante", "#D32F2F"),         // Rojo
+    SHOPPING(5, "Compras", "#00796B"),             // Verde azulado
+    STUDY(6, "Estudio", "#7B1FA2");                // Púrpura oscuro
+    
+    // Búsqueda por nombre sin excepciones (valueOf() lanza IllegalArgumentException si no existe)
+    private static final Map<String, NoteCategory> BY_NAME = new HashMap<>();
+    // Búsqueda por código: el índice del array es el código
+    private static final NoteCategory[] BY_CODE;
+    static {
+        int maxCode = 0;
+        for (NoteCategory category : values()) {
+            BY_NAME.put(category.name(), category);
+            maxCode = Math.max(maxCode, category.code);
+        }
+        BY_CODE = new NoteCategory[maxCode + 1];
+        for (NoteCategory category : values()) {
+            BY_CODE[category.code] = category;
+        }
+    }
     
+    private final int code;
     private final String displayName;
     private final String colorHex;
+    private final int color;
     
-    NoteCategory(String displayName, String colorHex) {
+    NoteCategory(int code, String displayName, String colorHex) {
+        this.code = code;
         this.displayName = displayName;
         this.colorHex = colorHex;
+        this.color = parseColor(colorHex);
+    }
+    
+    /**
+     * Código que se guarda en la base de datos (ver NoteTypeConverters).
+     */
+    public int getCode() {
+        return code;
     }
     
     public String getDisplayName() {
@@ -28,19 +60,43 @@ public enum NoteCategory {
         return colorHex;
     }
     
+    /**
+     * Color ya convertido a int ARGB (listo para setBackgroundColor).
+     * Se calcula una sola vez, no en cada bind.
+     */
+    public int getColor() {
+        return color;
+    }
+    
     /**
      * Obtiene una categoría por su nombre.
      * Si no existe, devuelve NONE.
      */
     public static NoteCategory fromString(String name) {
-        if (name == null || name.isEmpty()) {
+        if (name == null) {
             return NONE;
         }
-        try {
-            return valueOf(name);
-        } catch (IllegalArgumentException e) {
+        NoteCategory category = BY_NAME.get(name);
+        return category != null ? category : NONE;
+    }
+    
+    /**
+     * Obtiene una categoría por su código de base de datos.
+     * Si no existe, devuelve NONE.
+     */
+    public static NoteCategory fromCode(int code) {
+        if (code < 0 || code >= BY_CODE.length || BY_CODE[code] == null) {
             return NONE;
         }
+        return BY_CODE[code];
+    }
+    
+    /**
+     * Convierte "#RRGGBB" a int ARGB opaco (igual que Color.parseColor,
+     * pero sin depender de Android para poder usarse en el módulo de benchmarks).
+     */
+    private static int parseColor(String colorHex) {
+        return (int) (0xFF000000L | Long.parseLong(colorHex.substring(1), 16));
     }
 }
 
@@ -0,0 +1,67 @@
+package com.laylarodas.quicknotes.model;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Cambio de UNA nota en una transacción (ver NoteChangeSet).
+ * - Insertada: before == null
+ * - Eliminada: after == null
+ * - Actualizada: before y after
+ *
+ * note es la nota completa cuando el título o el contenido pudieron cambiar (insert/update),
+ * para que la búsqueda pueda volver a comprobarla sin consultar SQLite.
+ * Es null si el texto no cambió (fijar, cambiar categoría, borrar).
+ */
+public class NoteChange {
+
+    @NonNull
+    private final String id;
+    @Nullable
+    private final NoteSummary before;
+    @Nullable
+    private final NoteSummary after;
+    @Nullable
+    private final Note note;
+
+    public NoteChange(@NonNull String id, @Nullable NoteSummary before, @Nullable NoteSummary after, @Nullable Note note) {
+        this.id = id;
+        this.before = before;
+        this.after = after;
+        this.note = note;
+    }
+
+    @NonNull
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Estado antes de la transacción (null si la nota es nueva).
+     */
+    @Nullable
+    public NoteSummary getBefore() {
+        return before;
+    }
+
+    /**
+     * Estado después de la transacción (null si se eliminó).
+     */
+    @Nullable
+    public NoteSummary getAfter() {
+        return after;
+    }
+
+    @Nullable
+    public Note getNote() {
+        return note;
+    }
+
+    public boolean isInsert() {
+        return before == null;
+    }
+
+    public boolean isDelete() {
+        return after == null;
+    }
+}
@@ -0,0 +1,54 @@
+package com.laylarodas.quicknotes.model;
+
+import androidx.annotation.NonNull;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Notas insertadas, actualizadas y eliminadas por una transacción que ya hizo commit.
+ * Lo emite NoteWriteExecutor después de cada lote; la lista, los conteos y la búsqueda
+ * se corrigen con estos cambios en lugar de volver a consultar la tabla entera.
+ *
+ * Cada nota aparece una sola vez (los cambios de la misma nota en la transacción se combinan).
+ * cleared indica que la transacción borró todas las notas: en ese caso conviene recargar;
+ * getChanges() solo contiene lo que se hizo después del borrado.
+ *
+ * sequence crece con cada transacción: quien carga los datos desde SQLite anota la secuencia
+ * que vio y descarta los cambios que ya estaban incluidos en esa carga.
+ */
+public class NoteChangeSet {
+
+    public static final NoteChangeSet EMPTY = new NoteChangeSet(0, Collections.emptyList(), false);
+
+    private final long sequence;
+    private final List<NoteChange> changes;
+    private final boolean cleared;
+
+    public NoteChangeSet(long sequence, @NonNull List<NoteChange> changes, boolean cleared) {
+        this.sequence = sequence;
+        this.changes = Collections.unmodifiableList(changes);
+        this.cleared = cleared;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    @NonNull
+    public List<NoteChange> getChanges() {
+        return changes;
+    }
+
+    public boolean isCleared() {
+        return cleared;
+    }
+
+    public boolean isEmpty() {
+        return changes.isEmpty() && !cleared;
+    }
+
+    public int size() {
+        return changes.size();
+    }
+}
@@ -0,0 +1,65 @@
+package com.laylarodas.quicknotes.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.PrimaryKey;
+
+/**
+ * Contenido completo de una nota, separado de note_table.
+ *
+ * note_table solo guarda lo que necesita la lista (título, preview, fechas...),
+ * así recorrer la lista no arrastra los cuerpos largos por la cache de páginas.
+ * El contenido se lee de aquí solo al abrir, buscar o exportar una nota.
+ *
+ * body puede estar comprimido (encoding = ENCODING_DEFLATE), ver database.NoteBodyCodec.
+ * length es el tamaño original en bytes UTF-8.
+ * Al borrar la nota se borra su contenido (ON DELETE CASCADE).
+ */
+@Entity(tableName = "note_content",
+        foreignKeys = @ForeignKey(entity = Note.class, parentColumns = "id", childColumns = "noteId",
+                onDelete = ForeignKey.CASCADE))
+public class NoteContent {
+
+    public static final int ENCODING_PLAIN = 0;
+    public static final int ENCODING_DEFLATE = 1;
+
+    @PrimaryKey
+    @NonNull
+    @ColumnInfo(name = "noteId")
+    private final String noteId;
+
+    @ColumnInfo(name = "encoding")
+    private final int encoding;
+
+    @ColumnInfo(name = "length")
+    private final int length;
+
+    @ColumnInfo(name = "body", typeAffinity = ColumnInfo.BLOB)
+    private final byte[] body;
+
+    public NoteContent(@NonNull String noteId, int encoding, int length, byte[] body) {
+        this.noteId = noteId;
+        this.encoding = encoding;
+        this.length = length;
+        this.body = body;
+    }
+
+    @NonNull
+    public String getNoteId() {
+        return noteId;
+    }
+
+    public int getEncoding() {
+        return encoding;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+}
@@ -0,0 +1,43 @@
+package com.laylarodas.quicknotes.model;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Fts4;
+import androidx.room.FtsOptions;
+
+/**
+ * Tabla virtual FTS4 (Full-Text Search) que indexa el título y el contenido de las notas.
+ *
+ * Tabla FTS4 normal: guarda su propia copia del texto (sin comprimir) además del índice.
+ * El contenido de note_content está comprimido y SQLite no lo puede leer, así que no hay
+ * triggers de Room: NoteDao indexa cada nota y la borra del índice (DELETE ... WHERE docid)
+ * en la misma transacción que la escribe. El docid de cada fila es el rowid de la nota en note_table.
+ * Esa copia ocupa lo mismo que el texto: es lo que cuesta no tener que descomprimir
+ * note_content para buscar, editar o borrar.
+ *
+ * El tokenizer unicode61 separa palabras respetando acentos y eñes
+ * y no distingue mayúsculas de minúsculas.
+ */
+@Fts4(tokenizer = FtsOptions.TOKENIZER_UNICODE61)
+@Entity(tableName = "note_fts")
+public class NoteFts {
+
+    @ColumnInfo(name = "title")
+    private String title;
+
+    @ColumnInfo(name = "content")
+    private String content;
+
+    public NoteFts(String title, String content) {
+        this.title = title;
+        this.content = content;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getContent() {
+        return content;
+    }
+}
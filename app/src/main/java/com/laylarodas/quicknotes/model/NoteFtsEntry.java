@@ -0,0 +1,38 @@
+package com.laylarodas.quicknotes.model;
+
+import androidx.room.ColumnInfo;
+
+/**
+ * Lo que se indexó de una nota en note_fts: docid (rowid de note_table), título y contenido.
+ * Se lee de la copia sin comprimir que guarda note_fts (sin tocar note_content),
+ * para quitar del vocabulario las palabras de las notas que se borran o cambian.
+ */
+public class NoteFtsEntry {
+
+    @ColumnInfo(name = "docid")
+    private final long docId;
+
+    @ColumnInfo(name = "title")
+    private final String title;
+
+    @ColumnInfo(name = "content")
+    private final String content;
+
+    public NoteFtsEntry(long docId, String title, String content) {
+        this.docId = docId;
+        this.title = title;
+        this.content = content;
+    }
+
+    public long getDocId() {
+        return docId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getContent() {
+        return content;
+    }
+}
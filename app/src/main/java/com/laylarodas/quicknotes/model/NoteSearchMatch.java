@@ -0,0 +1,34 @@
+package com.laylarodas.quicknotes.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Embedded;
+
+/**
+ * Resultado de una búsqueda FTS junto con el contenido que indexó note_fts
+ * (la copia sin comprimir: no hace falta descomprimir note_content).
+ * NoteSearchPipeline lo usa para refinar los resultados en memoria mientras se escribe.
+ */
+public class NoteSearchMatch {
+
+    @NonNull
+    @Embedded
+    private final NoteSummary summary;
+
+    @ColumnInfo(name = "searchContent")
+    private final String searchContent;
+
+    public NoteSearchMatch(@NonNull NoteSummary summary, String searchContent) {
+        this.summary = summary;
+        this.searchContent = searchContent;
+    }
+
+    @NonNull
+    public NoteSummary getSummary() {
+        return summary;
+    }
+
+    public String getSearchContent() {
+        return searchContent;
+    }
+}
@@ -0,0 +1,59 @@
+package com.laylarodas.quicknotes.model;
+
+import java.util.List;
+
+/**
+ * Resumen de cuántas notas hay: total, fijadas y por categoría.
+ * Se calcula a partir de los pocos CategoryCount del GROUP BY
+ * (como mucho 2 filas por categoría), nunca cargando las notas.
+ */
+public class NoteStats {
+
+    public static final NoteStats EMPTY = new NoteStats(0, 0, new int[NoteCategory.values().length]);
+
+    private final int total;
+    private final int pinned;
+    private final int[] countByCategory; // Índice: NoteCategory.ordinal()
+
+    private NoteStats(int total, int pinned, int[] countByCategory) {
+        this.total = total;
+        this.pinned = pinned;
+        this.countByCategory = countByCategory;
+    }
+
+    /**
+     * Suma los conteos por categoría y pin.
+     */
+    public static NoteStats from(List<CategoryCount> counts) {
+        if (counts == null || counts.isEmpty()) {
+            return EMPTY;
+        }
+        int total = 0;
+        int pinned = 0;
+        int[] countByCategory = new int[NoteCategory.values().length];
+        for (CategoryCount count : counts) {
+            total += count.getCount();
+            if (count.isPinned()) {
+                pinned += count.getCount();
+            }
+            countByCategory[count.getCategory().ordinal()] += count.getCount();
+        }
+        return new NoteStats(total, pinned, countByCategory);
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getPinnedCount() {
+        return pinned;
+    }
+
+    public int getCount(NoteCategory category) {
+        return countByCategory[category.ordinal()];
+    }
+
+    public boolean isEmpty() {
+        return total == 0;
+    }
+}
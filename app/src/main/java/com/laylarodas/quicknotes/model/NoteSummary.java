@@ -0,0 +1,121 @@
+package com.laylarodas.quicknotes.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+
+/**
+ * Proyección ligera de una nota para la lista principal.
+ *
+ * La tarjeta de la lista solo muestra el título, un par de líneas de contenido,
+ * la fecha, la categoría y el pin. En lugar de cargar el contenido completo
+ * (que puede ocupar varios KB), las consultas de lista devuelven solo un
+ * "preview": los primeros PREVIEW_LENGTH caracteres, guardados aparte en note_table
+ * (el contenido completo está en note_content).
+ *
+ * La nota completa (Note) se carga por ID solo cuando se abre para editar.
+ * No es una tabla: Room la llena con el resultado de las consultas de NoteDao.
+ */
+public class NoteSummary {
+
+    // Caracteres de contenido que se cargan para la tarjeta (ver NoteDao.SUMMARY_COLUMNS)
+    public static final int PREVIEW_LENGTH = 200;
+
+    @NonNull
+    @ColumnInfo(name = "id")
+    private final String id;
+
+    @ColumnInfo(name = "title")
+    private final String title;
+
+    @ColumnInfo(name = "preview")
+    private final String preview;
+
+    @ColumnInfo(name = "createdAt")
+    private final long createdAt;
+
+    @ColumnInfo(name = "modifiedAt")
+    private final long modifiedAt;
+
+    @NonNull
+    @ColumnInfo(name = "category")
+    private final NoteCategory category;
+
+    @ColumnInfo(name = "isPinned")
+    private final boolean isPinned;
+
+    public NoteSummary(@NonNull String id, String title, String preview, long createdAt, long modifiedAt, NoteCategory category, boolean isPinned) {
+        this.id = id;
+        this.title = title;
+        this.preview = preview;
+        this.createdAt = createdAt;
+        this.modifiedAt = modifiedAt;
+        this.category = category != null ? category : NoteCategory.NONE;
+        this.isPinned = isPinned;
+    }
+
+    /**
+     * Recorta el contenido al preview que se guarda en note_table.
+     */
+    public static String previewOf(String content) {
+        return content != null && content.length() > PREVIEW_LENGTH
+                ? content.substring(0, PREVIEW_LENGTH)
+                : content;
+    }
+    
+    /**
+     * Crea el resumen a partir de una nota (mismo preview que guarda note_table).
+     */
+    public static NoteSummary from(Note note) {
+        return new NoteSummary(note.getId(), note.getTitle(), note.getPreview(), note.getCreatedAt(),
+                note.getModifiedAt(), note.getCategory(), note.isPinned());
+    }
+
+    /**
+     * Copia con otro estado de pin (el resto de campos igual, modifiedAt incluido).
+     */
+    public NoteSummary withPinned(boolean pinned) {
+        return new NoteSummary(id, title, preview, createdAt, modifiedAt, category, pinned);
+    }
+
+    /**
+     * Copia con otra categoría (el resto de campos igual, modifiedAt incluido).
+     */
+    public NoteSummary withCategory(NoteCategory category) {
+        return new NoteSummary(id, title, preview, createdAt, modifiedAt, category, isPinned);
+    }
+
+    // ==================== GETTERS ====================
+
+    @NonNull
+    public String getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * Inicio del contenido (como mucho PREVIEW_LENGTH caracteres).
+     */
+    public String getPreview() {
+        return preview;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public long getModifiedAt() {
+        return modifiedAt;
+    }
+
+    @NonNull
+    public NoteCategory getCategory() {
+        return category;
+    }
+
+    public boolean isPinned() {
+        return isPinned;
+    }
+}
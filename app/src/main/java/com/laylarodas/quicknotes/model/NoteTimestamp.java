@@ -0,0 +1,32 @@
+package com.laylarodas.quicknotes.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+
+/**
+ * Proyección mínima de una nota: solo su ID y su fecha de modificación.
+ * No es una tabla: Room la llena con el resultado de NoteDao.getTimestamps().
+ */
+public class NoteTimestamp {
+
+    @NonNull
+    @ColumnInfo(name = "id")
+    private final String id;
+
+    @ColumnInfo(name = "modifiedAt")
+    private final long modifiedAt;
+
+    public NoteTimestamp(@NonNull String id, long modifiedAt) {
+        this.id = id;
+        this.modifiedAt = modifiedAt;
+    }
+
+    @NonNull
+    public String getId() {
+        return id;
+    }
+
+    public long getModifiedAt() {
+        return modifiedAt;
+    }
+}
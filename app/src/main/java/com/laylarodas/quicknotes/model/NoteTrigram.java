@@ -0,0 +1,38 @@
+package com.laylarodas.quicknotes.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+
+/**
+ * Índice de trigramas del vocabulario: una fila por cada trigrama de cada palabra de note_word
+ * ("casa" -> " ca", "cas", "asa", "sa ").
+ *
+ * La clave primaria (trigram, wordId) es el índice: dado un trigrama, SQLite encuentra
+ * las palabras que lo contienen sin recorrer la tabla. Las palabras con muchos trigramas
+ * en común con lo que escribió el usuario son los candidatos de la búsqueda aproximada.
+ */
+@Entity(tableName = "note_trigram", primaryKeys = {"trigram", "wordId"})
+public class NoteTrigram {
+
+    @NonNull
+    @ColumnInfo(name = "trigram")
+    private final String trigram;
+
+    @ColumnInfo(name = "wordId")
+    private final long wordId;
+
+    public NoteTrigram(@NonNull String trigram, long wordId) {
+        this.trigram = trigram;
+        this.wordId = wordId;
+    }
+
+    @NonNull
+    public String getTrigram() {
+        return trigram;
+    }
+
+    public long getWordId() {
+        return wordId;
+    }
+}
@@ -0,0 +1,36 @@
+package com.laylarodas.quicknotes.model;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.room.Embedded;
+
+/**
+ * Fila de note_table junto con su fila de note_content (LEFT JOIN en NoteDao).
+ * content es null si la nota no tiene fila de contenido.
+ * NoteDao la convierte en una Note completa descomprimiendo el contenido.
+ */
+public class NoteWithContent {
+
+    @NonNull
+    @Embedded
+    private final Note note;
+
+    @Nullable
+    @Embedded
+    private final NoteContent content;
+
+    public NoteWithContent(@NonNull Note note, @Nullable NoteContent content) {
+        this.note = note;
+        this.content = content;
+    }
+
+    @NonNull
+    public Note getNote() {
+        return note;
+    }
+
+    @Nullable
+    public NoteContent getContent() {
+        return content;
+    }
+}
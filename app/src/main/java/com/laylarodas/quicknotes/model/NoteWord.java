@@ -0,0 +1,48 @@
+package com.laylarodas.quicknotes.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * Palabra del vocabulario de las notas, para la búsqueda aproximada (con errores de tipeo).
+ *
+ * Cada palabra distinta (normalizada como en note_fts: minúsculas y sin acentos) aparece una vez,
+ * con el número de notas que la contienen; cuando llega a 0 se borra junto con sus trigramas.
+ * La mantiene NoteDao en cada escritura, igual que note_fts. Ver database.NoteWordIndex.
+ */
+@Entity(tableName = "note_word", indices = @Index(value = "word", unique = true))
+public class NoteWord {
+
+    @PrimaryKey(autoGenerate = true)
+    @ColumnInfo(name = "id")
+    private final long id;
+
+    @NonNull
+    @ColumnInfo(name = "word")
+    private final String word;
+
+    @ColumnInfo(name = "noteCount")
+    private final int noteCount;
+
+    public NoteWord(long id, @NonNull String word, int noteCount) {
+        this.id = id;
+        this.word = word;
+        this.noteCount = noteCount;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    @NonNull
+    public String getWord() {
+        return word;
+    }
+
+    public int getNoteCount() {
+        return noteCount;
+    }
+}
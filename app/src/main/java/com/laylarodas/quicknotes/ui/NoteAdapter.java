@@ -1,39 +1,75 @@
 package com.laylarodas.quicknotes.ui;
 
-import android.graphics.Color;
-import android.view.LayoutInflater;
-import android.view.View;
 import android.view.ViewGroup;
-import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
 import androidx.recyclerview.widget.RecyclerView;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
-import com.laylarodas.quicknotes.R;
-import com.laylarodas.quicknotes.model.Note;
-import com.laylarodas.quicknotes.model.NoteCategory;
-import com.laylarodas.quicknotes.utils.DateUtils;
+import com.laylarodas.quicknotes.model.NoteSummary;
 
 /**
- * Adapter básico para mostrar una lista de notas (texto simple).
- * Más adelante cambiaré List<String> por el modelo real (Note).
+ * Adapter que muestra la lista completa de notas.
+ *
+ * submitList() NO redibuja toda la lista: AsyncListDiffer calcula las diferencias
+ * en un hilo de background (DiffUtil + NoteDiffCallback) y solo notifica las filas
+ * que se insertaron, movieron, eliminaron o cambiaron. Así editar una nota
+ * solo vuelve a dibujar esa fila y se mantienen las animaciones.
+ *
+ * Selección múltiple: mientras haya notas seleccionadas (ver NoteSelection),
+ * un click marca/desmarca la nota en lugar de abrirla.
  */
-public class NoteAdapter extends RecyclerView.Adapter<NoteAdapter.NoteViewHolder> {
+public class NoteAdapter extends RecyclerView.Adapter<NoteViewHolder> {
 
-    private final List<Note> notes = new ArrayList<>();
+    private final AsyncListDiffer<NoteSummary> differ = new AsyncListDiffer<>(this, new NoteDiffCallback());
+    // IDs estables: cada ID de nota (String) recibe un long único mientras viva el adapter.
+    // Solo se guardan los de la lista actual (ver pruneStableIds); el contador nunca repite un long
+    private final Map<String, Long> stableIds = new HashMap<>();
+    private long nextStableId;
     private OnNoteClickListener onNoteClickListener;
     private OnNoteLongClickListener onNoteLongClickListener;
+    private final NoteSelection selection = new NoteSelection();
+    
+    // Compartido por todos los ViewHolders: traduce la posición a la nota actual
+    private final NoteViewHolder.ItemClickHandler clickHandler = new NoteViewHolder.ItemClickHandler() {
+        @Override
+        public void onItemClick(int position) {
+            if (selection.isActive()) {
+                toggleSelection(position);
+            } else if (onNoteClickListener != null) {
+                onNoteClickListener.onNoteClick(getNote(position), position);
+            }
+        }
+
+        @Override
+        public boolean onItemLongClick(int position) {
+            if (onNoteLongClickListener != null) {
+                onNoteLongClickListener.onNoteLongClick(getNote(position), position);
+                return true;
+            }
+            return false;
+        }
+    };
 
     // Interfaces para los listeners
     public interface OnNoteClickListener {
-        void onNoteClick(Note note, int position);
+        void onNoteClick(NoteSummary note, int position);
     }
 
     public interface OnNoteLongClickListener {
-        void onNoteLongClick(Note note, int position);
+        void onNoteLongClick(NoteSummary note, int position);
+    }
+
+    public NoteAdapter() {
+        setHasStableIds(true);
+        differ.addListListener((previousList, currentList) -> pruneStableIds(currentList));
     }
 
     // Setters para los listeners
@@ -45,92 +81,103 @@ public class NoteAdapter extends RecyclerView.Adapter<NoteAdapter.NoteViewHolder
         this.onNoteLongClickListener = listener;
     }
 
-    public void submitList(List<Note> newNotes){
-        notes.clear();
-        if (newNotes != null) notes.addAll(newNotes);
-        notifyDataSetChanged();
+    public void setOnSelectionChangedListener(NoteSelection.Listener listener) {
+        selection.setListener(listener);
     }
 
-    public void addNote(Note note){
-        notes.add(0,note);
-        notifyItemInserted(0);
+    // ==================== SELECCIÓN MÚLTIPLE ====================
+
+    public NoteSelection getSelection() {
+        return selection;
     }
 
-    public Note getNote(int position){
-        return notes.get(position);
+    /**
+     * Marca o desmarca la nota de esa posición (solo se redibuja el estado marcado de la fila).
+     */
+    public void toggleSelection(int position) {
+        selection.toggle(getNote(position).getId());
+        notifyItemChanged(position, NoteDiffCallback.PAYLOAD_SELECTION);
+    }
+
+    /**
+     * Desmarca todas las notas.
+     */
+    public void clearSelection() {
+        if (selection.clear()) {
+            notifyItemRangeChanged(0, getItemCount(), NoteDiffCallback.PAYLOAD_SELECTION);
+        }
+    }
+
+    /**
+     * Envía una nueva lista. El diff se calcula en background y los cambios
+     * se aplican en el hilo principal cuando termina.
+     */
+    public void submitList(List<NoteSummary> newNotes){
+        differ.submitList(newNotes);
+    }
+
+    public void addNote(NoteSummary note){
+        List<NoteSummary> newNotes = new ArrayList<>(differ.getCurrentList());
+        newNotes.add(0, note);
+        differ.submitList(newNotes);
+    }
+
+    public NoteSummary getNote(int position){
+        return differ.getCurrentList().get(position);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        String noteId = getNote(position).getId();
+        Long stableId = stableIds.get(noteId);
+        if (stableId == null) {
+            stableId = nextStableId++;
+            stableIds.put(noteId, stableId);
+        }
+        return stableId;
+    }
+
+    /**
+     * Olvida los IDs estables de las notas que ya no están en la lista,
+     * así el mapa no crece con cada nota borrada o filtrada por una búsqueda.
+     */
+    private void pruneStableIds(List<NoteSummary> currentList) {
+        if (stableIds.size() <= currentList.size()) {
+            return; // Todas las notas del mapa pueden seguir en la lista
+        }
+        Set<String> currentIds = new HashSet<>(currentList.size() * 2);
+        for (NoteSummary note : currentList) {
+            currentIds.add(note.getId());
+        }
+        stableIds.keySet().retainAll(currentIds);
     }
 
     @NonNull
     @Override
     public NoteViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType){
-        View itemView = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_note, parent, false);
-        return new NoteViewHolder(itemView);
+        return NoteViewHolder.create(parent, clickHandler);
     }
 
     @Override
     public void onBindViewHolder(@NonNull NoteViewHolder holder, int position){
-        Note note = notes.get(position);
-        
-        // Mostrar título
-        holder.tvNoteTitle.setText(note.getTitle());
-        
-        // Mostrar contenido (o un mensaje si está vacío)
-        String content = note.getContent();
-        if (content == null || content.trim().isEmpty()) {
-            holder.tvNoteContent.setText("Sin contenido");
-            holder.tvNoteContent.setAlpha(0.5f);
+        NoteSummary note = getNote(position);
+        holder.bind(note, selection.isSelected(note.getId()));
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull NoteViewHolder holder, int position, @NonNull List<Object> payloads){
+        if (payloads.isEmpty()) {
+            onBindViewHolder(holder, position);
         } else {
-            holder.tvNoteContent.setText(content);
-            holder.tvNoteContent.setAlpha(1.0f);
+            // Rebind parcial: solo las vistas que cambiaron
+            NoteSummary note = getNote(position);
+            holder.bind(note, selection.isSelected(note.getId()), payloads);
         }
-        
-        // Mostrar fecha de última modificación
-        holder.tvNoteDate.setText(DateUtils.getTimeAgo(note.getModifiedAt()));
-        
-        // Mostrar color de categoría en el indicador lateral
-        NoteCategory category = NoteCategory.fromString(note.getCategory());
-        holder.viewCategoryIndicator.setBackgroundColor(Color.parseColor(category.getColorHex()));
-        
-        // Mostrar indicador de nota pinned
-        holder.tvPinIndicator.setVisibility(note.isPinned() ? View.VISIBLE : View.GONE);
-        
-        // Configurar click listener para editar
-        holder.itemView.setOnClickListener(v -> {
-            if (onNoteClickListener != null) {
-                onNoteClickListener.onNoteClick(note, position);
-            }
-        });
-        
-        // Configurar long click listener para eliminar
-        holder.itemView.setOnLongClickListener(v -> {
-            if (onNoteLongClickListener != null) {
-                onNoteLongClickListener.onNoteLongClick(note, position);
-                return true;
-            }
-            return false;
-        });
     }
 
     @Override
     public int getItemCount(){
-        return notes.size();
-    }
-
-    public static class NoteViewHolder extends RecyclerView.ViewHolder{
-        final TextView tvNoteTitle;
-        final TextView tvNoteContent;
-        final TextView tvNoteDate;
-        final TextView tvPinIndicator;
-        final View viewCategoryIndicator;
-
-        NoteViewHolder(@NonNull View itemView){
-            super(itemView);
-            tvNoteTitle = itemView.findViewById(R.id.tvNoteTitle);
-            tvNoteContent = itemView.findViewById(R.id.tvNoteContent);
-            tvNoteDate = itemView.findViewById(R.id.tvNoteDate);
-            tvPinIndicator = itemView.findViewById(R.id.tvPinIndicator);
-            viewCategoryIndicator = itemView.findViewById(R.id.viewCategoryIndicator);
-        }
+        return differ.getCurrentList().size();
     }
 
 }
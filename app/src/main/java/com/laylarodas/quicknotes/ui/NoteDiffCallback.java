@@ -0,0 +1,55 @@
+package com.laylarodas.quicknotes.ui;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.DiffUtil;
+
+import com.laylarodas.quicknotes.model.NoteSummary;
+
+/**
+ * Compara dos notas para que DiffUtil sepa qué filas cambiaron.
+ * - Misma nota: mismo ID
+ * - Mismo contenido visible: misma fecha de modificación, pin y categoría
+ *   (editar título o contenido siempre actualiza modifiedAt)
+ *
+ * Si una fila cambió, getChangePayload() indica QUÉ cambió (flags PAYLOAD_*)
+ * para que el ViewHolder solo actualice esas vistas.
+ */
+public class NoteDiffCallback extends DiffUtil.ItemCallback<NoteSummary> {
+
+    // Flags de payload (se combinan con OR)
+    public static final int PAYLOAD_TEXT = 1;
+    public static final int PAYLOAD_DATE = 1 << 1;
+    public static final int PAYLOAD_CATEGORY = 1 << 2;
+    public static final int PAYLOAD_PIN = 1 << 3;
+    // No lo genera DiffUtil: lo envía el adapter al marcar/desmarcar filas (ver NoteSelection)
+    public static final int PAYLOAD_SELECTION = 1 << 4;
+
+    @Override
+    public boolean areItemsTheSame(@NonNull NoteSummary oldNote, @NonNull NoteSummary newNote) {
+        return oldNote.getId().equals(newNote.getId());
+    }
+
+    @Override
+    public boolean areContentsTheSame(@NonNull NoteSummary oldNote, @NonNull NoteSummary newNote) {
+        return oldNote.getModifiedAt() == newNote.getModifiedAt()
+                && oldNote.isPinned() == newNote.isPinned()
+                && oldNote.getCategory() == newNote.getCategory();
+    }
+
+    @Nullable
+    @Override
+    public Object getChangePayload(@NonNull NoteSummary oldNote, @NonNull NoteSummary newNote) {
+        int changes = 0;
+        if (oldNote.getModifiedAt() != newNote.getModifiedAt()) {
+            changes |= PAYLOAD_TEXT | PAYLOAD_DATE;
+        }
+        if (oldNote.getCategory() != newNote.getCategory()) {
+            changes |= PAYLOAD_CATEGORY;
+        }
+        if (oldNote.isPinned() != newNote.isPinned()) {
+            changes |= PAYLOAD_PIN;
+        }
+        return changes;
+    }
+}
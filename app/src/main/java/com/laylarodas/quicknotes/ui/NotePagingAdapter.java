@@ -0,0 +1,119 @@
+package com.laylarodas.quicknotes.ui;
+
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.paging.PagingDataAdapter;
+
+import com.laylarodas.quicknotes.model.NoteSummary;
+
+import java.util.List;
+
+/**
+ * Adapter paginado: en lugar de recibir la lista completa de notas,
+ * recibe PagingData y carga "ventanas" de notas a medida que el RecyclerView hace scroll.
+ * La memoria usada es constante aunque haya decenas de miles de notas.
+ *
+ * Las filas que aún no se han cargado llegan como null (placeholders) y no se dibujan.
+ * La selección múltiple funciona igual que en NoteAdapter (por ID, así sobrevive a las páginas nuevas).
+ */
+public class NotePagingAdapter extends PagingDataAdapter<NoteSummary, NoteViewHolder> {
+
+    private NoteAdapter.OnNoteClickListener onNoteClickListener;
+    private NoteAdapter.OnNoteLongClickListener onNoteLongClickListener;
+    private final NoteSelection selection = new NoteSelection();
+    
+    // Compartido por todos los ViewHolders (ver NoteAdapter).
+    // peek() devuelve la nota ya cargada sin disparar la carga de nuevas páginas
+    private final NoteViewHolder.ItemClickHandler clickHandler = new NoteViewHolder.ItemClickHandler() {
+        @Override
+        public void onItemClick(int position) {
+            NoteSummary current = peek(position);
+            if (current != null && selection.isActive()) {
+                toggleSelection(position);
+            } else if (onNoteClickListener != null && current != null) {
+                onNoteClickListener.onNoteClick(current, position);
+            }
+        }
+
+        @Override
+        public boolean onItemLongClick(int position) {
+            NoteSummary current = peek(position);
+            if (onNoteLongClickListener != null && current != null) {
+                onNoteLongClickListener.onNoteLongClick(current, position);
+                return true;
+            }
+            return false;
+        }
+    };
+
+    public NotePagingAdapter() {
+        super(new NoteDiffCallback());
+    }
+
+    // Setters para los listeners (mismas interfaces que NoteAdapter)
+    public void setOnNoteClickListener(NoteAdapter.OnNoteClickListener listener) {
+        this.onNoteClickListener = listener;
+    }
+
+    public void setOnNoteLongClickListener(NoteAdapter.OnNoteLongClickListener listener) {
+        this.onNoteLongClickListener = listener;
+    }
+
+    public void setOnSelectionChangedListener(NoteSelection.Listener listener) {
+        selection.setListener(listener);
+    }
+
+    // ==================== SELECCIÓN MÚLTIPLE ====================
+
+    public NoteSelection getSelection() {
+        return selection;
+    }
+
+    /**
+     * Marca o desmarca la nota de esa posición (si ya está cargada).
+     */
+    public void toggleSelection(int position) {
+        NoteSummary note = peek(position);
+        if (note != null) {
+            selection.toggle(note.getId());
+            notifyItemChanged(position, NoteDiffCallback.PAYLOAD_SELECTION);
+        }
+    }
+
+    /**
+     * Desmarca todas las notas.
+     */
+    public void clearSelection() {
+        if (selection.clear()) {
+            notifyItemRangeChanged(0, getItemCount(), NoteDiffCallback.PAYLOAD_SELECTION);
+        }
+    }
+
+    @NonNull
+    @Override
+    public NoteViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        return NoteViewHolder.create(parent, clickHandler);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull NoteViewHolder holder, int position) {
+        NoteSummary note = getItem(position);
+        if (note == null) {
+            return; // Placeholder: la página todavía se está cargando
+        }
+        
+        holder.bind(note, selection.isSelected(note.getId()));
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull NoteViewHolder holder, int position, @NonNull List<Object> payloads) {
+        NoteSummary note = getItem(position);
+        if (payloads.isEmpty() || note == null) {
+            onBindViewHolder(holder, position);
+        } else {
+            // Rebind parcial: solo las vistas que cambiaron
+            holder.bind(note, selection.isSelected(note.getId()), payloads);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.laylarodas.quicknotes.ui;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Notas seleccionadas en la lista (selección múltiple).
+ * Guarda IDs y no posiciones: la selección sigue siendo correcta aunque la lista
+ * se reordene o lleguen páginas nuevas mientras el usuario selecciona.
+ *
+ * La usan NoteAdapter y NotePagingAdapter; el adapter avisa a las filas con
+ * NoteDiffCallback.PAYLOAD_SELECTION para que solo cambie el estado "marcado".
+ */
+public class NoteSelection {
+
+    /**
+     * Recibe el número de notas seleccionadas cada vez que cambia la selección.
+     */
+    public interface Listener {
+        void onSelectionChanged(int count);
+    }
+
+    private final Set<String> selectedIds = new LinkedHashSet<>();
+    private Listener listener;
+
+    void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * true mientras haya al menos una nota seleccionada: los clicks marcan/desmarcan en lugar de abrir.
+     */
+    public boolean isActive() {
+        return !selectedIds.isEmpty();
+    }
+
+    public boolean isSelected(String noteId) {
+        return selectedIds.contains(noteId);
+    }
+
+    public int size() {
+        return selectedIds.size();
+    }
+
+    /**
+     * Copia de los IDs seleccionados, en el orden en que se marcaron.
+     */
+    public List<String> getSelectedIds() {
+        return new ArrayList<>(selectedIds);
+    }
+
+    /**
+     * Marca o desmarca la nota.
+     */
+    void toggle(String noteId) {
+        if (!selectedIds.remove(noteId)) {
+            selectedIds.add(noteId);
+        }
+        notifyListener();
+    }
+
+    /**
+     * Vacía la selección.
+     * @return true si había algo seleccionado
+     */
+    boolean clear() {
+        if (selectedIds.isEmpty()) {
+            return false;
+        }
+        selectedIds.clear();
+        notifyListener();
+        return true;
+    }
+
+    private void notifyListener() {
+        if (listener != null) {
+            listener.onSelectionChanged(selectedIds.size());
+        }
+    }
+}
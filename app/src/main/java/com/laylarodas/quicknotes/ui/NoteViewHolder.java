@@ -0,0 +1,145 @@
+package com.laylarodas.quicknotes.ui;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.google.android.material.card.MaterialCardView;
+import com.laylarodas.quicknotes.R;
+import com.laylarodas.quicknotes.model.NoteSummary;
+import com.laylarodas.quicknotes.utils.DateUtils;
+
+import java.util.List;
+
+/**
+ * ViewHolder de una tarjeta de nota (item_note.xml).
+ * Lo comparten NoteAdapter (lista completa) y NotePagingAdapter (lista paginada),
+ * así ambos muestran las notas exactamente igual.
+ */
+public class NoteViewHolder extends RecyclerView.ViewHolder {
+    final TextView tvNoteTitle;
+    final TextView tvNoteContent;
+    final TextView tvNoteDate;
+    final TextView tvPinIndicator;
+    final View viewCategoryIndicator;
+    final MaterialCardView cardView;
+
+    // Fecha mostrada en tvNoteDate y cuándo deja de ser correcta (lo usa TimeAgoTicker)
+    long dateTimestamp;
+    long dateValidUntil;
+
+    /**
+     * Recibe los clicks de la fila ya traducidos a posición en el adapter.
+     * Lo implementa cada adapter una sola vez (no se crean listeners en cada bind).
+     */
+    interface ItemClickHandler {
+        void onItemClick(int position);
+        boolean onItemLongClick(int position);
+    }
+
+    NoteViewHolder(@NonNull View itemView, @NonNull ItemClickHandler clickHandler) {
+        super(itemView);
+        tvNoteTitle = itemView.findViewById(R.id.tvNoteTitle);
+        tvNoteContent = itemView.findViewById(R.id.tvNoteContent);
+        tvNoteDate = itemView.findViewById(R.id.tvNoteDate);
+        tvPinIndicator = itemView.findViewById(R.id.tvPinIndicator);
+        viewCategoryIndicator = itemView.findViewById(R.id.viewCategoryIndicator);
+        cardView = (MaterialCardView) itemView;
+        
+        // Los listeners se crean una vez por ViewHolder y buscan la posición al hacer click,
+        // así siguen siendo correctos después de un rebind parcial o de un movimiento de la fila
+        itemView.setOnClickListener(v -> {
+            int position = getBindingAdapterPosition();
+            if (position != RecyclerView.NO_POSITION) {
+                clickHandler.onItemClick(position);
+            }
+        });
+        itemView.setOnLongClickListener(v -> {
+            int position = getBindingAdapterPosition();
+            return position != RecyclerView.NO_POSITION && clickHandler.onItemLongClick(position);
+        });
+    }
+
+    static NoteViewHolder create(@NonNull ViewGroup parent, @NonNull ItemClickHandler clickHandler) {
+        View itemView = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_note, parent, false);
+        return new NoteViewHolder(itemView, clickHandler);
+    }
+
+    /**
+     * Muestra los datos de la nota en la tarjeta.
+     * @param selected true si la nota está marcada en la selección múltiple
+     */
+    void bind(NoteSummary note, boolean selected) {
+        bindText(note);
+        bindDate(note);
+        bindCategory(note);
+        bindPin(note);
+        bindSelection(selected);
+    }
+
+    /**
+     * Rebind parcial: solo actualiza las vistas indicadas en los payloads
+     * (flags de NoteDiffCallback). Si no hay payloads, hace el bind completo.
+     */
+    void bind(NoteSummary note, boolean selected, List<Object> payloads) {
+        if (payloads.isEmpty()) {
+            bind(note, selected);
+            return;
+        }
+        int changes = 0;
+        for (int i = 0; i < payloads.size(); i++) { // Sin Iterator: no asigna memoria en cada bind
+            Object payload = payloads.get(i);
+            if (payload instanceof Integer) {
+                changes |= (Integer) payload;
+            }
+        }
+        if ((changes & NoteDiffCallback.PAYLOAD_TEXT) != 0) bindText(note);
+        if ((changes & NoteDiffCallback.PAYLOAD_DATE) != 0) bindDate(note);
+        if ((changes & NoteDiffCallback.PAYLOAD_CATEGORY) != 0) bindCategory(note);
+        if ((changes & NoteDiffCallback.PAYLOAD_PIN) != 0) bindPin(note);
+        if ((changes & NoteDiffCallback.PAYLOAD_SELECTION) != 0) bindSelection(selected);
+    }
+
+    private void bindText(NoteSummary note) {
+        // Mostrar título
+        tvNoteTitle.setText(note.getTitle());
+        
+        // Mostrar el inicio del contenido (o un mensaje si está vacío)
+        String preview = note.getPreview();
+        if (preview == null || preview.trim().isEmpty()) {
+            tvNoteContent.setText("Sin contenido");
+            tvNoteContent.setAlpha(0.5f);
+        } else {
+            tvNoteContent.setText(preview);
+            tvNoteContent.setAlpha(1.0f);
+        }
+    }
+
+    private void bindDate(NoteSummary note) {
+        // Mostrar fecha de última modificación
+        long now = System.currentTimeMillis();
+        dateTimestamp = note.getModifiedAt();
+        dateValidUntil = DateUtils.getNextTimeAgoChange(dateTimestamp, now);
+        tvNoteDate.setText(DateUtils.getTimeAgo(dateTimestamp, now));
+    }
+
+    private void bindCategory(NoteSummary note) {
+        // Mostrar color de categoría en el indicador lateral
+        viewCategoryIndicator.setBackgroundColor(note.getCategory().getColor());
+    }
+
+    private void bindPin(NoteSummary note) {
+        // Mostrar indicador de nota pinned
+        tvPinIndicator.setVisibility(note.isPinned() ? View.VISIBLE : View.GONE);
+    }
+
+    private void bindSelection(boolean selected) {
+        // Tarjeta marcada (con el check de MaterialCardView) mientras está seleccionada
+        cardView.setChecked(selected);
+        itemView.setActivated(selected);
+    }
+}
@@ -0,0 +1,135 @@
+package com.laylarodas.quicknotes.ui;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleOwner;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.laylarodas.quicknotes.utils.DateUtils;
+
+/**
+ * Mantiene al día las fechas relativas ("Hace 5 minutos") de las filas visibles.
+ *
+ * En vez de un timer por fila o de notifyDataSetChanged() cada minuto:
+ * - Calcula con DateUtils.getNextTimeAgoChange() cuándo cambia la etiqueta de cada fila visible
+ * - Programa un único tick para el cambio más próximo
+ * - En el tick, hace notifyItemChanged(position, PAYLOAD_DATE) solo en las filas que cambiaron,
+ *   así NoteViewHolder actualiza tvNoteDate y nada más
+ *
+ * Funciona con NoteAdapter y NotePagingAdapter (ambos usan NoteViewHolder).
+ * Solo corre mientras la pantalla está visible (entre onStart y onStop).
+ */
+public class TimeAgoTicker implements DefaultLifecycleObserver {
+
+    // Margen para que el tick caiga después del cambio y no justo antes
+    private static final long TICK_SLACK_MS = 50;
+
+    private final RecyclerView recyclerView;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable tick = this::tick;
+
+    private boolean running;
+    private long scheduledAt = Long.MAX_VALUE; // Momento del próximo tick programado
+
+    private TimeAgoTicker(RecyclerView recyclerView) {
+        this.recyclerView = recyclerView;
+        // Las filas que entran al hacer scroll pueden cambiar antes que el tick programado
+        recyclerView.addOnChildAttachStateChangeListener(new RecyclerView.OnChildAttachStateChangeListener() {
+            @Override
+            public void onChildViewAttachedToWindow(@NonNull View view) {
+                onRowAttached(view);
+            }
+
+            @Override
+            public void onChildViewDetachedFromWindow(@NonNull View view) {
+                // El tick siguiente simplemente ignora las filas que ya no están
+            }
+        });
+    }
+
+    /**
+     * Conecta el ticker a la lista; se inicia y detiene solo con el ciclo de vida.
+     */
+    public static TimeAgoTicker attach(RecyclerView recyclerView, Lifecycle lifecycle) {
+        TimeAgoTicker ticker = new TimeAgoTicker(recyclerView);
+        lifecycle.addObserver(ticker);
+        return ticker;
+    }
+
+    @Override
+    public void onStart(@NonNull LifecycleOwner owner) {
+        running = true;
+        // Al volver a la pantalla pudieron quedar etiquetas viejas: se revisan todas ya
+        tick();
+    }
+
+    @Override
+    public void onStop(@NonNull LifecycleOwner owner) {
+        running = false;
+        cancelTick();
+    }
+
+    // ==================== TICK ====================
+
+    private void tick() {
+        scheduledAt = Long.MAX_VALUE;
+        if (!running) {
+            return;
+        }
+        RecyclerView.Adapter<?> adapter = recyclerView.getAdapter();
+        long now = System.currentTimeMillis();
+        long nextChange = Long.MAX_VALUE;
+
+        for (int i = 0; i < recyclerView.getChildCount(); i++) {
+            NoteViewHolder holder = getNoteViewHolder(recyclerView.getChildAt(i));
+            if (holder == null) {
+                continue;
+            }
+            int position = holder.getBindingAdapterPosition();
+            // La etiqueta mostrada ya no es correcta: rebind solo de la fecha
+            if (adapter != null && position != RecyclerView.NO_POSITION && holder.dateValidUntil <= now) {
+                adapter.notifyItemChanged(position, NoteDiffCallback.PAYLOAD_DATE);
+            }
+            nextChange = Math.min(nextChange, DateUtils.getNextTimeAgoChange(holder.dateTimestamp, now));
+        }
+        schedule(nextChange);
+    }
+
+    private void onRowAttached(View view) {
+        if (!running) {
+            return;
+        }
+        NoteViewHolder holder = getNoteViewHolder(view);
+        if (holder != null) {
+            schedule(holder.dateValidUntil);
+        }
+    }
+
+    /**
+     * Programa el tick en "at" si es antes que el que ya está programado.
+     */
+    private void schedule(long at) {
+        if (at == Long.MAX_VALUE || at >= scheduledAt) {
+            return;
+        }
+        cancelTick();
+        scheduledAt = at;
+        long delay = Math.max(0, at - System.currentTimeMillis()) + TICK_SLACK_MS;
+        handler.postDelayed(tick, delay);
+    }
+
+    private void cancelTick() {
+        handler.removeCallbacks(tick);
+        scheduledAt = Long.MAX_VALUE;
+    }
+
+    private NoteViewHolder getNoteViewHolder(View view) {
+        RecyclerView.ViewHolder holder = recyclerView.getChildViewHolder(view);
+        return holder instanceof NoteViewHolder ? (NoteViewHolder) holder : null;
+    }
+}
@@ -5,46 +5,133 @@ import java.util.Date;
 import java.util.Locale;
 
 public class DateUtils {
-    
+
+    private static final long MINUTE_MS = 60 * 1000L;
+    private static final long HOUR_MS = 60 * MINUTE_MS;
+    private static final long DAY_MS = 24 * HOUR_MS;
+    private static final long MONTH_MS = 30 * DAY_MS;
+    private static final long YEAR_MS = 365 * DAY_MS;
+
+    private static final Locale LOCALE_ES = new Locale("es", "ES");
+    private static final String FORMATTED_DATE_PATTERN = "dd MMM yyyy, HH:mm";
+
+    // ==================== ETIQUETAS PRECALCULADAS ====================
+    // getTimeAgo() se llama en cada bind del RecyclerView: en vez de concatenar
+    // un String nuevo cada vez, se devuelve siempre la misma instancia de estas tablas.
+
+    private static final String[] MINUTES_LABELS = buildLabels(60, "minuto", "minutos");
+    private static final String[] HOURS_LABELS = buildLabels(24, "hora", "horas");
+    private static final String[] DAYS_LABELS = buildLabels(30, "día", "días");
+    private static final String[] MONTHS_LABELS = buildLabels(12, "mes", "meses");
+    private static final String[] YEARS_LABELS = buildLabels(100, "año", "años");
+
+    private static String[] buildLabels(int count, String singular, String plural) {
+        String[] labels = new String[count];
+        for (int i = 1; i < count; i++) {
+            labels[i] = i == 1 ? "Hace 1 " + singular : "Hace " + i + " " + plural;
+        }
+        return labels;
+    }
+
+    // ==================== FORMATO DE FECHA ====================
+    // SimpleDateFormat no es thread-safe y crearlo es caro: se reutiliza uno por hilo.
+    // (java.time.DateTimeFormatter requiere API 26 y la app soporta desde API 24)
+
+    private static final ThreadLocal<DateFormatter> DATE_FORMATTER = new ThreadLocal<DateFormatter>() {
+        @Override
+        protected DateFormatter initialValue() {
+            return new DateFormatter();
+        }
+    };
+
+    private static class DateFormatter {
+        final SimpleDateFormat format = new SimpleDateFormat(FORMATTED_DATE_PATTERN, LOCALE_ES);
+        final Date date = new Date();
+        // El formato tiene precisión de minutos: si se pide el mismo minuto, se reutiliza el resultado
+        long lastMinute = Long.MIN_VALUE;
+        String lastFormatted;
+
+        String format(long timestamp) {
+            long minute = Math.floorDiv(timestamp, MINUTE_MS);
+            if (minute != lastMinute) {
+                date.setTime(timestamp);
+                lastFormatted = format.format(date);
+                lastMinute = minute;
+            }
+            return lastFormatted;
+        }
+    }
+
     /**
      * Formatea un timestamp a un formato amigable como "Hace 5 minutos"
      * @param timestamp El timestamp en milisegundos
      * @return String formateado de forma amigable
      */
     public static String getTimeAgo(long timestamp) {
-        long now = System.currentTimeMillis();
+        return getTimeAgo(timestamp, System.currentTimeMillis());
+    }
+
+    /**
+     * Igual que getTimeAgo(long), pero con la hora actual como parámetro
+     * (para tests/benchmarks o para calcular varias filas con el mismo "ahora").
+     */
+    public static String getTimeAgo(long timestamp, long now) {
         long diff = now - timestamp;
-        
+
         long seconds = diff / 1000;
         long minutes = seconds / 60;
         long hours = minutes / 60;
         long days = hours / 24;
         long months = days / 30;
         long years = days / 365;
-        
+
         if (seconds < 60) {
             return "Ahora mismo";
         } else if (minutes < 60) {
-            return minutes == 1 ? "Hace 1 minuto" : "Hace " + minutes + " minutos";
+            return MINUTES_LABELS[(int) minutes];
         } else if (hours < 24) {
-            return hours == 1 ? "Hace 1 hora" : "Hace " + hours + " horas";
+            return HOURS_LABELS[(int) hours];
         } else if (days < 30) {
-            return days == 1 ? "Hace 1 día" : "Hace " + days + " días";
+            return DAYS_LABELS[(int) days];
         } else if (months < 12) {
-            return months == 1 ? "Hace 1 mes" : "Hace " + months + " meses";
+            return MONTHS_LABELS[(int) months];
+        } else if (years < YEARS_LABELS.length) {
+            // days entre 360 y 364 da months = 12 y years = 0: se muestra como "Hace 1 año"
+            return YEARS_LABELS[(int) Math.max(years, 1)];
+        } else {
+            return "Hace " + years + " años";
+        }
+    }
+
+    /**
+     * Momento (en milisegundos) en que cambiará el texto de getTimeAgo() para este timestamp.
+     * Ej: una nota de hace 5 min 20 s cambia a "Hace 6 minutos" dentro de 40 s.
+     * Sirve para refrescar las etiquetas justo cuando hace falta, sin timers por fila.
+     */
+    public static long getNextTimeAgoChange(long timestamp, long now) {
+        long diff = Math.max(0, now - timestamp);
+        long unit;
+        if (diff < HOUR_MS) {
+            unit = MINUTE_MS;       // "Ahora mismo" y minutos
+        } else if (diff < DAY_MS) {
+            unit = HOUR_MS;
+        } else if (diff < MONTH_MS) {
+            unit = DAY_MS;
+        } else if (diff < 12 * MONTH_MS) {
+            unit = MONTH_MS;
         } else {
-            return years == 1 ? "Hace 1 año" : "Hace " + years + " años";
+            // Los días 360-364 ya se muestran como "Hace 1 año" (ver getTimeAgo)
+            return timestamp + (Math.max(diff / YEAR_MS, 1) + 1) * YEAR_MS;
         }
+        return timestamp + (diff / unit + 1) * unit;
     }
-    
+
     /**
      * Formatea un timestamp a formato de fecha completa
      * @param timestamp El timestamp en milisegundos
      * @return String con la fecha en formato "dd MMM yyyy, HH:mm"
      */
     public static String getFormattedDate(long timestamp) {
-        SimpleDateFormat sdf = new SimpleDateFormat("dd MMM yyyy, HH:mm", new Locale("es", "ES"));
-        return sdf.format(new Date(timestamp));
+        return DATE_FORMATTER.get().format(timestamp);
     }
 }
-
@@ -0,0 +1,150 @@
+package com.laylarodas.quicknotes.utils;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+public class SearchUtils {
+
+    /**
+     * Convierte el texto escrito por el usuario en una expresión MATCH de FTS4.
+     * Cada palabra se convierte en una búsqueda por prefijo ("cas" -> "\"cas*\""),
+     * y todas las palabras deben aparecer (AND implícito).
+     * Los signos de puntuación se descartan y cada palabra va entre comillas, así "or", "not",
+     * "near" o un guion no funcionan como operadores de MATCH.
+     *
+     * @param query Texto de búsqueda tal como lo escribe el usuario
+     * @return Expresión MATCH, o cadena vacía si no hay palabras buscables
+     */
+    public static String buildMatchQuery(String query) {
+        if (query == null) {
+            return "";
+        }
+        StringBuilder match = new StringBuilder();
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i < query.length(); i++) {
+            char c = query.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                token.append(c);
+            } else {
+                appendPrefixToken(match, token);
+            }
+        }
+        appendPrefixToken(match, token);
+        return match.toString();
+    }
+
+    private static void appendPrefixToken(StringBuilder match, StringBuilder token) {
+        if (token.length() == 0) {
+            return;
+        }
+        if (match.length() > 0) {
+            match.append(' ');
+        }
+        match.append(quoteToken(token.toString(), true));
+        token.setLength(0);
+    }
+
+    /**
+     * Una palabra como término de MATCH, entre comillas para que nunca sea un operador.
+     * En FTS4 el asterisco del prefijo va DENTRO de las comillas ("cas*"); fuera se ignora.
+     *
+     * @param prefix true para buscar palabras que empiezan así, false para la palabra exacta
+     */
+    public static String quoteToken(String token, boolean prefix) {
+        return '"' + token.replace("\"", "\"\"") + (prefix ? "*\"" : "\"");
+    }
+
+    // ==================== BÚSQUEDA EN MEMORIA ====================
+    // Reproducen en Java lo que hace el tokenizer unicode61 de note_fts,
+    // para poder filtrar resultados ya cargados sin volver a consultar SQLite.
+
+    /**
+     * Normaliza un texto igual que unicode61: minúsculas y sin acentos ("Canción" -> "cancion").
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder normalized = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                normalized.append(c);
+            }
+        }
+        return normalized.toString().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Separa la búsqueda en palabras normalizadas (las mismas que buildMatchQuery).
+     */
+    public static List<String> tokenize(String query) {
+        List<String> tokens = new ArrayList<>();
+        String normalized = normalize(query);
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean isTokenChar = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (isTokenChar && start < 0) {
+                start = i;
+            } else if (!isTokenChar && start >= 0) {
+                tokens.add(normalized.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Indica si todos los tokens aparecen como INICIO de alguna palabra del texto,
+     * igual que la expresión MATCH "token1* token2*".
+     *
+     * @param normalizedText Texto ya pasado por normalize()
+     * @param tokens Palabras de la búsqueda (tokenize())
+     */
+    public static boolean matchesAllPrefixes(String normalizedText, List<String> tokens) {
+        for (String token : tokens) {
+            if (!containsWordPrefix(normalizedText, token)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean containsWordPrefix(String text, String prefix) {
+        int index = text.indexOf(prefix);
+        while (index >= 0) {
+            if (index == 0 || !Character.isLetterOrDigit(text.charAt(index - 1))) {
+                return true;
+            }
+            index = text.indexOf(prefix, index + 1);
+        }
+        return false;
+    }
+
+    /**
+     * Indica si una búsqueda es más restrictiva que otra: todo lo que encuentre "narrower"
+     * también lo encontraba "broader" (ej: "cas" -> "casa", "casa" -> "casa ver").
+     * Se cumple si cada token anterior es prefijo de algún token nuevo.
+     */
+    public static boolean isNarrowing(List<String> broader, List<String> narrower) {
+        if (broader.isEmpty()) {
+            return false;
+        }
+        for (String previous : broader) {
+            boolean extended = false;
+            for (String current : narrower) {
+                if (current.startsWith(previous)) {
+                    extended = true;
+                    break;
+                }
+            }
+            if (!extended) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,419 @@
+package com.laylarodas.quicknotes.viewmodel;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.laylarodas.quicknotes.database.NoteRepository;
+import com.laylarodas.quicknotes.database.QueryMetrics;
+import com.laylarodas.quicknotes.model.Note;
+import com.laylarodas.quicknotes.model.NoteChange;
+import com.laylarodas.quicknotes.model.NoteChangeSet;
+import com.laylarodas.quicknotes.model.NoteSearchMatch;
+import com.laylarodas.quicknotes.model.NoteSummary;
+import com.laylarodas.quicknotes.utils.SearchUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pipeline de búsqueda mientras el usuario escribe.
+ *
+ * 1. Debounce: espera debounceMs sin cambios antes de buscar (no una consulta por tecla)
+ * 2. Cancelación: cada búsqueda nueva invalida la anterior; si todavía no empezó no se ejecuta,
+ *    y si ya estaba corriendo su resultado se descarta
+ * 3. Filtrado incremental: si la búsqueda nueva solo agrega letras/palabras a la anterior
+ *    ("cas" -> "casa"), se filtran en memoria los resultados anteriores sin consultar SQLite
+ * 4. Cambios por fila: si se edita una nota con la búsqueda abierta, los resultados en memoria
+ *    se corrigen solo con las notas que cambiaron (applyChanges), sin repetir la consulta
+ * 5. Búsqueda aproximada: si nada coincide exactamente (¿error de tipeo?), se muestran
+ *    las notas con palabras parecidas (NoteRepository.searchNotesFuzzySync)
+ * 6. Métricas: tiempo de cada etapa (debounce, SQLite, filtro en memoria)
+ *
+ * Se usa desde el hilo principal. Las consultas y el filtrado corren en un hilo de background.
+ */
+public class NoteSearchPipeline {
+
+    static final long DEFAULT_DEBOUNCE_MS = 250;
+    // Más resultados que esto no se guardan para filtrar en memoria (se vuelve a SQLite).
+    // Es también el LIMIT de la consulta que trae el texto: nunca se lee el de más notas
+    static final int NARROWING_MAX_RESULTS = 1000;
+
+    private final NoteRepository repository;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final ExecutorService searchExecutor = Executors.newSingleThreadExecutor();
+    private final MutableLiveData<List<NoteSummary>> results = new MutableLiveData<>();
+    private final Metrics metrics = new Metrics();
+
+    // Cada búsqueda tiene un número; solo se publica el resultado de la última
+    private final AtomicInteger generation = new AtomicInteger();
+
+    private long debounceMs = DEFAULT_DEBOUNCE_MS;
+    private String currentQuery = "";
+    private long queryChangedAt;
+    private Runnable pendingDebounce;
+    private Future<?> runningSearch;
+    private NarrowingCache narrowingCache; // Resultados de la última búsqueda a SQLite
+
+    NoteSearchPipeline(NoteRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Resultados de la última búsqueda (ya convertidos a NoteSummary para la lista).
+     */
+    LiveData<List<NoteSummary>> getResults() {
+        return results;
+    }
+
+    void setDebounceMs(long debounceMs) {
+        this.debounceMs = Math.max(0, debounceMs);
+    }
+
+    /**
+     * Nueva búsqueda escrita por el usuario. Se ejecuta tras el debounce.
+     */
+    void submit(String query) {
+        currentQuery = query;
+        queryChangedAt = SystemClock.elapsedRealtime();
+        // Invalida la búsqueda en curso: su resultado ya no sirve
+        generation.incrementAndGet();
+        cancelPendingDebounce();
+        pendingDebounce = () -> runSearch(true);
+        mainHandler.postDelayed(pendingDebounce, debounceMs);
+    }
+
+    /**
+     * Vuelve a ejecutar la búsqueda actual contra SQLite, sin debounce ni filtrado en memoria.
+     * Se usa cuando cambian las notas y los resultados no se pueden corregir en memoria.
+     */
+    void refresh() {
+        if (currentQuery.isEmpty()) {
+            return;
+        }
+        narrowingCache = null;
+        queryChangedAt = SystemClock.elapsedRealtime();
+        cancelPendingDebounce();
+        runSearch(false);
+    }
+
+    /**
+     * Cambiaron notas mientras hay una búsqueda activa (ver NoteRepository.addChangeListener).
+     * Si los resultados están en memoria, solo se vuelven a comprobar las notas que cambiaron.
+     * Si no (búsqueda LIKE, demasiados resultados, se borró todo o hay una búsqueda a medias),
+     * se repite la consulta con refresh().
+     */
+    void applyChanges(NoteChangeSet changes) {
+        if (currentQuery.isEmpty()) {
+            return;
+        }
+        NarrowingCache cache = narrowingCache;
+        boolean idle = pendingDebounce == null && (runningSearch == null || runningSearch.isDone());
+        if (cache == null || changes.isCleared() || !idle) {
+            refresh();
+            return;
+        }
+        // Mientras se corrige, una búsqueda nueva no debe partir de los resultados viejos
+        narrowingCache = null;
+        final int searchGeneration = generation.incrementAndGet();
+        runningSearch = searchExecutor.submit(() -> {
+            if (searchGeneration != generation.get()) {
+                return;
+            }
+            long start = SystemClock.elapsedRealtime();
+            NarrowingCache result = cache.apply(changes.getChanges());
+            long elapsedMs = SystemClock.elapsedRealtime() - start;
+            mainHandler.post(() -> publish(searchGeneration, result, result.notes, true, false, 0, elapsedMs));
+        });
+    }
+
+    /**
+     * Cancela la búsqueda pendiente (ej: el usuario borró el texto).
+     */
+    void cancel() {
+        currentQuery = "";
+        generation.incrementAndGet();
+        cancelPendingDebounce();
+        cancelRunningSearch();
+        narrowingCache = null;
+    }
+
+    void shutdown() {
+        cancel();
+        searchExecutor.shutdownNow();
+    }
+
+    Metrics getMetrics() {
+        return metrics;
+    }
+
+    // ==================== EJECUCIÓN ====================
+
+    private void runSearch(boolean allowNarrowing) {
+        pendingDebounce = null;
+        final int searchGeneration = generation.incrementAndGet();
+        final String query = currentQuery;
+        final List<String> tokens = SearchUtils.tokenize(query);
+        final long debounceWaitMs = SystemClock.elapsedRealtime() - queryChangedAt;
+
+        // ¿Podemos filtrar en memoria los resultados anteriores?
+        final NarrowingCache previous = allowNarrowing && narrowingCache != null
+                && SearchUtils.isNarrowing(narrowingCache.tokens, tokens) ? narrowingCache : null;
+
+        cancelRunningSearch();
+        // Envuelta por QueryMetrics: mide las consultas de la búsqueda (si está activado)
+        runningSearch = searchExecutor.submit(QueryMetrics.wrap(() -> {
+            if (searchGeneration != generation.get()) {
+                return; // Reemplazada antes de empezar
+            }
+            long start = SystemClock.elapsedRealtime();
+            NarrowingCache result;
+            List<NoteSummary> summaries;
+            boolean narrowed = previous != null;
+            if (narrowed) {
+                result = previous.filter(tokens);
+                summaries = result.notes;
+            } else {
+                result = searchWithContent(query, tokens);
+                // Demasiados resultados (o búsqueda LIKE): solo los NoteSummary, sin el texto
+                summaries = result != null ? result.notes : repository.searchNotesSync(query);
+            }
+            boolean fuzzy = summaries.isEmpty() && !tokens.isEmpty() && searchGeneration == generation.get();
+            if (fuzzy) {
+                // Sin coincidencias exactas: notas con palabras parecidas, de la más parecida a la menos.
+                // No se guardan para filtrar en memoria (la siguiente tecla vuelve a SQLite)
+                summaries = repository.searchNotesFuzzySync(query);
+            }
+            long elapsedMs = SystemClock.elapsedRealtime() - start;
+            NarrowingCache cache = fuzzy ? null : result;
+            List<NoteSummary> published = summaries;
+            mainHandler.post(() -> publish(searchGeneration, cache, published, narrowed && !fuzzy, fuzzy,
+                    debounceWaitMs, elapsedMs));
+        }));
+    }
+
+    /**
+     * Resultados con el texto de cada nota para poder refinarlos en memoria, si son como mucho
+     * NARROWING_MAX_RESULTS. SQLite devuelve uno más como máximo (LIMIT) para saber si hay más:
+     * en ese caso, o si la búsqueda no tiene palabras, devuelve null.
+     */
+    private NarrowingCache searchWithContent(String query, List<String> tokens) {
+        if (tokens.isEmpty()) {
+            return null;
+        }
+        List<NoteSearchMatch> matches = repository.searchNotesWithContentSync(query, NARROWING_MAX_RESULTS + 1);
+        return matches.size() <= NARROWING_MAX_RESULTS ? NarrowingCache.of(tokens, matches) : null;
+    }
+
+    private void publish(int searchGeneration, NarrowingCache result, List<NoteSummary> summaries,
+                         boolean narrowed, boolean fuzzy, long debounceWaitMs, long elapsedMs) {
+        if (searchGeneration != generation.get()) {
+            metrics.discarded++;
+            return; // Llegó tarde: ya hay una búsqueda más nueva
+        }
+        // Solo guardamos resultados de búsquedas con palabras (el LIKE y la aproximada no se pueden refinar)
+        narrowingCache = result != null && !result.tokens.isEmpty()
+                && result.notes.size() <= NARROWING_MAX_RESULTS ? result : null;
+        results.setValue(summaries);
+        metrics.record(narrowed, fuzzy, debounceWaitMs, elapsedMs, summaries.size());
+    }
+
+    private void cancelPendingDebounce() {
+        if (pendingDebounce != null) {
+            mainHandler.removeCallbacks(pendingDebounce);
+            pendingDebounce = null;
+        }
+    }
+
+    private void cancelRunningSearch() {
+        if (runningSearch != null) {
+            // false: no interrumpimos el hilo a mitad de una consulta de SQLite;
+            // si ya empezó, su resultado se descarta en publish()
+            if (runningSearch.cancel(false)) {
+                metrics.cancelled++;
+            }
+            runningSearch = null;
+        }
+    }
+
+    // ==================== FILTRADO EN MEMORIA ====================
+
+    /**
+     * Resultados completos de una búsqueda, con el texto ya normalizado
+     * para poder refinarlos sin volver a SQLite.
+     */
+    private static class NarrowingCache {
+        final List<String> tokens;
+        final List<NoteSummary> notes;
+        final List<String> normalizedTexts;
+
+        private NarrowingCache(List<String> tokens, List<NoteSummary> notes, List<String> normalizedTexts) {
+            this.tokens = tokens;
+            this.notes = notes;
+            this.normalizedTexts = normalizedTexts;
+        }
+
+        static NarrowingCache of(List<String> tokens, List<NoteSearchMatch> matches) {
+            List<NoteSummary> notes = new ArrayList<>(matches.size());
+            List<String> texts = new ArrayList<>(matches.size());
+            for (NoteSearchMatch match : matches) {
+                notes.add(match.getSummary());
+                texts.add(SearchUtils.normalize(match.getSummary().getTitle() + " " + match.getSearchContent()));
+            }
+            return new NarrowingCache(tokens, Collections.unmodifiableList(notes), texts);
+        }
+
+        NarrowingCache filter(List<String> newTokens) {
+            List<NoteSummary> notes = new ArrayList<>();
+            List<String> texts = new ArrayList<>();
+            for (int i = 0; i < this.notes.size(); i++) {
+                if (SearchUtils.matchesAllPrefixes(normalizedTexts.get(i), newTokens)) {
+                    notes.add(this.notes.get(i));
+                    texts.add(normalizedTexts.get(i));
+                }
+            }
+            return new NarrowingCache(newTokens, Collections.unmodifiableList(notes), texts);
+        }
+
+        /**
+         * Resultados corregidos con los cambios de una transacción, en el mismo orden que SQLite
+         * (pinned primero, luego por fecha de modificación).
+         * - Nota con texto nuevo (o insertada): se vuelve a comprobar si coincide
+         * - Solo pin/categoría: sigue en los resultados si ya estaba, con los datos nuevos
+         * - Eliminada: se quita
+         */
+        NarrowingCache apply(List<NoteChange> changes) {
+            Map<String, Integer> positions = new HashMap<>();
+            List<NoteSummary> notes = new ArrayList<>(this.notes);
+            List<String> texts = new ArrayList<>(normalizedTexts);
+            for (int i = 0; i < notes.size(); i++) {
+                positions.put(notes.get(i).getId(), i);
+            }
+            boolean[] removed = new boolean[notes.size()];
+            for (NoteChange change : changes) {
+                Integer position = positions.get(change.getId());
+                NoteSummary after = change.getAfter();
+                Note changed = change.getNote();
+                if (after != null && changed != null) {
+                    String text = SearchUtils.normalize(changed.getTitle() + " " + changed.getContent());
+                    if (SearchUtils.matchesAllPrefixes(text, tokens)) {
+                        if (position != null) {
+                            notes.set(position, after);
+                            texts.set(position, text);
+                        } else {
+                            notes.add(after);
+                            texts.add(text);
+                        }
+                        continue;
+                    }
+                } else if (after != null && position != null) {
+                    // Mismo texto: basta con los datos nuevos de la fila
+                    notes.set(position, after);
+                    continue;
+                }
+                if (position != null) {
+                    removed[position] = true; // Eliminada o ya no coincide
+                }
+            }
+
+            List<Integer> order = new ArrayList<>(notes.size());
+            for (int i = 0; i < notes.size(); i++) {
+                if (i >= removed.length || !removed[i]) {
+                    order.add(i);
+                }
+            }
+            order.sort((a, b) -> {
+                NoteSummary noteA = notes.get(a);
+                NoteSummary noteB = notes.get(b);
+                if (noteA.isPinned() != noteB.isPinned()) {
+                    return noteA.isPinned() ? -1 : 1;
+                }
+                return Long.compare(noteB.getModifiedAt(), noteA.getModifiedAt());
+            });
+            List<NoteSummary> sortedNotes = new ArrayList<>(order.size());
+            List<String> sortedTexts = new ArrayList<>(order.size());
+            for (int i : order) {
+                sortedNotes.add(notes.get(i));
+                sortedTexts.add(texts.get(i));
+            }
+            return new NarrowingCache(tokens, Collections.unmodifiableList(sortedNotes), sortedTexts);
+        }
+    }
+
+    // ==================== MÉTRICAS ====================
+
+    /**
+     * Latencia por etapa de la última búsqueda y contadores acumulados.
+     * Solo se modifica en el hilo principal.
+     */
+    public static class Metrics {
+        private int searches;          // Búsquedas publicadas
+        private int sqliteSearches;    // ...de ellas, consultadas en SQLite
+        private int narrowedSearches;  // ...de ellas, filtradas en memoria
+        private int fuzzySearches;     // ...de ellas, sin coincidencias exactas (búsqueda aproximada)
+        private int cancelled;         // Búsquedas canceladas antes de empezar
+        private int discarded;         // Búsquedas que terminaron pero ya estaban reemplazadas
+        private long lastDebounceMs;
+        private long lastQueryMs;      // Tiempo en SQLite (0 si se filtró en memoria)
+        private long lastFilterMs;     // Tiempo filtrando en memoria (0 si se consultó SQLite)
+        private long totalQueryMs;
+        private long totalFilterMs;
+        private int lastResultCount;
+
+        void record(boolean narrowed, boolean fuzzy, long debounceWaitMs, long elapsedMs, int resultCount) {
+            searches++;
+            if (fuzzy) {
+                fuzzySearches++;
+            }
+            lastDebounceMs = debounceWaitMs;
+            lastResultCount = resultCount;
+            if (narrowed) {
+                narrowedSearches++;
+                lastFilterMs = elapsedMs;
+                lastQueryMs = 0;
+                totalFilterMs += elapsedMs;
+            } else {
+                sqliteSearches++;
+                lastQueryMs = elapsedMs;
+                lastFilterMs = 0;
+                totalQueryMs += elapsedMs;
+            }
+        }
+
+        public int getSearches() { return searches; }
+        public int getSqliteSearches() { return sqliteSearches; }
+        public int getNarrowedSearches() { return narrowedSearches; }
+        public int getFuzzySearches() { return fuzzySearches; }
+        public int getCancelled() { return cancelled; }
+        public int getDiscarded() { return discarded; }
+        public long getLastDebounceMs() { return lastDebounceMs; }
+        public long getLastQueryMs() { return lastQueryMs; }
+        public long getLastFilterMs() { return lastFilterMs; }
+
+        public long getAverageQueryMs() {
+            return sqliteSearches == 0 ? 0 : totalQueryMs / sqliteSearches;
+        }
+
+        public long getAverageFilterMs() {
+            return narrowedSearches == 0 ? 0 : totalFilterMs / narrowedSearches;
+        }
+
+        @Override
+        public String toString() {
+            return "búsqueda: debounce=" + lastDebounceMs + "ms sqlite=" + lastQueryMs
+                    + "ms memoria=" + lastFilterMs + "ms resultados=" + lastResultCount
+                    + " | total=" + searches + " (sqlite=" + sqliteSearches + ", memoria=" + narrowedSearches
+                    + ", aproximadas=" + fuzzySearches + ") canceladas=" + cancelled + " descartadas=" + discarded;
+        }
+    }
+}
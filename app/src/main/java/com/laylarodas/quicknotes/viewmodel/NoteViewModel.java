@@ -1,17 +1,31 @@
 package com.laylarodas.quicknotes.viewmodel;
 
 import android.app.Application;
+import android.net.Uri;
 
 import androidx.annotation.NonNull;
 import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MediatorLiveData;
 import androidx.lifecycle.MutableLiveData;
-import androidx.lifecycle.Transformations;
+import androidx.lifecycle.ViewModelKt;
+import androidx.paging.Pager;
+import androidx.paging.PagingConfig;
+import androidx.paging.PagingData;
+import androidx.paging.PagingLiveData;
+import androidx.paging.PagingSource;
 
+import com.laylarodas.quicknotes.backup.BackupProgress;
 import com.laylarodas.quicknotes.database.NoteRepository;
+import com.laylarodas.quicknotes.database.NoteWriteExecutor;
 import com.laylarodas.quicknotes.model.Note;
+import com.laylarodas.quicknotes.model.NoteCategory;
+import com.laylarodas.quicknotes.model.NoteStats;
+import com.laylarodas.quicknotes.model.NoteSummary;
 
+import java.io.File;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * ViewModel para gestionar los datos de las notas.
@@ -28,7 +42,7 @@ import java.util.List;
 public class NoteViewModel extends AndroidViewModel {
     
     private NoteRepository repository;
-    private LiveData<List<Note>> allNotes;
+    private final LiveData<List<NoteSummary>> allNotes;
     
     // LiveData para el query de búsqueda actual
     private MutableLiveData<String> searchQuery = new MutableLiveData<>("");
@@ -36,6 +50,29 @@ public class NoteViewModel extends AndroidViewModel {
     // LiveData para el modo de ordenamiento actual
     private String currentSortMode = "modified";
     
+    // Tamaño de página para la lista paginada
+    private static final int PAGE_SIZE = 50;
+    
+    // Un solo Pager: al cambiar la búsqueda, el orden o la categoría se invalida el PagingSource
+    // actual y el Pager pide otro a la fábrica, que lee el estado de ese momento
+    private LiveData<PagingData<NoteSummary>> pagedNotes;
+    // volatile: se cambian en el hilo principal y Paging los lee en su propio hilo
+    private volatile String pagingQuery = "";
+    private volatile PagingSource<Integer, NoteSummary> currentPagingSource;
+    
+    // Búsqueda con debounce/cancelación y resultados combinados para la lista completa
+    private final NoteSearchPipeline searchPipeline;
+    private MediatorLiveData<List<NoteSummary>> searchResults;
+    // Con búsqueda activa, cada escritura corrige los resultados en memoria (ver NoteSearchPipeline.applyChanges)
+    private final NoteWriteExecutor.ChangeListener searchChangeListener;
+    
+    // true hasta que llega la primera lista real (mientras, se muestra la copia de la primera pantalla)
+    private boolean showingStartupSnapshot;
+    
+    // Progreso de la exportación/importación actual (null si no hay ninguna)
+    private final MutableLiveData<BackupProgress> exportProgress = new MutableLiveData<>();
+    private final MutableLiveData<BackupProgress> importProgress = new MutableLiveData<>();
+    
     /**
      * Constructor: Inicializa el Repository y carga las notas
      */
@@ -43,6 +80,21 @@ public class NoteViewModel extends AndroidViewModel {
         super(application);
         repository = new NoteRepository(application);
         allNotes = repository.getAllNotes();
+        searchPipeline = new NoteSearchPipeline(repository);
+        searchChangeListener = changes -> {
+            if (isSearching()) {
+                searchPipeline.applyChanges(changes);
+            }
+        };
+        repository.addChangeListener(searchChangeListener);
+    }
+    
+    @Override
+    protected void onCleared() {
+        super.onCleared();
+        repository.removeChangeListener(searchChangeListener);
+        repository.close();
+        searchPipeline.shutdown();
     }
     
     // ==================== OPERACIONES CRUD ====================
@@ -80,6 +132,21 @@ public class NoteViewModel extends AndroidViewModel {
         repository.delete(note);
     }
     
+    /**
+     * Carga la nota completa por su ID (la lista solo tiene NoteSummary).
+     * El future se completa en un hilo de background.
+     */
+    public CompletableFuture<Note> getNoteById(String id) {
+        return repository.getNoteById(id);
+    }
+    
+    /**
+     * Carga las notas completas con esos IDs (para poder deshacer un borrado en lote).
+     */
+    public CompletableFuture<List<Note>> getNotesByIds(List<String> ids) {
+        return repository.getNotesByIds(ids);
+    }
+    
     /**
      * Elimina todas las notas (útil para testing).
      */
@@ -87,34 +154,128 @@ public class NoteViewModel extends AndroidViewModel {
         repository.deleteAllNotes();
     }
     
+    // ==================== OPERACIONES EN LOTE ====================
+    // Para la selección múltiple: una transacción por operación, no una por nota
+    
+    /**
+     * Elimina las notas seleccionadas.
+     */
+    public void deleteByIds(List<String> ids) {
+        repository.deleteByIds(ids);
+    }
+    
+    /**
+     * Fija o desfija las notas seleccionadas.
+     */
+    public void setPinned(List<String> ids, boolean pinned) {
+        repository.setPinned(ids, pinned);
+    }
+    
+    /**
+     * Cambia la categoría de las notas seleccionadas.
+     */
+    public void setCategory(List<String> ids, NoteCategory category) {
+        repository.setCategory(ids, category);
+    }
+    
     // ==================== LIVEDATA OBSERVABLES ====================
     
     /**
-     * Obtiene todas las notas según el ordenamiento y búsqueda actual.
-     * La UI observa este LiveData y se actualiza automáticamente.
+     * Obtiene las notas filtradas por búsqueda.
+     * Sin búsqueda muestra allNotes; con búsqueda muestra los resultados de NoteSearchPipeline
+     * (con debounce, así no se consulta SQLite en cada tecla).
+     * Se crea una sola vez: al rotar la pantalla se reutiliza el mismo LiveData.
+     */
+    public LiveData<List<NoteSummary>> getSearchResults() {
+        if (searchResults == null) {
+            searchResults = new MediatorLiveData<>();
+            // Arranque en frío: la copia de la primera pantalla se muestra hasta que responde la BD
+            if (allNotes.getValue() == null) {
+                showingStartupSnapshot = true;
+                searchResults.addSource(repository.getStartupSnapshot(), snapshot -> {
+                    if (snapshot != null && showingStartupSnapshot && !isSearching()) {
+                        searchResults.setValue(snapshot);
+                    }
+                });
+            }
+            searchResults.addSource(allNotes, this::onAllNotesChanged);
+            searchResults.addSource(searchPipeline.getResults(), results -> {
+                if (isSearching()) {
+                    searchResults.setValue(results);
+                }
+            });
+        }
+        return searchResults;
+    }
+    
+    /**
+     * Cambiaron las notas: sin búsqueda se muestran tal cual.
+     * Con búsqueda no se hace nada aquí: searchChangeListener ya corrige los resultados.
      */
-    public LiveData<List<Note>> getAllNotes() {
+    private void onAllNotesChanged(List<NoteSummary> notes) {
+        if (showingStartupSnapshot) {
+            // La lista real reemplaza a la copia (el adapter solo actualiza las filas distintas)
+            showingStartupSnapshot = false;
+            searchResults.removeSource(repository.getStartupSnapshot());
+            repository.releaseStartupSnapshot();
+        }
+        if (!isSearching()) {
+            searchResults.setValue(notes);
+        }
+    }
+    
+    /**
+     * true mientras la lista muestra la copia guardada y no la consulta real.
+     */
+    public boolean isShowingStartupSnapshot() {
+        return showingStartupSnapshot;
+    }
+    
+    private boolean isSearching() {
         String query = searchQuery.getValue();
-        if (query != null && !query.trim().isEmpty()) {
-            // Si hay búsqueda activa, retornar resultados filtrados
-            return repository.searchNotes(query);
+        return query != null && !query.trim().isEmpty();
+    }
+    
+    /**
+     * Obtiene las notas paginadas según el ordenamiento y búsqueda actual.
+     * Solo se cargan las páginas que el RecyclerView necesita mostrar.
+     * cachedIn() guarda las páginas en el scope del ViewModel para que sobrevivan a rotaciones.
+     * El Pager se crea una sola vez (ver invalidatePaging()).
+     */
+    public LiveData<PagingData<NoteSummary>> getPagedNotes() {
+        if (pagedNotes == null) {
+            Pager<Integer, NoteSummary> pager = new Pager<>(
+                    new PagingConfig(PAGE_SIZE, PAGE_SIZE, false),
+                    this::createPagingSource);
+            pagedNotes = PagingLiveData.cachedIn(PagingLiveData.getLiveData(pager),
+                    ViewModelKt.getViewModelScope(this));
         }
-        // Si no hay búsqueda, retornar todas las notas
-        return allNotes;
+        return pagedNotes;
     }
     
     /**
-     * Obtiene las notas filtradas por búsqueda.
-     * Usa Transformations.switchMap para cambiar dinámicamente el LiveData según la query.
-     */
-    public LiveData<List<Note>> getSearchResults() {
-        return Transformations.switchMap(searchQuery, query -> {
-            if (query == null || query.trim().isEmpty()) {
-                return allNotes;
-            } else {
-                return repository.searchNotes(query);
-            }
-        });
+     * Fábrica del Pager: se llama al empezar y cada vez que se invalida el PagingSource anterior
+     * (por invalidatePaging() o porque Room detectó cambios en las tablas).
+     */
+    private PagingSource<Integer, NoteSummary> createPagingSource() {
+        String query = pagingQuery;
+        PagingSource<Integer, NoteSummary> source = query.trim().isEmpty()
+                ? repository.getNotesPagingSource()
+                : repository.searchNotesPagingSource(query);
+        currentPagingSource = source;
+        return source;
+    }
+    
+    /**
+     * Cambió la búsqueda, el orden o la categoría: la lista paginada vuelve a cargar
+     * con el estado nuevo, en el mismo Pager.
+     */
+    private void invalidatePaging() {
+        pagingQuery = searchQuery.getValue() == null ? "" : searchQuery.getValue();
+        PagingSource<Integer, NoteSummary> source = currentPagingSource;
+        if (source != null) {
+            source.invalidate();
+        }
     }
     
     // ==================== BÚSQUEDA ====================
@@ -124,7 +285,31 @@ public class NoteViewModel extends AndroidViewModel {
      * Al cambiar este valor, el LiveData se actualiza automáticamente.
      */
     public void setSearchQuery(String query) {
-        searchQuery.setValue(query == null ? "" : query);
+        String newQuery = query == null ? "" : query;
+        if (newQuery.equals(searchQuery.getValue())) {
+            return;
+        }
+        searchQuery.setValue(newQuery);
+        invalidatePaging();
+        if (isSearching()) {
+            searchPipeline.submit(newQuery);
+        } else {
+            showAllNotes();
+        }
+    }
+    
+    /**
+     * Cambia la espera entre la última tecla y la búsqueda (por defecto 250 ms).
+     */
+    public void setSearchDebounceMs(long debounceMs) {
+        searchPipeline.setDebounceMs(debounceMs);
+    }
+    
+    /**
+     * Latencias y contadores de la búsqueda (debounce, SQLite, filtrado en memoria).
+     */
+    public NoteSearchPipeline.Metrics getSearchMetrics() {
+        return searchPipeline.getMetrics();
     }
     
     /**
@@ -139,6 +324,18 @@ public class NoteViewModel extends AndroidViewModel {
      */
     public void clearSearch() {
         searchQuery.setValue("");
+        invalidatePaging();
+        showAllNotes();
+    }
+    
+    /**
+     * Sin búsqueda: cancela la pendiente y muestra de inmediato todas las notas.
+     */
+    private void showAllNotes() {
+        searchPipeline.cancel();
+        if (searchResults != null && allNotes.getValue() != null) {
+            searchResults.setValue(allNotes.getValue());
+        }
     }
     
     // ==================== ORDENAMIENTO ====================
@@ -151,10 +348,19 @@ public class NoteViewModel extends AndroidViewModel {
         if (!currentSortMode.equals(sortMode)) {
             currentSortMode = sortMode;
             repository.setSortMode(sortMode);
-            allNotes = repository.getAllNotes();
+            reloadAllNotes();
         }
     }
     
+    /**
+     * Orden o categoría distintos. La lista completa no cambia de LiveData: el repositorio
+     * reordena en memoria y emite en el mismo allNotes (onAllNotesChanged la recibe).
+     * La lista paginada sí necesita un PagingSource nuevo con la consulta correspondiente.
+     */
+    private void reloadAllNotes() {
+        invalidatePaging();
+    }
+    
     /**
      * Obtiene el modo de ordenamiento actual.
      */
@@ -162,6 +368,83 @@ public class NoteViewModel extends AndroidViewModel {
         return currentSortMode;
     }
     
+    // ==================== FILTRO POR CATEGORÍA ====================
+    
+    /**
+     * Muestra solo las notas de una categoría.
+     * @param category Categoría a mostrar, o null para mostrar todas
+     */
+    public void setCategoryFilter(NoteCategory category) {
+        if (category != repository.getCategoryFilter()) {
+            repository.setCategoryFilter(category);
+            reloadAllNotes();
+        }
+    }
+    
+    /**
+     * Categoría filtrada actualmente (null = todas).
+     */
+    public NoteCategory getCategoryFilter() {
+        return repository.getCategoryFilter();
+    }
+    
+    // ==================== CONTEOS ====================
+    
+    /**
+     * Total de notas, fijadas y por categoría, sin cargar las notas
+     * (para el estado vacío y el filtro de categorías).
+     */
+    public LiveData<NoteStats> getNoteStats() {
+        return repository.getNoteStats();
+    }
+    
+    // ==================== EXPORTACIÓN / IMPORTACIÓN ====================
+    
+    /**
+     * Exporta todas las notas a un archivo JSON en background.
+     * El avance se publica en getExportProgress().
+     */
+    public void exportNotes(File file) {
+        repository.exportNotes(file, exportProgress::postValue);
+    }
+    
+    /**
+     * Progreso de la exportación (RUNNING, DONE o ERROR).
+     */
+    public LiveData<BackupProgress> getExportProgress() {
+        return exportProgress;
+    }
+    
+    /**
+     * Olvida el resultado de la última exportación (ya se mostró al usuario).
+     * Evita que se vuelva a mostrar al rotar la pantalla.
+     */
+    public void clearExportProgress() {
+        exportProgress.setValue(null);
+    }
+    
+    /**
+     * Importa las notas de un archivo JSON de backup en background.
+     * El avance se publica en getImportProgress().
+     */
+    public void importNotes(Uri uri) {
+        repository.importNotes(getApplication().getContentResolver(), uri, importProgress::postValue);
+    }
+    
+    /**
+     * Progreso de la importación (RUNNING, DONE o ERROR).
+     */
+    public LiveData<BackupProgress> getImportProgress() {
+        return importProgress;
+    }
+    
+    /**
+     * Olvida el resultado de la última importación (ya se mostró al usuario).
+     */
+    public void clearImportProgress() {
+        importProgress.setValue(null);
+    }
+    
     // ==================== MIGRACIÓN ====================
     
     /**
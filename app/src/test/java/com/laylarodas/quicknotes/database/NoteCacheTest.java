@@ -0,0 +1,122 @@
+package com.laylarodas.quicknotes.database;
+
+import com.laylarodas.quicknotes.model.Note;
+import com.laylarodas.quicknotes.model.NoteCategory;
+import com.laylarodas.quicknotes.model.NoteChange;
+import com.laylarodas.quicknotes.model.NoteChangeSet;
+import com.laylarodas.quicknotes.model.NoteSummary;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * NoteCache: límite en bytes, orden LRU, contadores y actualización con los cambios de cada transacción.
+ */
+public class NoteCacheTest {
+
+    @Test
+    public void evictsLeastRecentlyUsedByBytes() {
+        Note small = note("a", 100);
+        long entryBytes = NoteCache.estimateBytes(small);
+        NoteCache cache = new NoteCache(entryBytes * 4);
+
+        for (String id : new String[]{"a", "b", "c", "d"}) {
+            cache.putIfUnchanged(note(id, 100), cache.getGeneration());
+        }
+        assertNotNull(cache.get("a")); // "a" pasa a ser la más reciente
+        cache.putIfUnchanged(note("e", 100), cache.getGeneration());
+
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("a"));
+        assertEquals(1, cache.getEvictionCount());
+        assertTrue(cache.getSizeBytes() <= entryBytes * 4);
+        assertEquals(2, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void largeNotesAreNotCached() {
+        NoteCache cache = new NoteCache(10_000);
+        cache.putIfUnchanged(note("big", 5_000), cache.getGeneration());
+        assertNull(cache.get("big"));
+        assertEquals(0, cache.getSizeBytes());
+    }
+
+    @Test
+    public void returnsCopies() {
+        NoteCache cache = new NoteCache(100_000);
+        cache.putIfUnchanged(note("a", 10), cache.getGeneration());
+        cache.get("a").setContent("cambiado");
+        assertEquals(10, cache.get("a").getContent().length());
+    }
+
+    @Test
+    public void staleReadIsNotStored() {
+        NoteCache cache = new NoteCache(100_000);
+        long generation = cache.getGeneration();
+        Note edited = note("a", 20);
+        cache.getChangeListener().onNotesChanged(set(new NoteChange("a", NoteSummary.from(note("a", 10)),
+                NoteSummary.from(edited), edited)));
+        // Lectura de SQLite que empezó antes del commit: no debe pisar la versión nueva
+        cache.putIfUnchanged(note("a", 10), generation);
+        assertEquals(20, cache.get("a").getContent().length());
+    }
+
+    @Test
+    public void followsCommittedChanges() {
+        NoteCache cache = new NoteCache(100_000);
+        cache.putIfUnchanged(note("a", 10), cache.getGeneration());
+        cache.putIfUnchanged(note("b", 10), cache.getGeneration());
+        NoteSummary a = NoteSummary.from(note("a", 10));
+        NoteSummary b = NoteSummary.from(note("b", 10));
+
+        cache.getChangeListener().onNotesChanged(set(
+                new NoteChange("a", a, a.withPinned(true), null),
+                new NoteChange("b", b, null, null)));
+
+        Note cached = cache.get("a");
+        assertTrue(cached.isPinned());
+        assertEquals(10, cached.getContent().length()); // El texto se conserva
+        assertNull(cache.get("b"));
+
+        cache.getChangeListener().onNotesChanged(new NoteChangeSet(2, Collections.emptyList(), true));
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getSizeBytes());
+    }
+
+    @Test
+    public void pinChangeDoesNotRefreshLruOrder() {
+        Note small = note("a", 100);
+        NoteCache cache = new NoteCache(NoteCache.estimateBytes(small) * 4);
+        for (String id : new String[]{"a", "b", "c", "d"}) {
+            cache.putIfUnchanged(note(id, 100), cache.getGeneration());
+        }
+        NoteSummary a = NoteSummary.from(small);
+        NoteSummary z = NoteSummary.from(note("z", 100));
+        cache.getChangeListener().onNotesChanged(set(
+                new NoteChange("a", a, a.withPinned(true), null),
+                new NoteChange("z", z, z.withPinned(true), null)));
+        assertEquals(4, cache.size()); // "z" no estaba: no se agrega
+
+        // Fijar "a" no es usarla: sigue siendo la menos usada y es la que sale
+        cache.putIfUnchanged(note("e", 100), cache.getGeneration());
+        assertNull(cache.get("a"));
+        assertNotNull(cache.get("b"));
+    }
+
+    private static NoteChangeSet set(NoteChange... changes) {
+        return new NoteChangeSet(1, Arrays.asList(changes), false);
+    }
+
+    private static Note note(String id, int contentLength) {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < contentLength; i++) {
+            content.append('x');
+        }
+        return new Note(id, "Nota " + id, content.toString(), 1, 2, NoteCategory.NONE, false);
+    }
+}
@@ -0,0 +1,78 @@
+package com.laylarodas.quicknotes.database;
+
+import com.laylarodas.quicknotes.model.Note;
+import com.laylarodas.quicknotes.model.NoteCategory;
+import com.laylarodas.quicknotes.model.NoteChange;
+import com.laylarodas.quicknotes.model.NoteChangeSet;
+import com.laylarodas.quicknotes.model.NoteSummary;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * NoteChangeTracker debe entregar un solo cambio por nota y por transacción,
+ * con el estado anterior del primero y el final del último.
+ */
+public class NoteChangeTrackerTest {
+
+    @After
+    public void tearDown() {
+        NoteChangeTracker.discard();
+    }
+
+    @Test
+    public void withoutRecordingNothingIsKept() {
+        NoteChangeTracker.recordInsert(note("a", "Compras", false));
+        assertFalse(NoteChangeTracker.isRecording());
+        assertTrue(NoteChangeTracker.end(1).isEmpty());
+    }
+
+    @Test
+    public void changesToTheSameNoteAreCoalesced() {
+        Note original = note("a", "Compras", false);
+        Note edited = note("a", "Compras del lunes", false);
+        NoteChangeTracker.begin();
+        NoteChangeTracker.recordInsert(note("b", "Ideas", false));
+        NoteChangeTracker.recordUpdate(original, edited, true);
+        NoteSummary before = NoteSummary.from(edited);
+        NoteChangeTracker.recordUpdate(before, before.withPinned(true));
+        NoteChangeSet changes = NoteChangeTracker.end(7);
+
+        assertEquals(7, changes.getSequence());
+        assertEquals(2, changes.size());
+        NoteChange change = changes.getChanges().get(1);
+        assertEquals("a", change.getId());
+        assertEquals("Compras", change.getBefore().getTitle());
+        assertFalse(change.getBefore().isPinned());
+        assertTrue(change.getAfter().isPinned());
+        // El texto cambió en el primer update: la nota completa se conserva
+        assertSame(edited, change.getNote());
+    }
+
+    @Test
+    public void insertThenDeleteLeavesNoChange() {
+        Note note = note("a", "Temporal", false);
+        NoteChangeTracker.begin();
+        NoteChangeTracker.recordInsert(note);
+        NoteChangeTracker.recordDelete(NoteSummary.from(note));
+        assertTrue(NoteChangeTracker.end(1).isEmpty());
+    }
+
+    @Test
+    public void clearDropsEarlierChanges() {
+        NoteChangeTracker.begin();
+        NoteChangeTracker.recordInsert(note("a", "Antes", false));
+        NoteChangeTracker.recordClear();
+        NoteChangeTracker.recordInsert(note("b", "Después", false));
+        NoteChangeSet changes = NoteChangeTracker.end(1);
+        assertTrue(changes.isCleared());
+        assertEquals(1, changes.size());
+        assertEquals("b", changes.getChanges().get(0).getId());
+    }
+
+    private static Note note(String id, String title, boolean pinned) {
+        return new Note(id, title, "contenido", 1, 2, NoteCategory.NONE, pinned);
+    }
+}
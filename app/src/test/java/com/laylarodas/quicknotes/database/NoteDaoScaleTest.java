@@ -0,0 +1,366 @@
+package com.laylarodas.quicknotes.database;
+
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.arch.core.executor.testing.InstantTaskExecutorRule;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.Observer;
+import androidx.paging.PagingSource;
+import androidx.room.Room;
+import androidx.sqlite.db.SimpleSQLiteQuery;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.laylarodas.quicknotes.model.Note;
+import com.laylarodas.quicknotes.model.NoteCategory;
+import com.laylarodas.quicknotes.model.NoteSummary;
+import com.laylarodas.quicknotes.model.NoteWord;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.ParameterizedRobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import kotlin.coroutines.EmptyCoroutineContext;
+import kotlinx.coroutines.BuildersKt;
+
+import static org.junit.Assert.*;
+
+/**
+ * Suite de escala de NoteDao: llena una base de datos en disco con 1k/10k/100k notas
+ * y mide la latencia de cada consulta y de las escrituras masivas.
+ *
+ * Corre en la JVM con Robolectric (SQLite nativo), sin emulador.
+ * Cada medida se compara con su presupuesto en dao-perf-budgets.properties:
+ * si alguna lo supera, el test falla y con él el build.
+ * Los tiempos de cada tamaño se guardan en app/build/reports/dao-perf/dao-<notas>.csv.
+ *
+ * Tamaños: por defecto solo 1000 notas (rápido, corre en cada build).
+ * Las corridas grandes se piden a mano: -Pperf.sizes=1000,10000,100000 -Pperf.heap=2g
+ */
+@RunWith(ParameterizedRobolectricTestRunner.class)
+@Config(sdk = 34)
+public class NoteDaoScaleTest {
+
+    private static final int RUNS = 5;        // Repeticiones por consulta (se usa la mediana)
+    private static final int BATCH = 1000;    // Notas por operación en las escrituras por lotes
+    private static final int PAGE_SIZE = 50;  // Igual que NoteViewModel
+
+    @Rule
+    public InstantTaskExecutorRule instantTaskExecutorRule = new InstantTaskExecutorRule();
+
+    @ParameterizedRobolectricTestRunner.Parameters(name = "{0} notas")
+    public static Collection<Object[]> sizes() {
+        List<Object[]> sizes = new ArrayList<>();
+        for (String size : System.getProperty("perf.sizes", "1000").split(",")) {
+            sizes.add(new Object[]{Integer.parseInt(size.trim())});
+        }
+        return sizes;
+    }
+
+    private final int noteCount;
+    private final Map<String, Double> timings = new LinkedHashMap<>();
+    private NoteDatabase database;
+    private NoteDao noteDao;
+    private List<Note> notes;
+
+    public NoteDaoScaleTest(int noteCount) {
+        this.noteCount = noteCount;
+    }
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        context.deleteDatabase("scale_test.db");
+        // En disco (no en memoria) para que el coste de E/S y de la caché de páginas cuente
+        database = Room.databaseBuilder(context, NoteDatabase.class, "scale_test.db")
+                .allowMainThreadQueries()
+                .build();
+        noteDao = database.noteDao();
+        notes = generateNotes(noteCount);
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+    }
+
+    @Test
+    public void queriesStayWithinBudget() throws Exception {
+        // ---------- Escritura masiva ----------
+        measureOnce("bulkInsert", () -> database.runInTransaction(() -> noteDao.insertAll(notes)));
+        assertEquals(noteCount, noteDao.getNoteCount());
+
+        // ---------- Listas (LiveData) ----------
+        measure("getAllNotesByModified", () -> getValue(noteDao.getAllNotesByModified()).size());
+        measure("getAllNotesByCreated", () -> getValue(noteDao.getAllNotesByCreated()).size());
+        measure("getAllNotesByTitleAsc", () -> getValue(noteDao.getAllNotesByTitleAsc()).size());
+        measure("getAllNotesByTitleDesc", () -> getValue(noteDao.getAllNotesByTitleDesc()).size());
+        measure("getNotesByCategoryByModified", () -> getValue(noteDao.getNotesByCategoryByModified(NoteCategory.WORK)).size());
+        measure("getNotesByCategoryByCreated", () -> getValue(noteDao.getNotesByCategoryByCreated(NoteCategory.WORK)).size());
+        measure("getNotesByCategoryByTitleAsc", () -> getValue(noteDao.getNotesByCategoryByTitleAsc(NoteCategory.WORK)).size());
+        measure("getNotesByCategoryByTitleDesc", () -> getValue(noteDao.getNotesByCategoryByTitleDesc(NoteCategory.WORK)).size());
+        measure("getCategoryCounts", () -> getValue(noteDao.getCategoryCounts()).size());
+
+        // ---------- Carga inicial de NoteRepository (después se aplican los cambios por fila) ----------
+        measure("getAllSummariesSync", () -> noteDao.getAllSummariesSync().size());
+        measure("getCategoryCountsSync", () -> noteDao.getCategoryCountsSync().size());
+
+        // ---------- Búsqueda ----------
+        measure("searchNotesFtsSync", () -> noteDao.searchNotesFtsSync("reunion* lunes*").size());
+        measure("searchNotesSync", () -> noteDao.searchNotesSync("%reunión%").size());
+        // Aproximada, con errores de tipeo: candidatos por trigramas y distancia de edición
+        measure("findWordsByTrigrams", () -> noteDao.findWordsByTrigrams(
+                NoteWordIndex.trigrams("reunoin"), 1, 7, 5, NoteWordIndex.MAX_WORD_LENGTH,
+                NoteWordIndex.MAX_CANDIDATES).size());
+        measure("searchNotesFuzzy", () -> NoteWordIndex.search(noteDao, "reunoin lunse").size());
+        assertFalse(NoteWordIndex.search(noteDao, "reunoin lunse").isEmpty());
+
+        // ---------- Primera página (PagingSource) ----------
+        measure("getNotesPagedByModified", () -> firstPage(noteDao.getNotesPagedByModified()));
+        measure("getNotesPagedByCreated", () -> firstPage(noteDao.getNotesPagedByCreated()));
+        measure("getNotesPagedByTitleAsc", () -> firstPage(noteDao.getNotesPagedByTitleAsc()));
+        measure("getNotesPagedByTitleDesc", () -> firstPage(noteDao.getNotesPagedByTitleDesc()));
+        measure("getNotesPagedByCategoryByModified", () -> firstPage(noteDao.getNotesPagedByCategoryByModified(NoteCategory.WORK)));
+        measure("getNotesPagedByCategoryByCreated", () -> firstPage(noteDao.getNotesPagedByCategoryByCreated(NoteCategory.WORK)));
+        measure("getNotesPagedByCategoryByTitleAsc", () -> firstPage(noteDao.getNotesPagedByCategoryByTitleAsc(NoteCategory.WORK)));
+        measure("getNotesPagedByCategoryByTitleDesc", () -> firstPage(noteDao.getNotesPagedByCategoryByTitleDesc(NoteCategory.WORK)));
+        measure("searchNotesPagedFts", () -> firstPage(noteDao.searchNotesPagedFts("reunion* lunes*")));
+        measure("searchNotesPaged", () -> firstPage(noteDao.searchNotesPaged("%reunión%")));
+
+        // ---------- Consultas síncronas ----------
+        Random random = new Random(7);
+        measure("getNoteById", () -> noteDao.getNoteById(notes.get(random.nextInt(noteCount)).getId()) != null ? 1 : 0);
+        measure("getNoteCount", noteDao::getNoteCount);
+        measure("getAllNotesSync", () -> noteDao.getAllNotesSync().size());
+        measure("getAllNotesCursor", () -> {
+            int rows = 0;
+            try (Cursor cursor = noteDao.getAllNotesCursor()) {
+                int encodingIndex = cursor.getColumnIndexOrThrow("encoding");
+                int lengthIndex = cursor.getColumnIndexOrThrow("length");
+                int bodyIndex = cursor.getColumnIndexOrThrow("body");
+                while (cursor.moveToNext()) {
+                    // Como la exportación: leer y decodificar cada fila
+                    NoteBodyCodec.decode(cursor.getInt(encodingIndex), cursor.getInt(lengthIndex), cursor.getBlob(bodyIndex));
+                    rows++;
+                }
+            }
+            return rows;
+        });
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < Math.min(500, noteCount); i++) {
+            ids.add(notes.get(i).getId());
+        }
+        measure("getTimestamps", () -> noteDao.getTimestamps(ids).size());
+
+        // ---------- Escrituras por lotes y sueltas ----------
+        List<Note> batch = new ArrayList<>();
+        for (int i = 0; i < Math.min(BATCH, noteCount); i++) {
+            Note note = notes.get(i).copy();
+            note.setContent(note.getContent() + " editada");
+            batch.add(note);
+        }
+        measureOnce("updateAll", () -> database.runInTransaction(() -> noteDao.updateAll(batch)));
+        // Mitad repetidas (se ignoran), mitad nuevas: el caso típico de una importación
+        List<Note> importBatch = new ArrayList<>(batch.subList(0, batch.size() / 2));
+        importBatch.addAll(generateNotes(batch.size() / 2, 99));
+        measureOnce("insertAllIgnoringConflicts",
+                () -> database.runInTransaction(() -> noteDao.insertAllIgnoringConflicts(importBatch)));
+
+        List<Note> singles = generateNotes(RUNS, 123);
+        int[] next = {0};
+        measure("insert", () -> {
+            noteDao.insert(singles.get(next[0]++ % RUNS).copy());
+            return 1;
+        }, false);
+        measure("update", () -> {
+            Note note = notes.get(random.nextInt(noteCount)).copy();
+            note.setPinned(!note.isPinned());
+            noteDao.update(note);
+            return 1;
+        }, false);
+        int[] deleted = {0};
+        measure("delete", () -> {
+            noteDao.delete(notes.get(deleted[0]++));
+            return 1;
+        }, false);
+
+        // ---------- Operaciones en lote (selección múltiple) ----------
+        // Las primeras RUNS notas ya se borraron arriba
+        List<String> selected = new ArrayList<>();
+        for (int i = RUNS; i < Math.min(RUNS + BATCH, noteCount); i++) {
+            selected.add(notes.get(i).getId());
+        }
+        measureOnce("setPinned", () -> assertEquals(selected.size(), noteDao.setPinned(selected, true)));
+        measureOnce("setCategory", () -> assertEquals(selected.size(), noteDao.setCategory(selected, NoteCategory.IDEAS)));
+        measureOnce("deleteByIds", () -> assertEquals(selected.size(), noteDao.deleteByIds(selected)));
+        // El índice FTS no debe conservar las notas borradas (MATCH sin JOIN también ve los docid huérfanos)
+        try (Cursor cursor = database.query(new SimpleSQLiteQuery("SELECT COUNT(*) FROM note_fts WHERE note_fts MATCH 'reunion*'"))) {
+            assertTrue(cursor.moveToFirst());
+            assertEquals(noteDao.searchNotesFtsSync("reunion*").size(), cursor.getInt(0));
+        }
+        // El vocabulario de la búsqueda aproximada cuenta las mismas notas que el índice FTS
+        NoteWord reunion = noteDao.getWord("reunion");
+        assertNotNull(reunion);
+        assertEquals(noteDao.getNoteIdsMatching("reunion").size(), reunion.getNoteCount());
+
+        measureOnce("deleteAllNotes", noteDao::deleteAllNotes);
+        assertEquals(0, noteDao.getNoteCount());
+        assertNull(noteDao.getWord("reunion"));
+
+        writeReport();
+        assertWithinBudget();
+    }
+
+    // ==================== MEDICIÓN ====================
+
+    private void measure(String name, Supplier<Integer> query) {
+        measure(name, query, true);
+    }
+
+    /**
+     * Mediana de RUNS ejecuciones (con una de calentamiento si warmUp).
+     */
+    private void measure(String name, Supplier<Integer> query, boolean warmUp) {
+        if (warmUp) {
+            query.get();
+        }
+        double[] times = new double[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            query.get();
+            times[i] = (System.nanoTime() - start) / 1_000_000.0;
+        }
+        Arrays.sort(times);
+        timings.put(name, times[RUNS / 2]);
+    }
+
+    /**
+     * Operaciones que cambian los datos y no se pueden repetir igual: una sola ejecución.
+     */
+    private void measureOnce(String name, Runnable operation) {
+        long start = System.nanoTime();
+        operation.run();
+        timings.put(name, (System.nanoTime() - start) / 1_000_000.0);
+    }
+
+    private void assertWithinBudget() throws IOException {
+        Properties budgets = new Properties();
+        try (InputStream input = getClass().getClassLoader().getResourceAsStream("dao-perf-budgets.properties")) {
+            assertNotNull("Falta dao-perf-budgets.properties", input);
+            budgets.load(input);
+        }
+        double scale = Double.parseDouble(System.getProperty("perf.budgetScale", "1"));
+        String defaultBudget = budgets.getProperty("default." + noteCount);
+        assertNotNull("Sin presupuesto por defecto para " + noteCount + " notas", defaultBudget);
+
+        StringBuilder overBudget = new StringBuilder();
+        for (Map.Entry<String, Double> timing : timings.entrySet()) {
+            double budget = Double.parseDouble(budgets.getProperty(timing.getKey() + "." + noteCount, defaultBudget)) * scale;
+            if (timing.getValue() > budget) {
+                overBudget.append(String.format(Locale.ROOT, "%n  %s: %.1f ms (presupuesto %.0f ms)",
+                        timing.getKey(), timing.getValue(), budget));
+            }
+        }
+        assertTrue("Con " + noteCount + " notas, superan el presupuesto:" + overBudget, overBudget.length() == 0);
+    }
+
+    private void writeReport() throws IOException {
+        File dir = new File(System.getProperty("perf.reportDir", "build/reports/dao-perf"));
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("No se pudo crear " + dir);
+        }
+        try (PrintWriter writer = new PrintWriter(new FileWriter(new File(dir, "dao-" + noteCount + ".csv")))) {
+            writer.println("operation,notes,median_ms");
+            for (Map.Entry<String, Double> timing : timings.entrySet()) {
+                writer.printf(Locale.ROOT, "%s,%d,%.3f%n", timing.getKey(), noteCount, timing.getValue());
+            }
+        }
+    }
+
+    // ==================== AYUDANTES ====================
+
+    /**
+     * Lee el valor actual de un LiveData de Room.
+     * Con InstantTaskExecutorRule la consulta se ejecuta de forma síncrona al observar.
+     */
+    private static <T> T getValue(LiveData<T> liveData) {
+        AtomicReference<T> value = new AtomicReference<>();
+        Observer<T> observer = value::set;
+        liveData.observeForever(observer);
+        liveData.removeObserver(observer);
+        assertNotNull("El LiveData no emitió ningún valor", value.get());
+        return value.get();
+    }
+
+    /**
+     * Carga la primera página como lo hace Paging al abrir la lista.
+     */
+    private static int firstPage(PagingSource<Integer, NoteSummary> source) {
+        try {
+            PagingSource.LoadResult<Integer, NoteSummary> result = BuildersKt.<PagingSource.LoadResult<Integer, NoteSummary>>runBlocking(
+                    EmptyCoroutineContext.INSTANCE,
+                    (scope, continuation) -> source.load(
+                            new PagingSource.LoadParams.Refresh<>(null, PAGE_SIZE, false), continuation));
+            assertTrue("Error al cargar la página: " + result, result instanceof PagingSource.LoadResult.Page);
+            return ((PagingSource.LoadResult.Page<Integer, NoteSummary>) result).getData().size();
+        } catch (InterruptedException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static List<Note> generateNotes(int count) {
+        return generateNotes(count, 42);
+    }
+
+    /**
+     * Notas reproducibles (misma semilla -> mismas notas) con palabras en español,
+     * para que las búsquedas FTS y LIKE encuentren coincidencias realistas.
+     */
+    private static List<Note> generateNotes(int count, long seed) {
+        String[] words = {"casa", "canción", "reunión", "compras", "leche", "proyecto", "informe",
+                "viaje", "médico", "regalo", "idea", "código", "examen", "llamar", "trabajo",
+                "factura", "receta", "película", "libro", "lunes", "viernes", "mañana"};
+        Random random = new Random(seed);
+        NoteCategory[] categories = NoteCategory.values();
+        long now = 1_700_000_000_000L;
+        List<Note> notes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            StringBuilder title = new StringBuilder();
+            for (int w = 0; w < 3; w++) {
+                title.append(w > 0 ? " " : "").append(words[random.nextInt(words.length)]);
+            }
+            StringBuilder content = new StringBuilder();
+            int contentWords = 10 + random.nextInt(60);
+            for (int w = 0; w < contentWords; w++) {
+                content.append(w > 0 ? " " : "").append(words[random.nextInt(words.length)]);
+            }
+            long modifiedAt = now - random.nextInt(Integer.MAX_VALUE) * 20L;
+            notes.add(new Note(new UUID(random.nextLong(), random.nextLong()).toString(),
+                    title.toString(), content.toString(), modifiedAt - random.nextInt(Integer.MAX_VALUE),
+                    modifiedAt, categories[random.nextInt(categories.length)], random.nextInt(20) == 0));
+        }
+        return notes;
+    }
+}
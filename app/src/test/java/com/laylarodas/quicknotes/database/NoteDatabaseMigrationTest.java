@@ -0,0 +1,146 @@
+package com.laylarodas.quicknotes.database;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.room.Room;
+import androidx.sqlite.db.SimpleSQLiteQuery;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.laylarodas.quicknotes.model.Note;
+import com.laylarodas.quicknotes.model.NoteContent;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.*;
+
+/**
+ * Base de datos creada a mano con el esquema de la versión 6:
+ * después de migrar hay que poder buscar, editar y borrar notas
+ * (el índice FTS y el vocabulario se mantienen en las mismas escrituras que note_table y note_content).
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class NoteDatabaseMigrationTest {
+
+    private static final String DB_NAME = "migration_test.db";
+
+    // Más de NoteBodyCodec.COMPRESSION_THRESHOLD_BYTES: se guarda comprimido
+    private static final String LONG_CONTENT = repeat("Preparar la reunión del lunes con el equipo. ", 60);
+    private static final String SHORT_CONTENT = "Leche, pan y huevos";
+
+    private Context context;
+    private NoteDatabase database;
+
+    @Before
+    public void setUp() {
+        context = ApplicationProvider.getApplicationContext();
+        context.deleteDatabase(DB_NAME);
+    }
+
+    @After
+    public void tearDown() {
+        if (database != null) {
+            database.close();
+        }
+        context.deleteDatabase(DB_NAME);
+    }
+
+    @Test
+    public void notesCanBeEditedAndDeletedAfterUpgradingFromVersion6() {
+        SQLiteDatabase db = SQLiteDatabase.openOrCreateDatabase(context.getDatabasePath(DB_NAME), null);
+        db.execSQL("CREATE TABLE `note_table` (`id` TEXT NOT NULL, `title` TEXT COLLATE NOCASE, `content` TEXT, " +
+                "`createdAt` INTEGER NOT NULL, `modifiedAt` INTEGER NOT NULL, " +
+                "`category` INTEGER NOT NULL DEFAULT 0, `isPinned` INTEGER NOT NULL DEFAULT 0, PRIMARY KEY(`id`))");
+        createNoteTableIndices(db);
+        db.execSQL("CREATE VIRTUAL TABLE `note_fts` USING FTS4(" +
+                "`title` TEXT, `content` TEXT, tokenize=unicode61, content=`note_table`)");
+        createFtsSyncTriggers(db);
+        db.execSQL("INSERT INTO note_table (id, title, content, createdAt, modifiedAt, category, isPinned) " +
+                "VALUES ('note-1', 'Trabajo', ?, 1, 1, 1, 0)", new Object[]{LONG_CONTENT});
+        db.execSQL("INSERT INTO note_table (id, title, content, createdAt, modifiedAt, category, isPinned) " +
+                "VALUES ('note-2', 'Compras', ?, 2, 2, 0, 1)", new Object[]{SHORT_CONTENT});
+        db.setVersion(6);
+        db.close();
+
+        NoteDao dao = open();
+        assertEquals(NoteContent.ENCODING_DEFLATE, NoteBodyCodec.encode("note-1", LONG_CONTENT).getEncoding());
+        assertEquals(2, dao.getNoteCount());
+        assertEquals(1, dao.searchNotesFtsSync("reunion*").size());
+        assertEquals(1, dao.searchNotesFtsSync("compras*").size());
+        // LIKE busca en la copia de note_fts: encuentra también el texto de la nota comprimida
+        assertEquals(1, dao.searchNotesSync("%reunión del lunes%").size());
+        assertNotNull("El vocabulario se llena al migrar", dao.getWord("reunion"));
+
+        // Editar el texto: el índice deja de tener las palabras viejas
+        Note note = dao.getNoteById("note-1");
+        assertEquals(LONG_CONTENT, note.getContent());
+        note.setContent("Llamar al médico el martes");
+        dao.update(note);
+        assertTrue(dao.searchNotesFtsSync("reunion*").isEmpty());
+        assertEquals(1, dao.searchNotesFtsSync("martes*").size());
+        assertNull(dao.getWord("reunion"));
+        assertEquals(1, dao.getWord("martes").getNoteCount());
+
+        // Borrar una nota y después todas
+        dao.delete(note);
+        assertTrue(dao.searchNotesFtsSync("martes*").isEmpty());
+        assertNull(dao.getWord("martes"));
+        assertEquals(1, dao.getNoteCount());
+        dao.deleteAllNotes();
+        assertEquals(0, dao.getNoteCount());
+        assertNull(dao.getWord("compras"));
+        try (Cursor cursor = database.query(new SimpleSQLiteQuery("SELECT COUNT(*) FROM note_fts"))) {
+            assertTrue(cursor.moveToFirst());
+            assertEquals(0, cursor.getInt(0));
+        }
+    }
+
+    // ==================== AYUDANTES ====================
+
+    private NoteDao open() {
+        database = Room.databaseBuilder(context, NoteDatabase.class, DB_NAME)
+                .addMigrations(NoteDatabase.MIGRATION_3_4, NoteDatabase.MIGRATION_4_5, NoteDatabase.MIGRATION_5_6,
+                        NoteDatabase.MIGRATION_6_7, NoteDatabase.MIGRATION_7_8)
+                .allowMainThreadQueries()
+                .build();
+        return database.noteDao();
+    }
+
+    private static void createNoteTableIndices(SQLiteDatabase db) {
+        db.execSQL("CREATE INDEX `index_note_pinned_modified` ON `note_table` (`isPinned`, `modifiedAt`)");
+        db.execSQL("CREATE INDEX `index_note_pinned_created` ON `note_table` (`isPinned`, `createdAt`)");
+        db.execSQL("CREATE INDEX `index_note_pinned_title_asc` ON `note_table` (`isPinned` DESC, `title` COLLATE NOCASE ASC)");
+        db.execSQL("CREATE INDEX `index_note_pinned_title_desc` ON `note_table` (`isPinned`, `title` COLLATE NOCASE)");
+        db.execSQL("CREATE INDEX `index_note_category_pinned_modified` ON `note_table` (`category`, `isPinned`, `modifiedAt`)");
+    }
+
+    /**
+     * Triggers con los que Room mantenía note_fts en la versión 6 (external content sobre note_table).
+     */
+    private static void createFtsSyncTriggers(SQLiteDatabase db) {
+        for (String event : new String[]{"UPDATE", "DELETE"}) {
+            db.execSQL("CREATE TRIGGER `room_fts_content_sync_note_fts_BEFORE_" + event + "` BEFORE " + event +
+                    " ON `note_table` BEGIN DELETE FROM `note_fts` WHERE `docid`=OLD.`rowid`; END");
+        }
+        for (String event : new String[]{"UPDATE", "INSERT"}) {
+            db.execSQL("CREATE TRIGGER `room_fts_content_sync_note_fts_AFTER_" + event + "` AFTER " + event +
+                    " ON `note_table` BEGIN INSERT INTO `note_fts`(`docid`, `title`, `content`) " +
+                    "VALUES (NEW.`rowid`, NEW.`title`, NEW.`content`); END");
+        }
+    }
+
+    private static String repeat(String text, int times) {
+        StringBuilder repeated = new StringBuilder(text.length() * times);
+        for (int i = 0; i < times; i++) {
+            repeated.append(text);
+        }
+        return repeated.toString();
+    }
+}
@@ -0,0 +1,127 @@
+package com.laylarodas.quicknotes.database;
+
+import android.content.Context;
+
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.laylarodas.quicknotes.model.Note;
+import com.laylarodas.quicknotes.model.NoteCategory;
+import com.laylarodas.quicknotes.model.NoteSummary;
+import com.laylarodas.quicknotes.model.NoteWord;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Búsqueda aproximada contra SQLite: el vocabulario (note_word, note_trigram) se mantiene
+ * en las mismas escrituras que las notas, y NoteWordIndex encuentra las palabras con errores.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class NoteFuzzySearchTest {
+
+    private NoteDatabase database;
+    private NoteDao dao;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        database = Room.inMemoryDatabaseBuilder(context, NoteDatabase.class)
+                .allowMainThreadQueries()
+                .build();
+        dao = database.noteDao();
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+    }
+
+    @Test
+    public void vocabularyFollowsInsertUpdateAndDelete() {
+        Note work = note("note-1", "Reunión", "Preparar la reunión del lunes");
+        Note home = note("note-2", "Casa", "Limpiar el lunes por la tarde");
+        dao.insert(work);
+        dao.insert(home);
+        assertEquals(1, dao.getWord("reunion").getNoteCount()); // Una vez por nota aunque se repita
+        assertEquals(2, dao.getWord("lunes").getNoteCount());
+        assertNull("Palabras de menos de 3 letras no se indexan", dao.getWord("el"));
+
+        work.setContent("Preparar la reunión del martes");
+        dao.update(work);
+        assertEquals(1, dao.getWord("lunes").getNoteCount());
+        assertEquals(1, dao.getWord("martes").getNoteCount());
+
+        dao.delete(home);
+        assertNull(dao.getWord("lunes"));
+        assertNull(dao.getWord("limpiar"));
+
+        dao.deleteByIds(Collections.singletonList(work.getId()));
+        assertNull(dao.getWord("reunion"));
+        assertNull(dao.getWord("martes"));
+    }
+
+    @Test
+    public void typosFindTheNoteWithAllTheWords() {
+        dao.insertAll(Arrays.asList(
+                note("note-1", "Trabajo", "Preparar la reunión del lunes"),
+                note("note-2", "Trabajo", "Reunión con el cliente el martes"),
+                note("note-3", "Casa", "Limpiar el lunes")));
+
+        assertEquals(Collections.singletonList("note-1"), ids(NoteWordIndex.search(dao, "reunoin lunse")));
+        assertTrue(NoteWordIndex.search(dao, "reunoin viernes").isEmpty());
+    }
+
+    /**
+     * Con palabras cortas basta un trigrama en común para ser candidata ("caas" y "casa" solo
+     * comparten " ca"): la correcta no puede quedar fuera del LIMIT por otras que empiezan igual.
+     */
+    @Test
+    public void shortTypoIsFoundAmongManyWordsSharingATrigram() {
+        // "casa" entra primero al vocabulario: sin orden por longitud quedaba detrás de las demás
+        dao.insert(note("note-1", "Compras", "casa"));
+        StringBuilder others = new StringBuilder();
+        for (char a : "bdefg".toCharArray()) {
+            for (char b : "hijkl".toCharArray()) {
+                for (char c : "mnpq".toCharArray()) {
+                    others.append(" ca").append(a).append(b).append(c).append('o');
+                }
+            }
+        }
+        dao.insert(note("note-2", "Palabras", others.toString().trim()));
+
+        // Sin filtrar por longitud hay más candidatas que el LIMIT: se ordenan antes de cortar
+        List<String> trigrams = NoteWordIndex.trigrams("caas");
+        List<NoteWord> candidates = dao.findWordsByTrigrams(trigrams, 1, 4, 3, NoteWordIndex.MAX_WORD_LENGTH,
+                NoteWordIndex.MAX_CANDIDATES);
+        assertEquals(NoteWordIndex.MAX_CANDIDATES, candidates.size());
+        assertEquals("casa", candidates.get(0).getWord());
+
+        assertEquals(Collections.singletonList("note-1"), ids(NoteWordIndex.search(dao, "caas")));
+    }
+
+    // ==================== AYUDANTES ====================
+
+    private static Note note(String id, String title, String content) {
+        return new Note(id, title, content, 1, 1, NoteCategory.NONE, false);
+    }
+
+    private static List<String> ids(List<NoteSummary> notes) {
+        String[] ids = new String[notes.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = notes.get(i).getId();
+        }
+        return Arrays.asList(ids);
+    }
+}
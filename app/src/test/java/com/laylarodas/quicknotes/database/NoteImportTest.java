@@ -0,0 +1,236 @@
+package com.laylarodas.quicknotes.database;
+
+import android.content.Context;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.laylarodas.quicknotes.backup.NoteImportService;
+import com.laylarodas.quicknotes.model.Note;
+import com.laylarodas.quicknotes.model.NoteCategory;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import static org.junit.Assert.*;
+
+/**
+ * Importación de un backup JSON a través de NoteWriteExecutor, contra SQLite:
+ * upsert por modifiedAt, IDs repetidos dentro de un lote, memoria acotada
+ * y conteos que no se duplican cuando el escritor reintenta un lote.
+ *
+ * El archivo se genera mientras se lee (GeneratedJson): nunca está entero en memoria.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class NoteImportTest {
+
+    private static final String DB_NAME = "import_test.db";
+    private static final int ENTRIES = 1200;  // Tres lotes de NoteImportService
+    private static final int EXISTING = 300;  // Notas que ya están en la BD antes de importar
+    private static final int BATCH_SIZE = 500; // NoteImportService.BATCH_SIZE
+
+    private Context context;
+    private NoteDatabase database;
+    private NoteWriteExecutor writeExecutor;
+    private NoteImportService importService;
+
+    @Before
+    public void setUp() {
+        context = ApplicationProvider.getApplicationContext();
+        context.deleteDatabase(DB_NAME);
+        database = NoteDatabase.create(context, DB_NAME, DatabaseProfile.ROOM_DEFAULT, false);
+        writeExecutor = new NoteWriteExecutor(database, NoteWriteExecutor.DEFAULT_BATCH_WINDOW_MS);
+        importService = new NoteImportService(writeExecutor);
+    }
+
+    @After
+    public void tearDown() {
+        writeExecutor.shutdown();
+        database.close();
+        context.deleteDatabase(DB_NAME);
+    }
+
+    @Test
+    public void conflictsAreResolvedByModifiedAtWithBoundedMemory() throws Exception {
+        List<Note> existing = new ArrayList<>();
+        for (int i = 0; i < EXISTING; i++) {
+            existing.add(new Note("note-" + i, "Nota " + i, "original", 1, 1000, NoteCategory.NONE, false));
+        }
+        writeExecutor.submit(dao -> dao.insertAll(existing)).get();
+
+        GeneratedJson input = new GeneratedJson(ENTRIES);
+        List<Integer> progress = new ArrayList<>();
+        NoteImportService.ImportCounts counts = importService.importFrom(input, update -> {
+            // El lector nunca va más de un lote por delante de lo que ya se escribió
+            assertTrue("Leídas " + input.generated() + ", escritas " + update.getProcessed(),
+                    input.generated() - update.getProcessed() < BATCH_SIZE);
+            progress.add(update.getProcessed());
+        });
+
+        assertEquals(2, progress.size()); // Dos lotes llenos + el último (sin aviso de progreso)
+        assertEquals(873, counts.getInserted());
+        assertEquals(159, counts.getUpdated()); // 150 existentes más nuevas + 9 repetidas más nuevas
+        assertEquals(159, counts.getSkipped()); // 150 existentes más viejas + 9 repetidas más viejas
+        assertEquals(9, counts.getInvalid());
+        assertEquals(EXISTING + 873, (int) read(NoteDao::getNoteCount));
+
+        // Existente, la importada es más nueva: gana la importada
+        assertStored("note-0", 2000, "importada 0");
+        // Existente, la importada es más vieja: se queda la que había
+        assertStored("note-1", 1000, "original");
+        // Repetida en el mismo lote: la segunda es más nueva y reemplaza a la primera
+        assertStored("note-349", 3000, "repetida 350");
+        // Repetida en el mismo lote pero más vieja: se queda la primera
+        assertStored("note-359", 1000, "importada 359");
+        // Sin título: no se importa
+        assertNull(read(dao -> dao.getNoteById("note-370")));
+    }
+
+    /**
+     * Si otra operación del mismo lote del escritor falla, NoteWriteExecutor hace rollback
+     * y vuelve a ejecutar la importación sola: sus notas solo se cuentan una vez.
+     */
+    @Test
+    public void retriedBatchIsCountedOnce() throws Exception {
+        // Ocupar el hilo escritor para que la importación y la operación que falla queden en el mismo lote
+        CountDownLatch writerBusy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        writeExecutor.submit(dao -> {
+            writerBusy.countDown();
+            awaitQuietly(release);
+        });
+        assertTrue(writerBusy.await(10, TimeUnit.SECONDS));
+
+        AtomicReference<NoteImportService.ImportCounts> counts = new AtomicReference<>();
+        AtomicReference<Exception> error = new AtomicReference<>();
+        Thread importer = new Thread(() -> {
+            try {
+                counts.set(importService.importFrom(new GeneratedJson(10), update -> { }));
+            } catch (Exception e) {
+                error.set(e);
+            }
+        });
+        importer.start();
+        // El importador queda esperando su lote (get()) cuando ya lo encoló
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (importer.getState() != Thread.State.WAITING) {
+            assertTrue("El importador no encoló su lote", System.currentTimeMillis() < deadline);
+            Thread.sleep(5);
+        }
+        AtomicBoolean failed = new AtomicBoolean();
+        writeExecutor.submit(dao -> {
+            if (failed.compareAndSet(false, true)) {
+                throw new IllegalStateException("Falla solo la primera vez");
+            }
+        });
+        release.countDown();
+        importer.join(10_000);
+
+        assertNull(error.get());
+        assertTrue("La operación que falla tiene que haber corrido con la importación", failed.get());
+        assertEquals(10, counts.get().getInserted());
+        assertEquals(10, (int) read(NoteDao::getNoteCount));
+    }
+
+    // ==================== AYUDANTES ====================
+
+    /**
+     * Entrada i del archivo:
+     * - 0..EXISTING-1: notas que ya existen; las pares con modifiedAt más nuevo, las impares más viejo
+     * - después, notas nuevas, salvo cada 100: en x50 se repite la anterior (más nueva),
+     *   en x60 se repite la anterior (más vieja) y x70 no tiene título (inválida)
+     */
+    private static String entry(int i) {
+        String id = "note-" + i;
+        String content = "importada " + i;
+        long modifiedAt = 1000;
+        if (i < EXISTING) {
+            modifiedAt = i % 2 == 0 ? 2000 : 500;
+        } else if (i % 100 == 50) {
+            id = "note-" + (i - 1);
+            content = "repetida " + i;
+            modifiedAt = 3000;
+        } else if (i % 100 == 60) {
+            id = "note-" + (i - 1);
+            content = "repetida " + i;
+            modifiedAt = 10;
+        } else if (i % 100 == 70) {
+            return "{\"id\":\"" + id + "\",\"content\":\"sin título\"}";
+        }
+        return "{\"id\":\"" + id + "\",\"title\":\"Nota " + i + "\",\"content\":\"" + content + "\","
+                + "\"createdAt\":1,\"modifiedAt\":" + modifiedAt + ",\"category\":\"WORK\",\"isPinned\":false}";
+    }
+
+    private void assertStored(String id, long modifiedAt, String content) throws Exception {
+        Note note = read(dao -> dao.getNoteById(id));
+        assertNotNull(id, note);
+        assertEquals(id, modifiedAt, note.getModifiedAt());
+        assertEquals(id, content, note.getContent());
+    }
+
+    /**
+     * Consulta fuera del hilo principal (Room no permite consultas en él).
+     */
+    private <T> T read(Function<NoteDao, T> query) throws Exception {
+        NoteDao dao = database.noteDao();
+        return CompletableFuture.supplyAsync(() -> query.apply(dao)).get(10, TimeUnit.SECONDS);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Array JSON de notas que se genera a medida que se lee.
+     */
+    private static final class GeneratedJson extends InputStream {
+        private final int entries;
+        private int next;
+        private byte[] chunk = "[".getBytes(StandardCharsets.UTF_8);
+        private int position;
+
+        GeneratedJson(int entries) {
+            this.entries = entries;
+        }
+
+        /**
+         * Entradas entregadas hasta ahora al lector.
+         */
+        int generated() {
+            return Math.min(next, entries);
+        }
+
+        @Override
+        public int read() {
+            if (position == chunk.length) {
+                if (next > entries) {
+                    return -1;
+                }
+                String text = next == entries ? "]" : (next > 0 ? "," : "") + entry(next);
+                chunk = text.getBytes(StandardCharsets.UTF_8);
+                position = 0;
+                next++;
+            }
+            return chunk[position++] & 0xFF;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.laylarodas.quicknotes.database;
+
+import com.laylarodas.quicknotes.model.NoteCategory;
+import com.laylarodas.quicknotes.model.NoteSummary;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Formato del archivo de NoteListSnapshot (copia de la primera pantalla).
+ */
+public class NoteListSnapshotTest {
+
+    @Test
+    public void encodeDecodeKeepsEveryField() throws IOException {
+        List<NoteSummary> notes = Arrays.asList(
+                new NoteSummary("a", "Reunión 📅", "Lunes a las 10", 1000L, 2000L, NoteCategory.WORK, true),
+                new NoteSummary("b", null, null, 3000L, 4000L, NoteCategory.NONE, false));
+
+        List<NoteSummary> decoded = NoteListSnapshot.decode(NoteListSnapshot.encode(notes));
+
+        assertEquals(2, decoded.size());
+        for (int i = 0; i < notes.size(); i++) {
+            NoteSummary expected = notes.get(i);
+            NoteSummary actual = decoded.get(i);
+            assertEquals(expected.getId(), actual.getId());
+            assertEquals(expected.getTitle(), actual.getTitle());
+            assertEquals(expected.getPreview(), actual.getPreview());
+            assertEquals(expected.getCreatedAt(), actual.getCreatedAt());
+            assertEquals(expected.getModifiedAt(), actual.getModifiedAt());
+            assertEquals(expected.getCategory(), actual.getCategory());
+            assertEquals(expected.isPinned(), actual.isPinned());
+        }
+    }
+
+    @Test
+    public void sameListEncodesToSameBytes() {
+        // write() compara los bytes para no reescribir el archivo si la primera pantalla no cambió
+        List<NoteSummary> notes = new ArrayList<>();
+        for (int i = 0; i < NoteListSnapshot.FIRST_SCREEN_SIZE; i++) {
+            notes.add(new NoteSummary("note-" + i, "Nota " + i, "Contenido " + i, i, i, NoteCategory.IDEAS, false));
+        }
+        assertArrayEquals(NoteListSnapshot.encode(notes), NoteListSnapshot.encode(new ArrayList<>(notes)));
+    }
+
+    @Test(expected = IOException.class)
+    public void truncatedSnapshotIsRejected() throws IOException {
+        byte[] data = NoteListSnapshot.encode(Arrays.asList(
+                new NoteSummary("a", "Título", "Preview", 1L, 2L, NoteCategory.PERSONAL, false)));
+        NoteListSnapshot.decode(Arrays.copyOf(data, data.length - 5));
+    }
+}
@@ -0,0 +1,178 @@
+package com.laylarodas.quicknotes.database;
+
+import com.laylarodas.quicknotes.model.NoteCategory;
+import com.laylarodas.quicknotes.model.NoteChange;
+import com.laylarodas.quicknotes.model.NoteSummary;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * NoteSortIndex debe dar el mismo orden que ordenar la lista desde cero,
+ * también después de muchas actualizaciones incrementales.
+ */
+public class NoteSortIndexTest {
+
+    private static final String[] MODES = {
+            NoteSortIndex.SORT_MODIFIED, NoteSortIndex.SORT_CREATED,
+            NoteSortIndex.SORT_TITLE_ASC, NoteSortIndex.SORT_TITLE_DESC
+    };
+    private static final String[] TITLES = {"compras", "Compras", "agenda", "Zapatos", "ñandú", "", null, "10 ideas"};
+
+    private final Random random = new Random(11);
+    private int nextId;
+
+    @Test
+    public void incrementalUpdatesMatchFullSort() {
+        List<NoteSummary> notes = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            notes.add(randomNote("n" + nextId++));
+        }
+        NoteSortIndex index = new NoteSortIndex();
+        index.update(notes);
+        assertMatches(index, notes);
+
+        for (int round = 0; round < 200; round++) {
+            // Pocas escrituras por ronda (camino incremental) y de vez en cuando muchas (reordenación completa)
+            int changes = round % 25 == 0 ? 200 : 1 + random.nextInt(3);
+            for (int c = 0; c < changes; c++) {
+                int operation = random.nextInt(3);
+                if (operation == 0 || notes.isEmpty()) {
+                    notes.add(randomNote("n" + nextId++));
+                } else if (operation == 1) {
+                    notes.remove(random.nextInt(notes.size()));
+                } else {
+                    int position = random.nextInt(notes.size());
+                    notes.set(position, randomNote(notes.get(position).getId()));
+                }
+            }
+            Collections.shuffle(notes, random); // Room puede entregarlas en cualquier orden
+            index.update(notes);
+            assertMatches(index, notes);
+        }
+    }
+
+    @Test
+    public void appliedChangesMatchFullSort() {
+        List<NoteSummary> notes = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            notes.add(randomNote("n" + nextId++));
+        }
+        NoteSortIndex index = new NoteSortIndex();
+        index.update(notes);
+
+        for (int round = 0; round < 200; round++) {
+            int count = round % 25 == 0 ? 200 : 1 + random.nextInt(3);
+            List<NoteChange> changes = new ArrayList<>();
+            List<String> touched = new ArrayList<>();
+            for (int c = 0; c < count; c++) {
+                int operation = random.nextInt(3);
+                if (operation == 0 || notes.isEmpty()) {
+                    NoteSummary note = randomNote("n" + nextId++);
+                    notes.add(note);
+                    touched.add(note.getId());
+                    changes.add(new NoteChange(note.getId(), null, note, null));
+                } else {
+                    int position = random.nextInt(notes.size());
+                    NoteSummary before = notes.get(position);
+                    if (touched.contains(before.getId())) {
+                        continue; // NoteChangeSet trae cada nota una sola vez
+                    }
+                    touched.add(before.getId());
+                    if (operation == 1) {
+                        notes.remove(position);
+                        changes.add(new NoteChange(before.getId(), before, null, null));
+                    } else {
+                        NoteSummary after = randomNote(before.getId());
+                        notes.set(position, after);
+                        changes.add(new NoteChange(before.getId(), before, after, null));
+                    }
+                }
+            }
+            index.apply(changes);
+            assertMatches(index, notes);
+            // Volver a aplicar los mismos cambios no debe alterar nada (la carga pudo haberlos visto)
+            index.apply(changes);
+            assertMatches(index, notes);
+        }
+    }
+
+    @Test
+    public void categoryFilterKeepsOrder() {
+        List<NoteSummary> notes = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            notes.add(randomNote("n" + i));
+        }
+        NoteSortIndex index = new NoteSortIndex();
+        index.update(notes);
+        for (String mode : MODES) {
+            List<NoteSummary> expected = new ArrayList<>();
+            for (NoteSummary note : sorted(notes, mode)) {
+                if (note.getCategory() == NoteCategory.WORK) {
+                    expected.add(note);
+                }
+            }
+            assertEquals(ids(expected), ids(index.view(mode, NoteCategory.WORK)));
+        }
+    }
+
+    @Test
+    public void titleOrderFoldsOnlyAsciiLikeSqlite() {
+        assertEquals(0, NoteSortIndex.compareNoCase("Compras", "compras"));
+        assertTrue(NoteSortIndex.compareNoCase(null, "") < 0);
+        assertTrue(NoteSortIndex.compareNoCase("Zapatos", "ñandú") < 0);
+        assertTrue(NoteSortIndex.compareNoCase("Ñandú", "ñandú") != 0);
+    }
+
+    private void assertMatches(NoteSortIndex index, List<NoteSummary> notes) {
+        assertEquals(notes.size(), index.size());
+        for (String mode : MODES) {
+            assertEquals(mode, ids(sorted(notes, mode)), ids(index.view(mode, null)));
+        }
+    }
+
+    private static List<NoteSummary> sorted(List<NoteSummary> notes, String mode) {
+        Comparator<NoteSummary> key;
+        switch (mode) {
+            case NoteSortIndex.SORT_CREATED:
+                key = (a, b) -> Long.compare(b.getCreatedAt(), a.getCreatedAt());
+                break;
+            case NoteSortIndex.SORT_TITLE_ASC:
+                key = (a, b) -> NoteSortIndex.compareNoCase(a.getTitle(), b.getTitle());
+                break;
+            case NoteSortIndex.SORT_TITLE_DESC:
+                key = (a, b) -> NoteSortIndex.compareNoCase(b.getTitle(), a.getTitle());
+                break;
+            default:
+                key = (a, b) -> Long.compare(b.getModifiedAt(), a.getModifiedAt());
+                break;
+        }
+        List<NoteSummary> result = new ArrayList<>(notes);
+        result.sort(Comparator.comparing((NoteSummary note) -> !note.isPinned())
+                .thenComparing(key)
+                .thenComparing(NoteSummary::getId));
+        return result;
+    }
+
+    private static List<String> ids(List<NoteSummary> notes) {
+        List<String> ids = new ArrayList<>(notes.size());
+        for (NoteSummary note : notes) {
+            ids.add(note.getId());
+        }
+        return ids;
+    }
+
+    private NoteSummary randomNote(String id) {
+        NoteCategory[] categories = NoteCategory.values();
+        return new NoteSummary(id, TITLES[random.nextInt(TITLES.length)], "preview",
+                random.nextInt(50), random.nextInt(50), categories[random.nextInt(categories.length)],
+                random.nextInt(5) == 0);
+    }
+}
@@ -0,0 +1,64 @@
+package com.laylarodas.quicknotes.database;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Partes de la búsqueda aproximada que no necesitan SQLite:
+ * vocabulario, trigramas y distancia de edición.
+ */
+public class NoteWordIndexTest {
+
+    @Test
+    public void trigramsIncludeWordBoundaries() {
+        assertEquals(Arrays.asList(" ca", "cas", "asa", "sa "), NoteWordIndex.trigrams("casa"));
+        // Repetidos una sola vez (la clave primaria es (trigram, wordId))
+        assertEquals(Arrays.asList(" aa", "aaa", "aa "), NoteWordIndex.trigrams("aaaa"));
+    }
+
+    @Test
+    public void wordsAreCountedOncePerNote() {
+        Map<String, Integer> counts = new HashMap<>();
+        NoteWordIndex.countWords(counts, "Reunión", "reunion el LUNES, otra reunión", 1);
+        assertEquals(Integer.valueOf(1), counts.get("reunion"));
+        assertEquals(Integer.valueOf(1), counts.get("lunes"));
+        assertEquals(Integer.valueOf(1), counts.get("otra"));
+        assertFalse("Palabras de menos de 3 letras no se indexan", counts.containsKey("el"));
+
+        // Quitar la versión vieja y poner la nueva solo deja lo que cambió
+        NoteWordIndex.countWords(counts, "Reunión", "reunion el martes", -1);
+        assertEquals(Integer.valueOf(0), counts.get("reunion"));
+        assertEquals(Integer.valueOf(1), counts.get("lunes"));
+        assertEquals(Integer.valueOf(-1), counts.get("martes"));
+    }
+
+    @Test
+    public void distanceCountsTyposAndTranspositions() {
+        assertEquals(0, NoteWordIndex.distance("reunion", "reunion", 2, false));
+        assertEquals(1, NoteWordIndex.distance("reunoin", "reunion", 2, false)); // Transposición
+        assertEquals(1, NoteWordIndex.distance("reunon", "reunion", 2, false));  // Falta una letra
+        assertEquals(1, NoteWordIndex.distance("reuniom", "reunion", 2, false)); // Letra cambiada
+        assertEquals(1, NoteWordIndex.distance("lunse", "lunes", 2, false));
+        assertEquals(3, NoteWordIndex.distance("casa", "perro", 2, false)); // Más que max: max + 1
+    }
+
+    @Test
+    public void prefixDistanceMatchesTheStartOfLongerWords() {
+        assertEquals(3, NoteWordIndex.distance("reunoi", "reuniones", 2, false));
+        assertEquals(1, NoteWordIndex.distance("reunoi", "reuniones", 2, true));
+        assertEquals(3, NoteWordIndex.distance("factur", "pelicula", 2, true));
+    }
+
+    @Test
+    public void allowedEditsGrowWithLength() {
+        assertEquals(1, NoteWordIndex.maxEdits(3));
+        assertEquals(1, NoteWordIndex.maxEdits(4));
+        assertEquals(2, NoteWordIndex.maxEdits(5));
+        assertEquals(2, NoteWordIndex.maxEdits(12));
+    }
+}
@@ -0,0 +1,43 @@
+package com.laylarodas.quicknotes.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Lo que escribe el usuario nunca debe funcionar como sintaxis de MATCH:
+ * cada palabra es un término entre comillas, con el prefijo dentro.
+ */
+public class SearchUtilsTest {
+
+    @Test
+    public void everyWordBecomesAQuotedPrefix() {
+        assertEquals("\"cas*\" \"verde*\"", SearchUtils.buildMatchQuery("cas verde"));
+        assertEquals("\"Canción*\"", SearchUtils.buildMatchQuery("  Canción  "));
+        assertEquals("", SearchUtils.buildMatchQuery(null));
+        assertEquals("", SearchUtils.buildMatchQuery(" - \" * "));
+    }
+
+    @Test
+    public void operatorWordsAreSearchedAsWords() {
+        assertEquals("\"perro*\" \"OR*\" \"gato*\"", SearchUtils.buildMatchQuery("perro OR gato"));
+        assertEquals("\"and*\" \"not*\" \"near*\"", SearchUtils.buildMatchQuery("and not near"));
+        assertEquals("\"NEAR*\" \"NOT*\" \"AND*\"", SearchUtils.buildMatchQuery("NEAR NOT AND"));
+    }
+
+    @Test
+    public void punctuationIsNotPassedToMatch() {
+        // "-" excluiría la palabra y las comillas abrirían una frase
+        assertEquals("\"pan*\" \"leche*\"", SearchUtils.buildMatchQuery("pan -leche"));
+        assertEquals("\"lista*\" \"compras*\"", SearchUtils.buildMatchQuery("\"lista\" compras\""));
+        assertEquals("\"e*\" \"mail*\"", SearchUtils.buildMatchQuery("e-mail"));
+        assertEquals("\"a*\" \"b*\"", SearchUtils.buildMatchQuery("a* (b)"));
+        assertEquals("\"titulo*\" \"x*\"", SearchUtils.buildMatchQuery("titulo:x"));
+    }
+
+    @Test
+    public void quotesInsideATokenAreEscaped() {
+        assertEquals("\"di\"\"ce*\"", SearchUtils.quoteToken("di\"ce", true));
+        assertEquals("\"reunion\"", SearchUtils.quoteToken("reunion", false));
+    }
+}
@@ -0,0 +1,79 @@
+package com.laylarodas.quicknotes.benchmark;
+
+import com.laylarodas.quicknotes.model.Note;
+import com.laylarodas.quicknotes.model.NoteCategory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Datos de prueba reproducibles para los benchmarks.
+ * Misma semilla -> mismas notas en cada ejecución y en cada máquina,
+ * así los resultados se pueden comparar entre versiones.
+ */
+final class BenchmarkData {
+
+    static final long SEED = 42;
+    static final long NOW = 1_700_000_000_000L; // Fecha fija: no depende de cuándo se ejecuta
+
+    private static final long TWO_YEARS_MS = 2L * 365 * 24 * 60 * 60 * 1000;
+
+    private static final String[] WORDS = {
+            "casa", "canción", "reunión", "compras", "leche", "pan", "proyecto", "informe",
+            "viaje", "médico", "cumpleaños", "regalo", "idea", "aplicación", "diseño", "código",
+            "estudiar", "examen", "matemáticas", "historia", "llamar", "mamá", "trabajo", "jefe",
+            "presupuesto", "factura", "gimnasio", "receta", "cena", "película", "libro", "música",
+            "verde", "rápido", "importante", "mañana", "semana", "lunes", "viernes", "julio"
+    };
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Notas con título corto y contenido de longitud variable (la mayoría cortas, algunas largas).
+     */
+    static List<Note> notes(int count) {
+        Random random = new Random(SEED);
+        NoteCategory[] categories = NoteCategory.values();
+        List<Note> notes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String id = new UUID(random.nextLong(), random.nextLong()).toString();
+            String title = sentence(random, 2 + random.nextInt(4));
+            // Distribución sesgada: 90% notas de 5-60 palabras, 10% de hasta 600
+            int contentWords = random.nextInt(10) == 0 ? 60 + random.nextInt(540) : 5 + random.nextInt(55);
+            String content = sentence(random, contentWords);
+            long modifiedAt = NOW - (long) (random.nextDouble() * TWO_YEARS_MS);
+            long createdAt = modifiedAt - (long) (random.nextDouble() * TWO_YEARS_MS);
+            notes.add(new Note(id, title, content, createdAt, modifiedAt,
+                    categories[random.nextInt(categories.length)], random.nextInt(20) == 0));
+        }
+        return notes;
+    }
+
+    /**
+     * Búsquedas típicas escritas por el usuario (con y sin acentos, varias palabras).
+     */
+    static String[] queries() {
+        return new String[]{"cas", "cancion", "reunión lunes", "Proyecto", "med", "compras leche pan", "xyz"};
+    }
+
+    /**
+     * Texto de una nota con el número de palabras indicado (misma semilla: siempre el mismo texto).
+     */
+    static String text(int words) {
+        return sentence(new Random(SEED), words);
+    }
+
+    private static String sentence(Random random, int words) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                builder.append(random.nextInt(12) == 0 ? ". " : " ");
+            }
+            builder.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,79 @@
+package com.laylarodas.quicknotes.benchmark;
+
+import com.laylarodas.quicknotes.model.NoteCategory;
+import com.laylarodas.quicknotes.utils.DateUtils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Trabajo que hace NoteViewHolder en cada bind, sin las vistas de Android
+ * (setText/setBackgroundColor no se pueden medir en la JVM).
+ *
+ * - bindLegacy: como antes, NoteCategory.valueOf() con try/catch, parseo del color hex
+ *   y dos listeners nuevos por bind
+ * - bind: NoteCategory.fromString() sin excepciones, color ya precalculado
+ *   y listeners creados una vez por ViewHolder
+ *
+ * Con el profiler "gc", gc.alloc.rate.norm indica los bytes asignados por bind.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BindPathBenchmark {
+
+    private static final int SIZE = 1024;
+    private static final long NOW = 1_700_000_000_000L;
+    private static final long THIRTY_DAYS_MS = 30L * 24 * 60 * 60 * 1000;
+
+    private final String[] categories = new String[SIZE];
+    private final long[] timestamps = new long[SIZE];
+    private int index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        NoteCategory[] values = NoteCategory.values();
+        for (int i = 0; i < SIZE; i++) {
+            // ~10% con valores que no existen (backups viejos o importados a mano)
+            categories[i] = random.nextInt(10) == 0 ? "OTHER" : values[random.nextInt(values.length)].name();
+            timestamps[i] = NOW - (long) (random.nextDouble() * THIRTY_DAYS_MS);
+        }
+    }
+
+    @Benchmark
+    public void bindLegacy(Blackhole blackhole) {
+        index = (index + 1) & (SIZE - 1);
+        NoteCategory category;
+        try {
+            category = NoteCategory.valueOf(categories[index]);
+        } catch (IllegalArgumentException e) {
+            category = NoteCategory.NONE;
+        }
+        // Color.parseColor("#RRGGBB")
+        blackhole.consume((int) (0xFF000000L | Long.parseLong(category.getColorHex().substring(1), 16)));
+        blackhole.consume(LegacyDateUtils.getTimeAgo(timestamps[index], NOW));
+        // setOnClickListener / setOnLongClickListener con lambdas nuevas en cada bind
+        final int position = index;
+        Runnable onClick = () -> blackhole.consume(position);
+        Runnable onLongClick = () -> blackhole.consume(position);
+        blackhole.consume(onClick);
+        blackhole.consume(onLongClick);
+    }
+
+    @Benchmark
+    public void bind(Blackhole blackhole) {
+        index = (index + 1) & (SIZE - 1);
+        blackhole.consume(NoteCategory.fromString(categories[index]).getColor());
+        blackhole.consume(DateUtils.getTimeAgo(timestamps[index], NOW));
+    }
+}
@@ -0,0 +1,77 @@
+package com.laylarodas.quicknotes.benchmark;
+
+import com.laylarodas.quicknotes.utils.DateUtils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara DateUtils contra la versión anterior (LegacyDateUtils).
+ * Con el profiler "gc", gc.alloc.rate.norm indica los bytes asignados por llamada.
+ *
+ * Simula el bind de una lista: timestamps repartidos entre "ahora mismo" y varios años atrás.
+ * La semilla es fija para que los resultados se puedan comparar entre ejecuciones.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DateUtilsBenchmark {
+
+    private static final int SIZE = 1024; // Potencia de 2 para recorrer con una máscara
+    private static final long NOW = 1_700_000_000_000L;
+    private static final long FIVE_YEARS_MS = 5L * 365 * 24 * 60 * 60 * 1000;
+
+    private final long[] timestamps = new long[SIZE];
+    private int index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < SIZE; i++) {
+            // Sesgo hacia notas recientes, como en una lista real
+            double r = random.nextDouble();
+            timestamps[i] = NOW - (long) (r * r * r * FIVE_YEARS_MS);
+        }
+    }
+
+    private long nextTimestamp() {
+        index = (index + 1) & (SIZE - 1);
+        return timestamps[index];
+    }
+
+    @Benchmark
+    public String timeAgoLegacy() {
+        return LegacyDateUtils.getTimeAgo(nextTimestamp(), NOW);
+    }
+
+    @Benchmark
+    public String timeAgo() {
+        return DateUtils.getTimeAgo(nextTimestamp(), NOW);
+    }
+
+    @Benchmark
+    public String formattedDateLegacy() {
+        return LegacyDateUtils.getFormattedDate(nextTimestamp());
+    }
+
+    @Benchmark
+    public String formattedDate() {
+        return DateUtils.getFormattedDate(nextTimestamp());
+    }
+
+    /**
+     * Caso típico al hacer scroll: la misma fila se vuelve a enlazar con la misma fecha.
+     */
+    @Benchmark
+    public String formattedDateSameMinute() {
+        return DateUtils.getFormattedDate(NOW);
+    }
+}
@@ -0,0 +1,84 @@
+package com.laylarodas.quicknotes.benchmark;
+
+import com.google.gson.stream.JsonWriter;
+import com.laylarodas.quicknotes.model.Note;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialización de la exportación (mismo formato que NoteExportService).
+ *
+ * NoteExportService escribe con android.util.JsonWriter desde un Cursor, que no existen en la JVM;
+ * aquí se usa com.google.gson.stream.JsonWriter (mismo API, Android lo tomó de Gson)
+ * y se escribe a un stream que descarta los bytes, para medir solo la serialización.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ExportBenchmark {
+
+    @Param({"1000", "10000"})
+    public int noteCount;
+
+    private List<Note> notes;
+
+    @Setup
+    public void setUp() {
+        notes = BenchmarkData.notes(noteCount);
+    }
+
+    @Benchmark
+    public long exportJson() throws IOException {
+        CountingOutputStream output = new CountingOutputStream();
+        try (JsonWriter writer = new JsonWriter(new BufferedWriter(
+                new OutputStreamWriter(output, StandardCharsets.UTF_8)))) {
+            writer.setIndent("  ");
+            writer.beginArray();
+            for (Note note : notes) {
+                writer.beginObject();
+                writer.name("id").value(note.getId());
+                writer.name("title").value(note.getTitle());
+                writer.name("content").value(note.getContent());
+                writer.name("createdAt").value(note.getCreatedAt());
+                writer.name("modifiedAt").value(note.getModifiedAt());
+                writer.name("category").value(note.getCategory().name());
+                writer.name("isPinned").value(note.isPinned());
+                writer.endObject();
+            }
+            writer.endArray();
+        }
+        return output.count;
+    }
+
+    /**
+     * Cuenta los bytes escritos sin guardarlos.
+     */
+    private static class CountingOutputStream extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.laylarodas.quicknotes.benchmark;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * Copia de DateUtils antes de la caché de formatos y etiquetas.
+ * Solo se usa como referencia ("antes") en DateUtilsBenchmark.
+ */
+class LegacyDateUtils {
+
+    static String getTimeAgo(long timestamp, long now) {
+        long diff = now - timestamp;
+
+        long seconds = diff / 1000;
+        long minutes = seconds / 60;
+        long hours = minutes / 60;
+        long days = hours / 24;
+        long months = days / 30;
+        long years = days / 365;
+
+        if (seconds < 60) {
+            return "Ahora mismo";
+        } else if (minutes < 60) {
+            return minutes == 1 ? "Hace 1 minuto" : "Hace " + minutes + " minutos";
+        } else if (hours < 24) {
+            return hours == 1 ? "Hace 1 hora" : "Hace " + hours + " horas";
+        } else if (days < 30) {
+            return days == 1 ? "Hace 1 día" : "Hace " + days + " días";
+        } else if (months < 12) {
+            return months == 1 ? "Hace 1 mes" : "Hace " + months + " meses";
+        } else {
+            return years == 1 ? "Hace 1 año" : "Hace " + years + " años";
+        }
+    }
+
+    static String getFormattedDate(long timestamp) {
+        SimpleDateFormat sdf = new SimpleDateFormat("dd MMM yyyy, HH:mm", new Locale("es", "ES"));
+        return sdf.format(new Date(timestamp));
+    }
+}
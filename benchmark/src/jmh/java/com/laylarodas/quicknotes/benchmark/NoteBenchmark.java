@@ -0,0 +1,74 @@
+package com.laylarodas.quicknotes.benchmark;
+
+import com.laylarodas.quicknotes.model.Note;
+
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creación de notas (incluye UUID.randomUUID()) y la serialización JSON
+ * de Note.toJson()/fromJson() que usa la migración desde SharedPreferences.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class NoteBenchmark {
+
+    private static final int SIZE = 1024;
+
+    private List<Note> notes;
+    private JSONObject[] json;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        notes = BenchmarkData.notes(SIZE);
+        json = new JSONObject[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            json[i] = notes.get(i).toJson();
+        }
+    }
+
+    private int next() {
+        index = (index + 1) & (SIZE - 1);
+        return index;
+    }
+
+    /**
+     * Solo el UUID: SecureRandom es la parte cara de crear una nota.
+     */
+    @Benchmark
+    public UUID randomUuid() {
+        return UUID.randomUUID();
+    }
+
+    @Benchmark
+    public Note newNote() {
+        return new Note("Lista de compras", "leche, pan, huevos");
+    }
+
+    @Benchmark
+    public Note copy() {
+        return notes.get(next()).copy();
+    }
+
+    @Benchmark
+    public JSONObject toJson() {
+        return notes.get(next()).toJson();
+    }
+
+    @Benchmark
+    public Note fromJson() {
+        return Note.fromJson(json[next()]);
+    }
+}
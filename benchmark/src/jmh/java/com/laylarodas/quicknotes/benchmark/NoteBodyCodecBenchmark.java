@@ -0,0 +1,53 @@
+package com.laylarodas.quicknotes.benchmark;
+
+import com.laylarodas.quicknotes.database.NoteBodyCodec;
+import com.laylarodas.quicknotes.model.NoteContent;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de comprimir (guardar) y descomprimir (abrir) el contenido de una nota
+ * con NoteBodyCodec, para notas de distintos tamaños.
+ * El setup imprime el tamaño original y el comprimido de cada caso.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NoteBodyCodecBenchmark {
+
+    // Palabras aproximadas por nota: ~0.5 KB, ~4 KB, ~32 KB
+    @Param({"60", "500", "4000"})
+    public int words;
+
+    private String content;
+    private NoteContent encoded;
+
+    @Setup
+    public void setUp() {
+        content = BenchmarkData.text(words);
+        encoded = NoteBodyCodec.encode("id", content);
+        System.out.println("\n" + words + " palabras: " + content.getBytes(StandardCharsets.UTF_8).length
+                + " bytes -> " + (encoded.getBody() != null ? encoded.getBody().length : 0)
+                + " bytes (encoding=" + encoded.getEncoding() + ")");
+    }
+
+    @Benchmark
+    public NoteContent encode() {
+        return NoteBodyCodec.encode("id", content);
+    }
+
+    @Benchmark
+    public String decode() {
+        return NoteBodyCodec.decode(encoded);
+    }
+}
@@ -0,0 +1,41 @@
+package com.laylarodas.quicknotes.benchmark;
+
+import com.laylarodas.quicknotes.model.NoteCategory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Búsqueda de categorías por nombre (importación de backups) y por código (lectura de Room).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class NoteCategoryBenchmark {
+
+    // No constantes: evita que el JIT resuelva la búsqueda en compilación
+    private String knownName = "IMPORTANT";
+    private String unknownName = "OTHER";
+    private int code = 4;
+
+    @Benchmark
+    public NoteCategory fromStringKnown() {
+        return NoteCategory.fromString(knownName);
+    }
+
+    @Benchmark
+    public NoteCategory fromStringUnknown() {
+        return NoteCategory.fromString(unknownName);
+    }
+
+    @Benchmark
+    public NoteCategory fromCode() {
+        return NoteCategory.fromCode(code);
+    }
+}
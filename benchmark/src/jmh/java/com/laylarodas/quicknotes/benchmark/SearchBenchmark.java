@@ -0,0 +1,91 @@
+package com.laylarodas.quicknotes.benchmark;
+
+import com.laylarodas.quicknotes.model.Note;
+import com.laylarodas.quicknotes.utils.SearchUtils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Búsqueda en memoria de NoteSearchPipeline: normalizar el texto de las notas
+ * y filtrar por prefijos cuando el usuario sigue escribiendo.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SearchBenchmark {
+
+    @Param({"1000", "10000"})
+    public int noteCount;
+
+    private List<Note> notes;
+    private String[] normalizedTexts;
+    private String[] queries;
+    private List<String>[] tokens;
+    private int queryIndex;
+
+    @SuppressWarnings("unchecked")
+    @Setup
+    public void setUp() {
+        notes = BenchmarkData.notes(noteCount);
+        normalizedTexts = new String[noteCount];
+        for (int i = 0; i < noteCount; i++) {
+            Note note = notes.get(i);
+            normalizedTexts[i] = SearchUtils.normalize(note.getTitle() + " " + note.getContent());
+        }
+        queries = BenchmarkData.queries();
+        tokens = new List[queries.length];
+        for (int i = 0; i < queries.length; i++) {
+            tokens[i] = SearchUtils.tokenize(queries[i]);
+        }
+    }
+
+    private int nextQuery() {
+        queryIndex = (queryIndex + 1) % queries.length;
+        return queryIndex;
+    }
+
+    /**
+     * Preparar la caché de NoteSearchPipeline: normalizar todas las notas.
+     */
+    @Benchmark
+    public int normalizeAll() {
+        int length = 0;
+        for (Note note : notes) {
+            length += SearchUtils.normalize(note.getTitle() + " " + note.getContent()).length();
+        }
+        return length;
+    }
+
+    /**
+     * Filtrar en memoria todas las notas con una búsqueda (ya normalizadas).
+     */
+    @Benchmark
+    public int matchAll() {
+        List<String> queryTokens = tokens[nextQuery()];
+        int matches = 0;
+        for (String text : normalizedTexts) {
+            if (SearchUtils.matchesAllPrefixes(text, queryTokens)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Lo que se hace por cada tecla antes de consultar SQLite.
+     */
+    @Benchmark
+    public String buildMatchQuery() {
+        return SearchUtils.buildMatchQuery(queries[nextQuery()]);
+    }
+}